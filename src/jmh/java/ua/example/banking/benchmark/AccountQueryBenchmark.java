@@ -0,0 +1,114 @@
+package ua.example.banking.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.example.banking.BankingApplication;
+import ua.example.banking.mappers.AccountMapper;
+import ua.example.banking.model.dto.account.AccountDto;
+import ua.example.banking.model.entity.Account;
+import ua.example.banking.repository.AccountRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading a page of accounts as managed entities in a read-write transaction with loading it as
+ * {@link ua.example.banking.model.projection.AccountView} projections in a read-only one. Run with
+ * {@code -PjmhProfilers=gc} to see the allocation per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AccountQueryBenchmark {
+
+    private static final int PAGE_SIZE = 1000;
+
+    @Param({"ENTITY", "PROJECTION"})
+    public String loadStrategy;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private EntityManager entityManager;
+    private AccountRepository accountRepository;
+    private AccountMapper accountMapper;
+    private TransactionTemplate readWriteTransactionTemplate;
+    private TransactionTemplate readOnlyTransactionTemplate;
+    private int insertedAccounts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BankingApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + BenchmarkDatabase.URL,
+                        "--spring.datasource.username=" + BenchmarkDatabase.USERNAME,
+                        "--spring.datasource.password=" + BenchmarkDatabase.PASSWORD,
+                        "--logging.level.root=WARN");
+
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        entityManager = context.getBean(EntityManager.class);
+        accountRepository = context.getBean(AccountRepository.class);
+        accountMapper = context.getBean(AccountMapper.class);
+
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWriteTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+
+        Integer existing = jdbcTemplate.queryForObject("select count(*) from account", Integer.class);
+        insertedAccounts = Math.max(0, PAGE_SIZE - existing);
+        jdbcTemplate.update("""
+                insert into account (id, owner_name, balance, create_date_time)
+                select nextval('%s'), 'benchmark', 100, now() from generate_series(1, ?)
+                """.formatted(Account.ID_SEQUENCE), insertedAccounts);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (insertedAccounts > 0) {
+            jdbcTemplate.update("delete from account_balance_checkpoint where account_number in "
+                    + "(select account_number from account where owner_name = 'benchmark')");
+            jdbcTemplate.update("delete from account where owner_name = 'benchmark'");
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public List<AccountDto> loadAccountPage() {
+        if ("ENTITY".equals(loadStrategy)) {
+            return readWriteTransactionTemplate.execute(status -> entityManager
+                    .createQuery("select a from Account a order by a.id", Account.class)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList()
+                    .stream()
+                    .map(accountMapper::mapToDto)
+                    .toList());
+        }
+        return readOnlyTransactionTemplate.execute(status -> accountRepository
+                .findAllByOrderByIdAsc(Limit.of(PAGE_SIZE))
+                .stream()
+                .map(accountMapper::mapToDto)
+                .toList());
+    }
+}
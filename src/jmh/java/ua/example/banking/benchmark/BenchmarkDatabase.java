@@ -0,0 +1,25 @@
+package ua.example.banking.benchmark;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class BenchmarkDatabase {
+
+    static final String URL = System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/banking");
+    static final String USERNAME = System.getProperty("benchmark.jdbc.username", "username");
+    static final String PASSWORD = System.getProperty("benchmark.jdbc.password", "password");
+
+    static Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", USERNAME);
+        properties.setProperty("password", PASSWORD);
+        properties.setProperty("reWriteBatchedInserts", "true");
+        return DriverManager.getConnection(URL, properties);
+    }
+}
@@ -0,0 +1,256 @@
+package ua.example.banking.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.ConcurrencyFailureException;
+import ua.example.banking.BankingApplication;
+import ua.example.banking.advice.exception.ConcurrentOperationException;
+import ua.example.banking.advice.exception.ServiceUnavailableException;
+import ua.example.banking.advice.exception.TransactionConflictException;
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.entity.Account;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.service.TransactionService;
+import ua.example.banking.service.bucket.BalanceBucketManager;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives {@link TransactionService} from several threads with transfers and deposits whose target accounts are
+ * Zipf-distributed, so a few "merchant" accounts receive most of the money, while sources are picked uniformly.
+ * Operations aborted by a lock timeout, a conflict the service did not resolve by its own retries or a full queue are
+ * retried; committed, aborted and failed operations are reported as secondary results. After the run the balances are
+ * checked against the transactions: the sum of balances minus deposits plus withdrawals must equal the seeded total.
+ * <p>
+ * Contention rises with {@code zipfExponent} and with the thread count ({@code -PjmhThreads=16}). With
+ * {@code balanceBuckets} above 0 the most popular accounts take credits into that many balance buckets, and with
+ * {@code accountLockMode} {@code optimistic} transfers check account versions instead of locking the accounts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(8)
+@Fork(1)
+public class ContentionBenchmark {
+
+    private static final String OWNER_NAME = "contention-benchmark";
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int MERCHANTS = 10;
+
+    @Param({"jpa", "group-commit", "ledger"})
+    public String transactionsMode;
+
+    @Param({"0.0", "0.99", "1.5"})
+    public double zipfExponent;
+
+    @Param({"1000"})
+    public int accounts;
+
+    @Param({"0", "8"})
+    public int balanceBuckets;
+
+    @Param({"pessimistic", "optimistic"})
+    public String accountLockMode;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private List<UUID> accountNumbers;
+    private ZipfSelector<UUID> merchantSelector;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Outcomes {
+
+        public long committed;
+        public long aborted;
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            committed = 0;
+            aborted = 0;
+            failed = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        try (Connection connection = BenchmarkDatabase.connect()) {
+            cleanUp(connection);
+            accountNumbers = new ArrayList<>(accounts);
+            try (PreparedStatement statement = connection.prepareStatement("""
+                    insert into account (id, owner_name, balance, create_date_time)
+                    select nextval('%s'), ?, ?, now() from generate_series(1, ?)
+                    returning account_number
+                    """.formatted(Account.ID_SEQUENCE))) {
+                statement.setString(1, OWNER_NAME);
+                statement.setBigDecimal(2, INITIAL_BALANCE);
+                statement.setInt(3, accounts);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        accountNumbers.add(resultSet.getObject(1, UUID.class));
+                    }
+                }
+            }
+        }
+        merchantSelector = new ZipfSelector<>(accountNumbers, zipfExponent);
+        System.out.printf("%nTop %d of %d accounts receive %.1f%% of transfers and deposits.%n",
+                MERCHANTS, accounts, merchantSelector.headProbability(MERCHANTS) * 100);
+
+        // started after seeding so the ledger loads the seeded balances
+        context = new SpringApplicationBuilder(BankingApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + BenchmarkDatabase.URL,
+                        "--spring.datasource.username=" + BenchmarkDatabase.USERNAME,
+                        "--spring.datasource.password=" + BenchmarkDatabase.PASSWORD,
+                        "--banking.transactions.mode=" + transactionsMode,
+                        "--banking.account-lock.mode=" + accountLockMode,
+                        "--logging.level.root=WARN");
+        transactionService = context.getBean(TransactionService.class);
+
+        if (balanceBuckets > 0) {
+            BalanceBucketManager balanceBucketManager = context.getBean(BalanceBucketManager.class);
+            accountNumbers.subList(0, MERCHANTS)
+                    .forEach(merchant -> balanceBucketManager.setBalanceBuckets(merchant, balanceBuckets));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        // closing the context persists whatever the ledger still holds before balances are checked
+        context.close();
+
+        try (Connection connection = BenchmarkDatabase.connect()) {
+            checkBalanceConservation(connection);
+            cleanUp(connection);
+        }
+    }
+
+    @Benchmark
+    public void createTransaction(Outcomes outcomes) {
+        CreateTransactionDto request = nextRequest();
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                transactionService.createTransaction(request);
+                outcomes.committed++;
+                return;
+            } catch (ConcurrentOperationException | TransactionConflictException | ConcurrencyFailureException
+                     | ServiceUnavailableException e) {
+                outcomes.aborted++;
+            } catch (RuntimeException e) {
+                break;
+            }
+        }
+        outcomes.failed++;
+    }
+
+    private CreateTransactionDto nextRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID customer = accountNumbers.get(random.nextInt(accountNumbers.size()));
+        int operation = random.nextInt(10);
+        if (operation == 0) {
+            return new CreateTransactionDto(TransactionType.DEPOSIT, null, merchantSelector.next(), AMOUNT);
+        }
+        if (operation == 1) {
+            return new CreateTransactionDto(TransactionType.WITHDRAW, customer, null, AMOUNT);
+        }
+
+        UUID merchant = merchantSelector.next();
+        while (merchant.equals(customer)) {
+            customer = accountNumbers.get(random.nextInt(accountNumbers.size()));
+        }
+        return new CreateTransactionDto(TransactionType.TRANSFER, customer, merchant, AMOUNT);
+    }
+
+    private void checkBalanceConservation(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("""
+                select (select sum(balance) from account where owner_name = ?)
+                           + (select coalesce(sum(b.balance), 0) from account_balance_bucket b
+                               join account a on a.account_number = b.account_number
+                              where a.owner_name = ?),
+                       (select coalesce(sum(t.amount), 0) from transaction t
+                         join account a on a.account_number = t.account_number_to
+                        where a.owner_name = ? and t.transaction_type = 'DEPOSIT'),
+                       (select coalesce(sum(t.amount), 0) from transaction t
+                         join account a on a.account_number = t.account_number_from
+                        where a.owner_name = ? and t.transaction_type = 'WITHDRAW'),
+                       (select count(*) from transaction t
+                         join account a on a.account_number = t.account_number_to
+                        where a.owner_name = ?)
+                """)) {
+            for (int i = 1; i <= 5; i++) {
+                statement.setString(i, OWNER_NAME);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                BigDecimal balances = resultSet.getBigDecimal(1);
+                BigDecimal deposits = resultSet.getBigDecimal(2);
+                BigDecimal withdrawals = resultSet.getBigDecimal(3);
+                BigDecimal expected = INITIAL_BALANCE.multiply(BigDecimal.valueOf(accounts));
+                BigDecimal actual = balances.subtract(deposits).add(withdrawals);
+
+                if (actual.compareTo(expected) != 0) {
+                    throw new IllegalStateException("Balance conservation violated: balances %s - deposits %s + withdrawals %s = %s, expected %s."
+                            .formatted(balances, deposits, withdrawals, actual, expected));
+                }
+                System.out.printf("%nBalance conservation holds over %d deposits and transfers: balances %s - deposits %s + withdrawals %s = %s.%n",
+                        resultSet.getLong(4), balances, deposits, withdrawals, actual);
+            }
+        }
+    }
+
+    private static void cleanUp(Connection connection) throws SQLException {
+        try (PreparedStatement transactions = connection.prepareStatement("""
+                delete from transaction where account_number_to in (select account_number from account where owner_name = ?)
+                   or account_number_from in (select account_number from account where owner_name = ?)
+                """);
+             PreparedStatement buckets = connection.prepareStatement("""
+                     delete from account_balance_bucket
+                     where account_number in (select account_number from account where owner_name = ?)
+                     """);
+             PreparedStatement checkpoints = connection.prepareStatement("""
+                     delete from account_balance_checkpoint
+                     where account_number in (select account_number from account where owner_name = ?)
+                     """);
+             PreparedStatement accounts = connection.prepareStatement("delete from account where owner_name = ?")) {
+            transactions.setString(1, OWNER_NAME);
+            transactions.setString(2, OWNER_NAME);
+            transactions.executeUpdate();
+            buckets.setString(1, OWNER_NAME);
+            buckets.executeUpdate();
+            checkpoints.setString(1, OWNER_NAME);
+            checkpoints.executeUpdate();
+            accounts.setString(1, OWNER_NAME);
+            accounts.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ua.example.banking.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ua.example.banking.util.DateUtils;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilsBenchmark {
+
+    private final Timestamp timestamp = DateUtils.nowTimestamp();
+    private final OffsetDateTime offsetDateTime = OffsetDateTime.now(ZoneOffset.ofHours(2));
+
+    @Benchmark
+    public OffsetDateTime timestampToOffsetDateTime() {
+        return DateUtils.timestampToOffsetDateTime(timestamp);
+    }
+
+    @Benchmark
+    public Timestamp offsetDateTimeToTimestamp() {
+        return DateUtils.offsetDateTimeToTimestamp(offsetDateTime);
+    }
+
+    @Benchmark
+    public Timestamp nowTimestamp() {
+        return DateUtils.nowTimestamp();
+    }
+}
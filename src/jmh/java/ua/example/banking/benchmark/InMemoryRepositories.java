@@ -0,0 +1,103 @@
+package ua.example.banking.benchmark;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.example.banking.config.properties.BalanceBucketProperties;
+import ua.example.banking.model.entity.Account;
+import ua.example.banking.model.entity.Transaction;
+import ua.example.banking.repository.AccountRepository;
+import ua.example.banking.repository.TransactionRepository;
+import ua.example.banking.repository.jdbc.BalanceBucketJdbcRepository;
+import ua.example.banking.service.bucket.BalanceBucketManager;
+import ua.example.banking.service.lock.AccountLockManager;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Map-backed stand-ins for the repositories used by {@code TransactionServiceImpl}, so benchmarks measure the
+ * service itself. Only the methods the service calls are implemented.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class InMemoryRepositories {
+
+    static List<Account> accounts(int count, BigDecimal balance) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        AtomicLong ids = new AtomicLong();
+        return Stream.generate(() ->
+                        new Account(ids.incrementAndGet(), UUID.randomUUID(), "benchmark", balance, now, null, 0L))
+                .limit(count)
+                .toList();
+    }
+
+    static AccountRepository accountRepository(Map<UUID, Account> accounts) {
+        return proxy(AccountRepository.class, (method, args) -> switch (method) {
+            case "existsByAccountNumber" -> accounts.containsKey((UUID) args[0]);
+            case "findAllForUpdate" -> ((Collection<?>) args[0]).stream()
+                    .map(accounts::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            case "creditBalance" -> Optional.ofNullable(accounts.get((UUID) args[0]))
+                    .map(account -> changeBalance(account, (BigDecimal) args[1], (Timestamp) args[2]));
+            case "debitBalance" -> Optional.ofNullable(accounts.get((UUID) args[0]))
+                    .filter(account -> account.getBalance().compareTo((BigDecimal) args[1]) >= 0)
+                    .map(account -> changeBalance(account, ((BigDecimal) args[1]).negate(), (Timestamp) args[2]));
+            case "saveAll" -> args[0];
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    /**
+     * No account has balance buckets, so the manager never reaches the database.
+     */
+    static BalanceBucketManager balanceBucketManager(AccountRepository accountRepository, AccountLockManager accountLockManager) {
+        return new BalanceBucketManager(new BalanceBucketJdbcRepository(new JdbcTemplate()), accountRepository,
+                accountLockManager, new BalanceBucketProperties(), new TransactionTemplate());
+    }
+
+    static TransactionRepository transactionRepository() {
+        AtomicLong ids = new AtomicLong();
+        return proxy(TransactionRepository.class, (method, args) -> switch (method) {
+            case "save" -> {
+                Transaction transaction = (Transaction) args[0];
+                transaction.setId(ids.incrementAndGet());
+                yield transaction;
+            }
+            case "saveAll" -> args[0];
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private static BigDecimal changeBalance(Account account, BigDecimal amount, Timestamp updateDateTime) {
+        account.setBalance(account.getBalance().add(amount));
+        account.setUpdateDateTime(updateDateTime);
+        return account.getBalance();
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "toString" -> "InMemory" + type.getSimpleName();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> handler.handle(method.getName(), args);
+                }));
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+
+        Object handle(String method, Object[] args);
+    }
+}
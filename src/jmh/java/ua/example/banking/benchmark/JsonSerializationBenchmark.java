@@ -0,0 +1,51 @@
+package ua.example.banking.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ua.example.banking.model.dto.account.AccountDto;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.util.DateUtils;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes response DTOs with an {@link ObjectMapper} configured the way Spring MVC builds its default one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final AccountDto accountDto = new AccountDto(1L, UUID.randomUUID(), "benchmark",
+            new BigDecimal("100.00"), DateUtils.nowUTC(), DateUtils.nowUTC());
+    private final TransactionDto transactionDto = new TransactionDto(1L, UUID.randomUUID(), UUID.randomUUID(),
+            new BigDecimal("10.00"), TransactionType.TRANSFER, DateUtils.nowUTC());
+
+    @Benchmark
+    public byte[] serializeAccount() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(accountDto);
+    }
+
+    @Benchmark
+    public byte[] serializeTransaction() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transactionDto);
+    }
+}
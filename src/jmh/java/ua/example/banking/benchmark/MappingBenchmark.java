@@ -0,0 +1,59 @@
+package ua.example.banking.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ua.example.banking.mappers.AccountMapper;
+import ua.example.banking.mappers.AccountMapperImpl;
+import ua.example.banking.mappers.TransactionMapper;
+import ua.example.banking.mappers.TransactionMapperImpl;
+import ua.example.banking.model.dto.account.AccountDto;
+import ua.example.banking.model.dto.account.CreateAccountDto;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.entity.Account;
+import ua.example.banking.model.entity.Transaction;
+import ua.example.banking.model.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private final AccountMapper accountMapper = new AccountMapperImpl();
+    private final TransactionMapper transactionMapper = new TransactionMapperImpl();
+
+    private final Timestamp now = new Timestamp(System.currentTimeMillis());
+    private final Account account = new Account(1L, UUID.randomUUID(), "benchmark", new BigDecimal("100.00"), now, now, 0L);
+    private final CreateAccountDto createAccountDto = new CreateAccountDto("benchmark", new BigDecimal("100.00"));
+    private final Transaction transaction = new Transaction(1L, UUID.randomUUID(), UUID.randomUUID(),
+            new BigDecimal("10.00"), TransactionType.TRANSFER, now);
+
+    @Benchmark
+    public AccountDto accountToDto() {
+        return accountMapper.mapToDto(account);
+    }
+
+    @Benchmark
+    public Account createAccountDtoToEntity() {
+        return accountMapper.mapToEntity(createAccountDto);
+    }
+
+    @Benchmark
+    public TransactionDto transactionToDto() {
+        return transactionMapper.mapToDto(transaction);
+    }
+}
@@ -0,0 +1,126 @@
+package ua.example.banking.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ua.example.banking.model.Money;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the same stream of transfers to account balances held as {@link BigDecimal}, {@link Money} and raw
+ * minor units. Balances start high enough that transfers are practically never rejected within an iteration, so
+ * every variant does the same work. Run with {@code -PjmhProfilers=gc} to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final int ACCOUNTS = 1_000;
+    private static final int TRANSFERS = 1_024;
+
+    private final int[] from = new int[TRANSFERS];
+    private final int[] to = new int[TRANSFERS];
+    private final BigDecimal[] decimalAmounts = new BigDecimal[TRANSFERS];
+    private final Money[] moneyAmounts = new Money[TRANSFERS];
+
+    private BigDecimal[] decimalBalances;
+    private Money[] moneyBalances;
+    private long[] minorUnitBalances;
+
+    @Setup(Level.Trial)
+    public void generateTransfers() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < TRANSFERS; i++) {
+            from[i] = random.nextInt(ACCOUNTS);
+            to[i] = random.nextInt(ACCOUNTS);
+            decimalAmounts[i] = BigDecimal.valueOf(random.nextLong(1, 10_000), Money.SCALE);
+            moneyAmounts[i] = Money.of(decimalAmounts[i]);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetBalances() {
+        decimalBalances = new BigDecimal[ACCOUNTS];
+        moneyBalances = new Money[ACCOUNTS];
+        minorUnitBalances = new long[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            decimalBalances[i] = new BigDecimal("1000000.00");
+            moneyBalances[i] = Money.ofMinorUnits(100_000_000);
+            minorUnitBalances[i] = 100_000_000;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public int bigDecimalTransfers() {
+        int rejected = 0;
+        for (int i = 0; i < TRANSFERS; i++) {
+            BigDecimal amount = decimalAmounts[i];
+            if (decimalBalances[from[i]].compareTo(amount) < 0) {
+                rejected++;
+                continue;
+            }
+            decimalBalances[from[i]] = decimalBalances[from[i]].subtract(amount);
+            decimalBalances[to[i]] = decimalBalances[to[i]].add(amount);
+        }
+        return rejected;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public int moneyTransfers() {
+        int rejected = 0;
+        for (int i = 0; i < TRANSFERS; i++) {
+            Money amount = moneyAmounts[i];
+            if (moneyBalances[from[i]].isLessThan(amount)) {
+                rejected++;
+                continue;
+            }
+            moneyBalances[from[i]] = moneyBalances[from[i]].minus(amount);
+            moneyBalances[to[i]] = moneyBalances[to[i]].plus(amount);
+        }
+        return rejected;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public int minorUnitTransfers() {
+        int rejected = 0;
+        for (int i = 0; i < TRANSFERS; i++) {
+            long amount = moneyAmounts[i].minorUnits();
+            if (minorUnitBalances[from[i]] < amount) {
+                rejected++;
+                continue;
+            }
+            minorUnitBalances[from[i]] -= amount;
+            minorUnitBalances[to[i]] += amount;
+        }
+        return rejected;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public long convertFromBigDecimal() {
+        long sum = 0;
+        for (BigDecimal amount : decimalAmounts) {
+            sum += Money.of(amount).minorUnits();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,136 @@
+package ua.example.banking.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ua.example.banking.model.entity.Account;
+import ua.example.banking.model.entity.Transaction;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransactionInsertBenchmark {
+
+    private static final int ROWS_PER_OPERATION = Transaction.ID_ALLOCATION_SIZE;
+
+    private static final String IDENTITY_INSERT_SQL = """
+            insert into transaction (id, account_number_to, amount, transaction_type, create_date_time)
+            values (nextval('%s'), ?, ?, 'DEPOSIT', ?)
+            returning id
+            """.formatted(Transaction.ID_SEQUENCE);
+
+    private static final String NEXT_ID_BLOCK_SQL = "select nextval('%s')".formatted(Transaction.ID_SEQUENCE);
+
+    private static final String BATCH_INSERT_SQL = """
+            insert into transaction (id, account_number_to, amount, transaction_type, create_date_time)
+            values (?, ?, ?, 'DEPOSIT', ?)
+            """;
+
+    @Param({"IDENTITY", "POOLED_SEQUENCE_BATCH"})
+    public String idStrategy;
+
+    private Connection connection;
+    private UUID accountNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = BenchmarkDatabase.connect();
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement statement = connection.prepareStatement("""
+                insert into account (id, owner_name, balance, create_date_time)
+                values (nextval('%s'), 'benchmark', 0, now())
+                returning account_number
+                """.formatted(Account.ID_SEQUENCE));
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            accountNumber = resultSet.getObject(1, UUID.class);
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (PreparedStatement transactions = connection.prepareStatement("delete from transaction where account_number_to = ?");
+             PreparedStatement account = connection.prepareStatement("delete from account where account_number = ?")) {
+            transactions.setObject(1, accountNumber);
+            transactions.executeUpdate();
+            account.setObject(1, accountNumber);
+            account.executeUpdate();
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_OPERATION)
+    public void insertTransactions(Blackhole blackhole) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        if ("IDENTITY".equals(idStrategy)) {
+            insertRowByRow(now, blackhole);
+        } else {
+            insertBatch(now);
+        }
+
+        connection.commit();
+    }
+
+    private void insertRowByRow(Timestamp now, Blackhole blackhole) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(IDENTITY_INSERT_SQL)) {
+            for (int i = 0; i < ROWS_PER_OPERATION; i++) {
+                statement.setObject(1, accountNumber);
+                statement.setBigDecimal(2, BigDecimal.ONE);
+                statement.setTimestamp(3, now);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    blackhole.consume(resultSet.getLong(1));
+                }
+            }
+        }
+    }
+
+    private void insertBatch(Timestamp now) throws SQLException {
+        long blockEnd;
+        try (PreparedStatement statement = connection.prepareStatement(NEXT_ID_BLOCK_SQL);
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            blockEnd = resultSet.getLong(1);
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(BATCH_INSERT_SQL)) {
+            for (long id = blockEnd - ROWS_PER_OPERATION + 1; id <= blockEnd; id++) {
+                statement.setLong(1, id);
+                statement.setObject(2, accountNumber);
+                statement.setBigDecimal(3, BigDecimal.ONE);
+                statement.setTimestamp(4, now);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package ua.example.banking.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.example.banking.config.properties.AccountCacheProperties;
+import ua.example.banking.config.properties.AccountLockProperties;
+import ua.example.banking.config.properties.LoggingProperties;
+import ua.example.banking.config.properties.TransactionRetryProperties;
+import ua.example.banking.mappers.TransactionMapperImpl;
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.entity.Account;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.monitoring.LogSampler;
+import ua.example.banking.service.cache.AccountCache;
+import ua.example.banking.service.impl.TransactionServiceImpl;
+import ua.example.banking.service.lock.AccountLockManager;
+import ua.example.banking.service.retry.TransactionRetryPolicy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Measures {@link TransactionServiceImpl#createTransactionInCurrentTransaction} for a transfer with its success event written
+ * synchronously as text, handed to an asynchronous structured appender, sampled at 1% on top of that, or disabled.
+ * Events go to a temporary file, standing in for console output redirected by the container runtime; each invocation
+ * runs in a simulated transaction that commits afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionLoggingBenchmark {
+
+    private static final double SAMPLE_RATE = 0.01;
+
+    @Param({"SYNC_TEXT", "ASYNC_STRUCTURED", "ASYNC_STRUCTURED_SAMPLED", "OFF"})
+    public String loggingMode;
+
+    private Path logFile;
+    private Logger serviceLogger;
+    private Appender<ILoggingEvent> appender;
+    private TransactionServiceImpl transactionService;
+    private CreateTransactionDto request;
+
+    @Setup
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("transaction-logging-benchmark", ".log");
+        serviceLogger = (Logger) LoggerFactory.getLogger(TransactionServiceImpl.class);
+        serviceLogger.setAdditive(false);
+        if ("OFF".equals(loggingMode)) {
+            serviceLogger.setLevel(Level.OFF);
+        } else {
+            serviceLogger.setLevel(Level.INFO);
+            appender = "SYNC_TEXT".equals(loggingMode) ? fileAppender(textEncoder()) : asyncAppender();
+            serviceLogger.addAppender(appender);
+        }
+
+        LoggingProperties loggingProperties = new LoggingProperties();
+        if ("ASYNC_STRUCTURED_SAMPLED".equals(loggingMode)) {
+            loggingProperties.setSuccessSampleRate(SAMPLE_RATE);
+        }
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        List<Account> accounts = InMemoryRepositories.accounts(2, new BigDecimal("1000000000000.00"));
+        Map<UUID, Account> accountsByNumber = accounts.stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+        var accountRepository = InMemoryRepositories.accountRepository(accountsByNumber);
+        AccountLockManager accountLockManager = new AccountLockManager(accountRepository, new AccountLockProperties(), meterRegistry);
+        transactionService = new TransactionServiceImpl(
+                new TransactionMapperImpl(),
+                accountRepository,
+                InMemoryRepositories.transactionRepository(),
+                accountLockManager,
+                new AccountCache(new AccountCacheProperties(), List.of(), meterRegistry),
+                new LogSampler(loggingProperties),
+                InMemoryRepositories.balanceBucketManager(accountRepository, accountLockManager),
+                new TransactionTemplate(),
+                new TransactionRetryPolicy(new TransactionRetryProperties(), meterRegistry));
+
+        request = new CreateTransactionDto(TransactionType.TRANSFER, accounts.get(0).getAccountNumber(),
+                accounts.get(1).getAccountNumber(), new BigDecimal("0.01"));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (appender != null) {
+            serviceLogger.detachAppender(appender);
+            appender.stop();
+        }
+        serviceLogger.setLevel(null);
+        serviceLogger.setAdditive(true);
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public TransactionDto createTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            return transactionService.createTransactionInCurrentTransaction(request);
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+
+    private Appender<ILoggingEvent> asyncAppender() {
+        AsyncAppender asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(loggerContext());
+        asyncAppender.setQueueSize(8192);
+        asyncAppender.setNeverBlock(true);
+        asyncAppender.setIncludeCallerData(false);
+        asyncAppender.addAppender(fileAppender(structuredEncoder()));
+        asyncAppender.start();
+        return asyncAppender;
+    }
+
+    private Appender<ILoggingEvent> fileAppender(Encoder<ILoggingEvent> encoder) {
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(loggerContext());
+        fileAppender.setFile(logFile.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+        return fileAppender;
+    }
+
+    private Encoder<ILoggingEvent> textEncoder() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext());
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %m %kvp%n");
+        encoder.start();
+        return encoder;
+    }
+
+    private Encoder<ILoggingEvent> structuredEncoder() {
+        LoggerContext context = loggerContext();
+        if (context.getObject(Environment.class.getName()) == null) {
+            context.putObject(Environment.class.getName(), new StandardEnvironment());
+        }
+        StructuredLogEncoder encoder = new StructuredLogEncoder();
+        encoder.setContext(context);
+        encoder.setFormat("logstash");
+        encoder.start();
+        return encoder;
+    }
+
+    private LoggerContext loggerContext() {
+        return serviceLogger.getLoggerContext();
+    }
+}
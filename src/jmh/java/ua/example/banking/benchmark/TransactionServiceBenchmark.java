@@ -0,0 +1,103 @@
+package ua.example.banking.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.example.banking.config.properties.AccountCacheProperties;
+import ua.example.banking.config.properties.AccountLockProperties;
+import ua.example.banking.config.properties.LoggingProperties;
+import ua.example.banking.config.properties.TransactionRetryProperties;
+import ua.example.banking.mappers.TransactionMapperImpl;
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.entity.Account;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.monitoring.LogSampler;
+import ua.example.banking.service.cache.AccountCache;
+import ua.example.banking.service.impl.TransactionServiceImpl;
+import ua.example.banking.service.lock.AccountLockManager;
+import ua.example.banking.service.retry.TransactionRetryPolicy;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Measures {@link TransactionServiceImpl#createTransactionInCurrentTransaction} against in-memory repositories, including account
+ * locking and cache eviction; each invocation runs in a simulated transaction that commits afterwards.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+    @Param({"DEPOSIT", "WITHDRAW", "TRANSFER"})
+    public TransactionType transactionType;
+
+    private TransactionServiceImpl transactionService;
+    private CreateTransactionDto request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        List<Account> accounts = InMemoryRepositories.accounts(2, new BigDecimal("1000000000000.00"));
+        Map<UUID, Account> accountsByNumber = accounts.stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+
+        var accountRepository = InMemoryRepositories.accountRepository(accountsByNumber);
+        AccountLockManager accountLockManager = new AccountLockManager(accountRepository, new AccountLockProperties(), meterRegistry);
+        transactionService = new TransactionServiceImpl(
+                new TransactionMapperImpl(),
+                accountRepository,
+                InMemoryRepositories.transactionRepository(),
+                accountLockManager,
+                new AccountCache(new AccountCacheProperties(), List.of(), meterRegistry),
+                new LogSampler(new LoggingProperties()),
+                InMemoryRepositories.balanceBucketManager(accountRepository, accountLockManager),
+                new TransactionTemplate(),
+                new TransactionRetryPolicy(new TransactionRetryProperties(), meterRegistry));
+
+        UUID from = accounts.get(0).getAccountNumber();
+        UUID to = accounts.get(1).getAccountNumber();
+        BigDecimal amount = new BigDecimal("0.01");
+        request = switch (transactionType) {
+            case DEPOSIT -> new CreateTransactionDto(TransactionType.DEPOSIT, null, to, amount);
+            case WITHDRAW -> new CreateTransactionDto(TransactionType.WITHDRAW, from, null, amount);
+            case TRANSFER -> new CreateTransactionDto(TransactionType.TRANSFER, from, to, amount);
+        };
+    }
+
+    @Benchmark
+    public TransactionDto createTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            return transactionService.createTransactionInCurrentTransaction(request);
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+}
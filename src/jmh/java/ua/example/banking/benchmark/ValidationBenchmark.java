@@ -0,0 +1,75 @@
+package ua.example.banking.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.validation.AccountNumberValidator;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link AccountNumberValidator#isValid} on requests that pass validation, the common case; the
+ * constraint context is only touched for rejected requests. The reflective variant is the validator as it was
+ * before it read the request through {@code TransactionAccounts}, kept as a reference point.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private final AccountNumberValidator validator = new AccountNumberValidator();
+
+    private final CreateTransactionDto deposit =
+            new CreateTransactionDto(TransactionType.DEPOSIT, null, UUID.randomUUID(), BigDecimal.TEN);
+    private final CreateTransactionDto transfer =
+            new CreateTransactionDto(TransactionType.TRANSFER, UUID.randomUUID(), UUID.randomUUID(), BigDecimal.TEN);
+
+    @Benchmark
+    public boolean validateDeposit() {
+        return validator.isValid(deposit, null);
+    }
+
+    @Benchmark
+    public boolean validateTransfer() {
+        return validator.isValid(transfer, null);
+    }
+
+    @Benchmark
+    public boolean validateDepositReflective() {
+        return isValidReflective(deposit);
+    }
+
+    @Benchmark
+    public boolean validateTransferReflective() {
+        return isValidReflective(transfer);
+    }
+
+    private static boolean isValidReflective(Object value) {
+        try {
+            UUID to = (UUID) value.getClass().getMethod("getTo").invoke(value);
+            UUID from = (UUID) value.getClass().getMethod("getFrom").invoke(value);
+            TransactionType transactionType = (TransactionType) value.getClass().getMethod("getTransactionType").invoke(value);
+
+            if (transactionType == TransactionType.TRANSFER && to != null && to.equals(from)) {
+                return false;
+            }
+
+            return from != null || to != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
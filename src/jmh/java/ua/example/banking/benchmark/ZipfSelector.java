@@ -0,0 +1,43 @@
+package ua.example.banking.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks list elements with Zipf-distributed probability: the element at rank {@code k} (1-based) is picked with
+ * probability proportional to {@code 1 / k^exponent}, so an exponent of 0 is uniform and higher exponents concentrate
+ * picks on the first elements.
+ */
+final class ZipfSelector<T> {
+
+    private final List<T> elements;
+    private final double[] cumulativeProbabilities;
+
+    ZipfSelector(List<T> elements, double exponent) {
+        this.elements = List.copyOf(elements);
+        this.cumulativeProbabilities = new double[elements.size()];
+
+        double sum = 0;
+        for (int rank = 1; rank <= elements.size(); rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cumulativeProbabilities[rank - 1] = sum;
+        }
+        for (int i = 0; i < cumulativeProbabilities.length; i++) {
+            cumulativeProbabilities[i] /= sum;
+        }
+    }
+
+    T next() {
+        double value = ThreadLocalRandom.current().nextDouble();
+        int index = Arrays.binarySearch(cumulativeProbabilities, value);
+        return elements.get(Math.min(index < 0 ? -index - 1 : index, elements.size() - 1));
+    }
+
+    /**
+     * Probability of picking one of the first {@code count} elements.
+     */
+    double headProbability(int count) {
+        return cumulativeProbabilities[Math.min(count, cumulativeProbabilities.length) - 1];
+    }
+}
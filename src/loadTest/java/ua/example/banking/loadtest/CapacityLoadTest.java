@@ -0,0 +1,318 @@
+package ua.example.banking.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ua.example.banking.BankingApplication;
+import ua.example.banking.model.entity.Account;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts the application against PostgreSQL, or an embedded PostgreSQL when no JDBC URL is given, seeds accounts
+ * and sends a mix of transactions and account reads at a fixed arrival rate, whether or not earlier requests have
+ * completed. Latency is measured from the time a request was scheduled, so a slow server shows up as latency rather
+ * than as fewer requests. Throughput, latency percentiles and error rates per operation are printed and written to
+ * a JSON report; the run fails when the error rate or p99 latency exceeds the configured limits.
+ */
+public class CapacityLoadTest {
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000.00");
+
+    private final String jdbcUrl = System.getProperty("capacityTest.jdbc.url");
+    private final String jdbcUsername = System.getProperty("capacityTest.jdbc.username", "username");
+    private final String jdbcPassword = System.getProperty("capacityTest.jdbc.password", "password");
+    private final int accounts = Integer.getInteger("capacityTest.accounts", 1000);
+    private final int rate = Integer.getInteger("capacityTest.rate", 500);
+    private final Map<Operation, Integer> mix = parseMix(System.getProperty("capacityTest.mix",
+            "deposit=20,withdraw=10,transfer=20,read=50"));
+    private final int maxInFlight = Integer.getInteger("capacityTest.maxInFlight", 2000);
+    private final Duration requestTimeout = Duration.parse(System.getProperty("capacityTest.requestTimeout", "PT10S"));
+    private final Duration warmup = Duration.parse(System.getProperty("capacityTest.warmup", "PT10S"));
+    private final Duration duration = Duration.parse(System.getProperty("capacityTest.duration", "PT60S"));
+    private final Path report = Path.of(System.getProperty("capacityTest.report", "capacity-test-report.json"));
+    private final String[] applicationArgs = System.getProperty("capacityTest.args",
+            "--logging.level.ua.example.banking=WARN").trim().split("\\s+");
+    private final Double maxErrorRate = System.getProperty("capacityTest.maxErrorRate") == null
+            ? null : Double.valueOf(System.getProperty("capacityTest.maxErrorRate"));
+    private final Duration maxP99 = System.getProperty("capacityTest.maxP99") == null
+            ? null : Duration.parse(System.getProperty("capacityTest.maxP99"));
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new CapacityLoadTest().run());
+    }
+
+    private int run() throws Exception {
+        try (EmbeddedPostgres embeddedPostgres = jdbcUrl == null ? EmbeddedPostgres.start() : null;
+             ConfigurableApplicationContext context = startApplication(embeddedPostgres)) {
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<UUID> accountNumbers = seedAccounts(context.getBean(JdbcTemplate.class));
+
+            drive(baseUrl, accountNumbers, warmup, new Statistics());
+
+            Instant startedAt = Instant.now();
+            Statistics statistics = new Statistics();
+            drive(baseUrl, accountNumbers, duration, statistics);
+
+            Report result = statistics.report(startedAt, embeddedPostgres == null ? jdbcUrl : "embedded");
+            Files.createDirectories(report.toAbsolutePath().getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), result);
+            print(result);
+            return checkLimits(result.total()) ? 0 : 1;
+        }
+    }
+
+    private ConfigurableApplicationContext startApplication(EmbeddedPostgres embeddedPostgres) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=" + (embeddedPostgres == null ? jdbcUrl : embeddedPostgres.getJdbcUrl("postgres", "postgres")),
+                "--spring.datasource.username=" + (embeddedPostgres == null ? jdbcUsername : "postgres"),
+                "--spring.datasource.password=" + (embeddedPostgres == null ? jdbcPassword : "postgres")));
+        Arrays.stream(applicationArgs).filter(arg -> !arg.isEmpty()).forEach(args::add);
+        return new SpringApplicationBuilder(BankingApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private List<UUID> seedAccounts(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList("""
+                insert into account (id, owner_name, balance, create_date_time)
+                select nextval('%s'), 'capacity-test-' || n, ?, now() from generate_series(1, ?) n
+                returning account_number
+                """.formatted(Account.ID_SEQUENCE), UUID.class, INITIAL_BALANCE, accounts);
+    }
+
+    private void drive(String baseUrl, List<UUID> accountNumbers, Duration runFor, Statistics statistics)
+            throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long requests = runFor.toNanos() / interval;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long start = System.nanoTime();
+        for (long i = 0; i < requests; i++) {
+            long scheduledAt = start + i * interval;
+            long delay = scheduledAt - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+
+            Operation operation = pickOperation(random);
+            if (!inFlight.tryAcquire()) {
+                statistics.recordDropped(operation, System.nanoTime() - scheduledAt);
+                continue;
+            }
+            httpClient.sendAsync(request(baseUrl, operation, accountNumbers, random), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        statistics.record(operation, System.nanoTime() - scheduledAt,
+                                failure == null ? response.statusCode() : 0);
+                        inFlight.release();
+                    });
+        }
+        statistics.setElapsed(System.nanoTime() - start);
+
+        if (!inFlight.tryAcquire(maxInFlight, requestTimeout.toSeconds() + 5, TimeUnit.SECONDS)) {
+            System.err.println("Requests still in flight after the run, their results are missing.");
+        }
+    }
+
+    private HttpRequest request(String baseUrl, Operation operation, List<UUID> accountNumbers, ThreadLocalRandom random) {
+        UUID account = accountNumbers.get(random.nextInt(accountNumbers.size()));
+        return switch (operation) {
+            case DEPOSIT -> post(baseUrl, "{\"transactionType\":\"DEPOSIT\",\"to\":\"%s\",\"amount\":1.00}".formatted(account));
+            case WITHDRAW -> post(baseUrl, "{\"transactionType\":\"WITHDRAW\",\"from\":\"%s\",\"amount\":1.00}".formatted(account));
+            case TRANSFER -> {
+                UUID to = accountNumbers.get(random.nextInt(accountNumbers.size()));
+                while (to.equals(account) && accountNumbers.size() > 1) {
+                    to = accountNumbers.get(random.nextInt(accountNumbers.size()));
+                }
+                yield post(baseUrl, "{\"transactionType\":\"TRANSFER\",\"from\":\"%s\",\"to\":\"%s\",\"amount\":1.00}"
+                        .formatted(account, to));
+            }
+            case READ -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/accounts/" + account))
+                    .timeout(requestTimeout)
+                    .build();
+        };
+    }
+
+    private HttpRequest post(String baseUrl, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/transactions"))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private Operation pickOperation(ThreadLocalRandom random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int pick = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Operation mix is empty.");
+    }
+
+    private boolean checkLimits(OperationReport total) {
+        boolean passed = true;
+        if (maxErrorRate != null && total.errorRate() > maxErrorRate) {
+            System.out.printf("FAILED: error rate %.4f exceeds %.4f%n", total.errorRate(), maxErrorRate);
+            passed = false;
+        }
+        if (maxP99 != null && total.latencyMillis().p99() > maxP99.toNanos() / 1_000_000.0) {
+            System.out.printf("FAILED: p99 latency %.2f ms exceeds %s%n", total.latencyMillis().p99(), maxP99);
+            passed = false;
+        }
+        return passed;
+    }
+
+    private void print(Report result) {
+        System.out.printf("%ndatabase=%s, accounts=%d, rate=%d/s, duration=%s, mix=%s%n",
+                result.database(), accounts, rate, duration, result.mix());
+        System.out.printf("%-9s %9s %10s %9s %9s %9s %9s %9s %9s %8s%n",
+                "operation", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "rejected", "errors");
+        result.operations().forEach((operation, operationReport) -> System.out.println(row(operation, operationReport)));
+        System.out.println(row("total", result.total()));
+        System.out.println("Report written to " + report.toAbsolutePath());
+    }
+
+    private static String row(String name, OperationReport operationReport) {
+        Latency latency = operationReport.latencyMillis();
+        return "%-9s %9d %10.0f %9.2f %9.2f %9.2f %9.2f %9.2f %9d %8d".formatted(name, operationReport.requests(),
+                operationReport.throughput(), latency.p50(), latency.p90(), latency.p99(), latency.p999(), latency.max(),
+                operationReport.rejected(), operationReport.errors());
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] weight = entry.trim().split("=");
+            weights.put(Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        weights.values().removeIf(weight -> weight <= 0);
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("capacityTest.mix must give at least one operation a positive weight.");
+        }
+        return weights;
+    }
+
+    private enum Operation {
+        DEPOSIT, WITHDRAW, TRANSFER, READ
+    }
+
+    /**
+     * Latency histograms and outcome counters per operation. 2xx responses succeed, 4xx responses are rejections
+     * (e.g. insufficient funds); 5xx responses, timeouts, connection failures and requests dropped because too many
+     * were in flight are errors.
+     */
+    private final class Statistics {
+
+        private final Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, LongAdder> rejected = new EnumMap<>(Operation.class);
+        private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        private volatile long elapsedNanos;
+
+        private Statistics() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new Recorder(3));
+                rejected.put(operation, new LongAdder());
+                errors.put(operation, new LongAdder());
+            }
+        }
+
+        private void record(Operation operation, long latencyNanos, int status) {
+            latencies.get(operation).recordValue(latencyNanos);
+            if (status >= 400 && status < 500) {
+                rejected.get(operation).increment();
+            } else if (status < 200 || status >= 500) {
+                errors.get(operation).increment();
+            }
+        }
+
+        private void recordDropped(Operation operation, long latencyNanos) {
+            record(operation, latencyNanos, 0);
+        }
+
+        private void setElapsed(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        private Report report(Instant startedAt, String database) {
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            Histogram total = new Histogram(3);
+            long totalRejected = 0;
+            long totalErrors = 0;
+            Map<String, OperationReport> operations = new LinkedHashMap<>();
+            for (Operation operation : mix.keySet()) {
+                Histogram histogram = latencies.get(operation).getIntervalHistogram();
+                total.add(histogram);
+                totalRejected += rejected.get(operation).sum();
+                totalErrors += errors.get(operation).sum();
+                operations.put(operation.name().toLowerCase(), operationReport(histogram, seconds,
+                        rejected.get(operation).sum(), errors.get(operation).sum()));
+            }
+
+            Map<String, Integer> weights = new LinkedHashMap<>();
+            mix.forEach((operation, weight) -> weights.put(operation.name().toLowerCase(), weight));
+            return new Report(startedAt.toString(), database, accounts, rate, duration.toString(), weights,
+                    operationReport(total, seconds, totalRejected, totalErrors), operations);
+        }
+
+        private static OperationReport operationReport(Histogram histogram, double seconds, long rejected, long errors) {
+            long requests = histogram.getTotalCount();
+            return new OperationReport(requests, requests / seconds, requests - rejected - errors, rejected, errors,
+                    requests == 0 ? 0.0 : errors / (double) requests,
+                    new Latency(millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                            millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                            millis(histogram.getMaxValue())));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+
+    record Report(String startedAt, String database, int accounts, int rate, String duration, Map<String, Integer> mix,
+                  OperationReport total, Map<String, OperationReport> operations) {
+    }
+
+    record OperationReport(long requests, double throughput, long succeeded, long rejected, long errors,
+                           double errorRate, Latency latencyMillis) {
+    }
+
+    record Latency(double p50, double p90, double p99, double p999, double max) {
+    }
+}
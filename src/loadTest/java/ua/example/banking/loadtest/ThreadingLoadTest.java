@@ -0,0 +1,152 @@
+package ua.example.banking.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ua.example.banking.BankingApplication;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts the application once with platform threads and once with virtual threads, drives both with the
+ * same closed-loop mix of account reads and deposits, and prints the latency percentiles side by side.
+ */
+public class ThreadingLoadTest {
+
+    private static final Pattern ACCOUNT_NUMBER = Pattern.compile("\"accountNumber\":\"([0-9a-f-]{36})\"");
+
+    private final String jdbcUrl = System.getProperty("loadTest.jdbc.url", "jdbc:postgresql://localhost:5432/banking");
+    private final String jdbcUsername = System.getProperty("loadTest.jdbc.username", "username");
+    private final String jdbcPassword = System.getProperty("loadTest.jdbc.password", "password");
+    private final int concurrency = Integer.getInteger("loadTest.concurrency", 400);
+    private final int accounts = Integer.getInteger("loadTest.accounts", 100);
+    private final int depositPercent = Integer.getInteger("loadTest.depositPercent", 20);
+    private final Duration warmup = Duration.parse(System.getProperty("loadTest.warmup", "PT10S"));
+    private final Duration duration = Duration.parse(System.getProperty("loadTest.duration", "PT30S"));
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        new ThreadingLoadTest().run();
+    }
+
+    private void run() throws Exception {
+        List<String> results = new ArrayList<>();
+        results.add(run(false));
+        results.add(run(true));
+
+        System.out.printf("%nconcurrency=%d, accounts=%d, deposits=%d%%, duration=%s%n",
+                concurrency, accounts, depositPercent, duration);
+        System.out.printf("%-9s %10s %9s %9s %9s %9s %9s %8s%n",
+                "threads", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        results.forEach(System.out::println);
+        System.exit(0);
+    }
+
+    private String run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BankingApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + jdbcUsername,
+                "--spring.datasource.password=" + jdbcPassword,
+                "--logging.level.ua.example.banking=WARN")) {
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<String> accountNumbers = createAccounts(baseUrl);
+
+            drive(baseUrl, accountNumbers, warmup, new Recorder(3), new AtomicLong());
+
+            Recorder recorder = new Recorder(3);
+            AtomicLong errors = new AtomicLong();
+            drive(baseUrl, accountNumbers, duration, recorder, errors);
+
+            Histogram histogram = recorder.getIntervalHistogram();
+            return "%-9s %10.0f %9.2f %9.2f %9.2f %9.2f %9.2f %8d".formatted(
+                    virtualThreads ? "virtual" : "platform",
+                    histogram.getTotalCount() / (double) duration.toSeconds(),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    errors.get());
+        }
+    }
+
+    private List<String> createAccounts(String baseUrl) throws Exception {
+        List<String> accountNumbers = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            HttpResponse<String> response = httpClient.send(post(baseUrl + "/api/v1/accounts",
+                    "{\"ownerName\":\"load-test-%d\",\"balance\":1000.00}".formatted(i)), HttpResponse.BodyHandlers.ofString());
+
+            Matcher matcher = ACCOUNT_NUMBER.matcher(response.body());
+            if (response.statusCode() != 201 || !matcher.find()) {
+                throw new IllegalStateException("Failed to create account: " + response.body());
+            }
+            accountNumbers.add(matcher.group(1));
+        }
+        return accountNumbers;
+    }
+
+    private void drive(String baseUrl, List<String> accountNumbers, Duration runFor, Recorder recorder, AtomicLong errors)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + runFor.toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        String accountNumber = accountNumbers.get(random.nextInt(accountNumbers.size()));
+                        HttpRequest request = random.nextInt(100) < depositPercent
+                                ? post(baseUrl + "/api/v1/transactions",
+                                "{\"transactionType\":\"DEPOSIT\",\"to\":\"%s\",\"amount\":1.00}".formatted(accountNumber))
+                                : HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/accounts/" + accountNumber)).build();
+
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        recorder.recordValue(System.nanoTime() - start);
+                    }
+                });
+            }
+            clients.shutdown();
+            clients.awaitTermination(runFor.toSeconds() + 60, TimeUnit.SECONDS);
+        }
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -2,6 +2,9 @@ package ua.example.banking.advice;
 
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import jakarta.persistence.OptimisticLockException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
@@ -12,6 +15,8 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 import ua.example.banking.advice.exception.BankingException;
+import ua.example.banking.advice.exception.TransactionConflictException;
+import ua.example.banking.monitoring.BankingMetrics;
 import ua.example.banking.util.DateUtils;
 
 import java.util.ArrayList;
@@ -21,10 +26,15 @@ import java.util.List;
 import java.util.Map;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalAdviceHandler extends ResponseEntityExceptionHandler {
 
+    private final BankingMetrics bankingMetrics;
+
     @ExceptionHandler(BankingException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(BankingException exception) {
+        bankingMetrics.countError(exception);
+
         ErrorResponse errorResponse = createErrorResponse(
                 exception.getHttpStatus().value(),
                 exception.getMessage(),
@@ -34,6 +44,14 @@ public class GlobalAdviceHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorResponse, exception.getHttpStatus());
     }
 
+    /**
+     * Conflicts of transactions that joined a caller's transaction and so were not retried.
+     */
+    @ExceptionHandler({ConcurrencyFailureException.class, OptimisticLockException.class})
+    public ResponseEntity<ErrorResponse> handleConcurrencyFailure(RuntimeException exception) {
+        return handleValidationException(new TransactionConflictException());
+    }
+
     @Override
     protected ResponseEntity<Object> handleHttpMessageNotReadable(HttpMessageNotReadableException ex,
                                                                   HttpHeaders headers,
@@ -0,0 +1,10 @@
+package ua.example.banking.advice.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ConcurrentOperationException extends BankingException {
+
+    public ConcurrentOperationException(String message) {
+        super(message, HttpStatus.CONFLICT);
+    }
+}
@@ -0,0 +1,8 @@
+package ua.example.banking.advice.exception;
+
+public class InsufficientFundsException extends ValidationException {
+
+    public InsufficientFundsException() {
+        super("Insufficient funds.");
+    }
+}
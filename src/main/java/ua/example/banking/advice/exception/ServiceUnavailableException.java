@@ -0,0 +1,10 @@
+package ua.example.banking.advice.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends BankingException {
+
+    public ServiceUnavailableException(String message) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
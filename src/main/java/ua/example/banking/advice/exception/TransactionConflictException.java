@@ -0,0 +1,10 @@
+package ua.example.banking.advice.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TransactionConflictException extends BankingException {
+
+    public TransactionConflictException() {
+        super("The account was changed by a concurrent transaction, please retry.", HttpStatus.CONFLICT);
+    }
+}
@@ -0,0 +1,44 @@
+package ua.example.banking.config.datasource;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the current thread's read-only transactions as requiring the primary, e.g. right after the client wrote.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ReadRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    public static void setPrimaryRequired(boolean primaryRequired) {
+        PRIMARY_REQUIRED.set(primaryRequired);
+    }
+
+    /**
+     * Runs {@code action} with its read-only transactions on the primary, restoring the previous routing after it.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            } else {
+                PRIMARY_REQUIRED.set(previous);
+            }
+        }
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+}
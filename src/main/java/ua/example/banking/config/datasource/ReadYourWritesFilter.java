@@ -0,0 +1,55 @@
+package ua.example.banking.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ua.example.banking.config.properties.ReplicaDataSourceProperties;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Sends a client's reads to the primary for {@code banking.datasource.read-your-writes-window} after its last
+ * successful write, so it never reads data older than what it wrote.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final String clientIdHeader;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(ReplicaDataSourceProperties properties) {
+        this.clientIdHeader = properties.getClientIdHeader();
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(properties.getTrackedClients())
+                .expireAfterWrite(properties.getReadYourWritesWindow())
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = clientOf(request);
+        boolean write = !READ_METHODS.contains(request.getMethod());
+
+        ReadRoutingContext.setPrimaryRequired(write || recentWriters.getIfPresent(client) != null);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadRoutingContext.clear();
+            if (write && response.getStatus() < HttpServletResponse.SC_BAD_REQUEST) {
+                recentWriters.put(client, Boolean.TRUE);
+            }
+        }
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String clientId = request.getHeader(clientIdHeader);
+        return clientId == null || clientId.isBlank() ? request.getRemoteAddr() : clientId;
+    }
+}
@@ -0,0 +1,158 @@
+package ua.example.banking.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Target of read-only transactions. Hands out connections to replicas in turn, skipping replicas that lag more than
+ * the allowed staleness, are not streaming from the primary or failed to connect, and falls back to the primary when
+ * none is usable or the current request must read its own writes.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final String PRIMARY_WAL_LSN_SQL = "select pg_current_wal_lsn()::text";
+
+    /**
+     * Zero when the replica has replayed the primary's WAL position read just before, so an idle primary does not
+     * look like lag, otherwise the time since the last replayed transaction. Null, i.e. unusable, when the replica was
+     * promoted or is not streaming from the primary, since its replay position then says nothing about how stale it
+     * is. Reading the WAL receiver status takes {@code pg_read_all_stats}.
+     */
+    private static final String REPLICATION_LAG_SQL = """
+            select case
+                       when not pg_is_in_recovery()
+                           or not exists (select from pg_stat_wal_receiver where status = 'streaming') then null
+                       when pg_last_wal_replay_lsn() >= ?::pg_lsn then 0
+                       else extract(epoch from now() - pg_last_xact_replay_timestamp())
+                       end
+            """;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxStaleness;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, Duration maxStaleness,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxStaleness = maxStaleness;
+
+        for (Replica replica : this.replicas) {
+            Gauge.builder("banking.datasource.replica.lag", replica, Replica::lagSeconds)
+                    .description("Replication lag of a read replica, NaN while it is unavailable")
+                    .baseUnit("seconds")
+                    .tag("pool", replica.dataSource.getPoolName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ReadRoutingContext.isPrimaryRequired()) {
+            int start = next.getAndIncrement();
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+                if (!replica.isUsable(maxStaleness)) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    log.warn("Replica '{}' is unavailable, reading from another database.", replica.dataSource.getPoolName(), e);
+                    replica.lag = null;
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials.");
+    }
+
+    /**
+     * Replicas are not used until their lag was measured once, and are skipped again whenever it cannot be measured.
+     */
+    @Scheduled(fixedDelayString = "${banking.datasource.lag-check-interval:PT1S}")
+    public void checkReplicationLag() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+
+        String primaryWalLsn;
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(PRIMARY_WAL_LSN_SQL)) {
+            resultSet.next();
+            primaryWalLsn = resultSet.getString(1);
+        } catch (SQLException e) {
+            log.warn("Failed to read the primary's WAL position, replica lag is unknown.", e);
+            replicas.forEach(replica -> replica.lag = null);
+            return;
+        }
+
+        for (Replica replica : replicas) {
+            Duration previous = replica.lag;
+            try (Connection connection = replica.dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(REPLICATION_LAG_SQL)) {
+                statement.setString(1, primaryWalLsn);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    double lagSeconds = resultSet.getDouble(1);
+                    replica.lag = resultSet.wasNull() ? null : Duration.ofMillis(Math.round(lagSeconds * 1000));
+                }
+                if (replica.lag == null && previous != null) {
+                    log.warn("Replica '{}' is not streaming from the primary.", replica.dataSource.getPoolName());
+                }
+            } catch (SQLException e) {
+                replica.lag = null;
+                if (previous != null) {
+                    log.warn("Replica '{}' is unavailable.", replica.dataSource.getPoolName(), e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+        private volatile Duration lag;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private boolean isUsable(Duration maxStaleness) {
+            Duration currentLag = lag;
+            return currentLag != null && currentLag.compareTo(maxStaleness) <= 0;
+        }
+
+        private double lagSeconds() {
+            Duration currentLag = lag;
+            return currentLag == null ? Double.NaN : currentLag.toMillis() / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ua.example.banking.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banking.account-cache")
+public class AccountCacheProperties {
+
+    private long size = 100_000;
+    private Duration ttl = Duration.ofSeconds(30);
+}
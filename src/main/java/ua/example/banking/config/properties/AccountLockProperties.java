@@ -0,0 +1,21 @@
+package ua.example.banking.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banking.account-lock")
+public class AccountLockProperties {
+
+    private Mode mode = Mode.PESSIMISTIC;
+    private int stripes = 64;
+    private Duration timeout = Duration.ofSeconds(5);
+
+    public enum Mode {
+        PESSIMISTIC, OPTIMISTIC
+    }
+}
@@ -0,0 +1,16 @@
+package ua.example.banking.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banking.balance-buckets")
+public class BalanceBucketProperties {
+
+    /**
+     * Upper limit for the number of buckets a single account can be split into.
+     */
+    private int maxBuckets = 64;
+}
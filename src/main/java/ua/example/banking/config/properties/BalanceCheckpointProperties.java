@@ -0,0 +1,24 @@
+package ua.example.banking.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banking.balance-checkpoints")
+public class BalanceCheckpointProperties {
+
+    /**
+     * Checkpoints are taken this far before the start of the oldest transaction still in flight (or now, when
+     * there is none), so transactions stamped before the checkpoint but committed after it are not left out of it.
+     */
+    private Duration settleDelay = Duration.ofMinutes(1);
+
+    /**
+     * Accounts with fewer new transactions since their last checkpoint are skipped.
+     */
+    private int minTransactions = 100;
+}
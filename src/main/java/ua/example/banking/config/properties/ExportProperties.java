@@ -0,0 +1,20 @@
+package ua.example.banking.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banking.export")
+public class ExportProperties {
+
+    private int fetchSize = 1000;
+
+    /**
+     * Time an export may stream before the request is timed out; other async requests keep the default timeout.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,20 @@
+package ua.example.banking.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banking.group-commit")
+public class GroupCommitProperties {
+
+    private Duration window = Duration.ofMillis(2);
+    private int maxGroupSize = 64;
+    private int committers = 1;
+    private int queueCapacity = 10_000;
+    private Duration submitTimeout = Duration.ofMillis(100);
+    private Duration resultTimeout = Duration.ofSeconds(30);
+}
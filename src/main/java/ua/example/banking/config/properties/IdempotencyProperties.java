@@ -0,0 +1,17 @@
+package ua.example.banking.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banking.idempotency")
+public class IdempotencyProperties {
+
+    private long cacheSize = 100_000;
+    private Duration cacheTtl = Duration.ofMinutes(10);
+    private Duration retention = Duration.ofHours(24);
+}
@@ -0,0 +1,33 @@
+package ua.example.banking.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banking.ledger")
+public class LedgerProperties {
+
+    private int shards = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 10_000;
+    private Duration submitTimeout = Duration.ofMillis(100);
+    private int persistQueueCapacity = 100_000;
+    private int persistBatchSize = 1000;
+    private Duration persistRetryDelay = Duration.ofSeconds(1);
+
+    /**
+     * Attempts of a batch failing on its data before its entries are persisted one by one and the failing ones
+     * dead-lettered; batches failing because the database is unavailable are retried until it is back.
+     */
+    private int persistMaxAttempts = 5;
+    private Acknowledge acknowledge = Acknowledge.PERSISTED;
+    private Duration acknowledgeTimeout = Duration.ofSeconds(10);
+    private int recoveryFetchSize = 10_000;
+
+    public enum Acknowledge {
+        APPLIED, PERSISTED
+    }
+}
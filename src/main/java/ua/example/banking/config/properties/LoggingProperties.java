@@ -0,0 +1,30 @@
+package ua.example.banking.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banking.logging")
+public class LoggingProperties {
+
+    /**
+     * Share of successful operations that are logged; failures and rejections are always logged.
+     */
+    private double successSampleRate = 1.0;
+
+    /**
+     * Per-operation overrides of {@link #successSampleRate}, keyed by transaction type or account operation,
+     * e.g. {@code transfer} or {@code get-details}.
+     */
+    private Map<String, Double> successSampleRates = new HashMap<>();
+
+    /**
+     * Capacity of the asynchronous appender queue of the {@code async-logging} profile, read by logback-spring.xml.
+     */
+    private int asyncQueueSize = 8192;
+}
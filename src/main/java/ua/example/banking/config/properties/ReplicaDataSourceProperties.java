@@ -0,0 +1,57 @@
+package ua.example.banking.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banking.datasource")
+public class ReplicaDataSourceProperties {
+
+    /**
+     * Read replicas for read-only transactions. Without replicas all traffic goes to {@code spring.datasource}.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Replicas lagging further behind the primary are skipped.
+     */
+    private Duration maxStaleness = Duration.ofSeconds(5);
+
+    /**
+     * How long a client's reads keep going to the primary after it wrote something.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(10);
+
+    /**
+     * Header identifying a client for read-your-writes; the remote address is used when it is missing.
+     */
+    private String clientIdHeader = "X-Client-Id";
+
+    private long trackedClients = 100_000;
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String url;
+
+        /**
+         * Defaults to {@code spring.datasource.username}.
+         */
+        private String username;
+
+        /**
+         * Defaults to {@code spring.datasource.password}.
+         */
+        private String password;
+
+        private int maximumPoolSize = 20;
+        private Duration connectionTimeout = Duration.ofSeconds(1);
+    }
+}
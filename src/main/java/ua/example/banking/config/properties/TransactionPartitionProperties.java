@@ -0,0 +1,31 @@
+package ua.example.banking.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.Period;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banking.transaction-partitions")
+public class TransactionPartitionProperties {
+
+    /**
+     * Number of monthly partitions kept ready after the current one.
+     */
+    private int precreateMonths = 3;
+
+    /**
+     * Partitions entirely older than this are detached and moved to the {@code archive} schema. Unset keeps all
+     * history in the {@code transaction} table.
+     */
+    private Period retention;
+
+    /**
+     * How long the archive boundary is cached before it is read again, so partitions archived by another instance
+     * are picked up.
+     */
+    private Duration archiveBoundaryTtl = Duration.ofMinutes(1);
+}
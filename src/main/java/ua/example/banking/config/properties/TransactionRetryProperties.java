@@ -0,0 +1,30 @@
+package ua.example.banking.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banking.transactions.retry")
+public class TransactionRetryProperties {
+
+    /**
+     * Attempts per transaction including the first one; 1 turns retries off.
+     */
+    private int maxAttempts = 3;
+    private Duration initialBackoff = Duration.ofMillis(2);
+    private Duration maxBackoff = Duration.ofMillis(50);
+
+    /**
+     * Retries earned per first attempt, so under a conflict storm at most this share of extra load is added.
+     */
+    private double budgetRatio = 0.1;
+
+    /**
+     * Retries that can be saved up while there are no conflicts.
+     */
+    private int budgetCapacity = 100;
+}
@@ -0,0 +1,16 @@
+package ua.example.banking.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banking.virtual-threads")
+public class VirtualThreadProperties {
+
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+    private int pinnedStackDepth = 8;
+}
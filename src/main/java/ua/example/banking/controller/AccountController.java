@@ -6,20 +6,34 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import ua.example.banking.model.dto.CursorPageDto;
+import ua.example.banking.model.dto.account.AccountBalanceDto;
 import ua.example.banking.model.dto.account.AccountDto;
 import ua.example.banking.model.dto.account.CreateAccountDto;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionHistoryFilter;
+import ua.example.banking.model.enums.AccountSortKey;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.monitoring.BankingMetrics;
+import ua.example.banking.monitoring.BankingMetrics.AccountOperation;
+import ua.example.banking.service.AccountBalanceService;
 import ua.example.banking.service.AccountService;
+import ua.example.banking.service.TransactionHistoryService;
 
+import java.time.OffsetDateTime;
+import java.util.Set;
 import java.util.UUID;
 
 @Validated
@@ -30,6 +44,9 @@ import java.util.UUID;
 public class AccountController {
 
     private final AccountService accountService;
+    private final AccountBalanceService accountBalanceService;
+    private final TransactionHistoryService transactionHistoryService;
+    private final BankingMetrics bankingMetrics;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -41,13 +58,50 @@ public class AccountController {
     @GetMapping("/{accountNumber}")
     @Operation(summary = "Get account details", description = "Returns information about an account by its number")
     public AccountDto getAccountDetails(@PathVariable UUID accountNumber) {
-        return accountService.getAccountDetails(accountNumber);
+        return bankingMetrics.recordAccountRead(AccountOperation.GET_DETAILS, () -> accountService.getAccountDetails(accountNumber));
+    }
+
+    @PutMapping("/{accountNumber}/balance-buckets")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Set account balance buckets", description = "Spreads credits to the account over the given "
+            + "number of balance buckets, so deposits and transfers to a hot account do not wait for each other. 0 turns buckets off")
+    public void setBalanceBuckets(@PathVariable UUID accountNumber, @RequestParam int buckets) {
+        accountService.setBalanceBuckets(accountNumber, buckets);
     }
 
     @GetMapping
     @Operation(summary = "List accounts", description = "Retrieves a paginated list of accounts")
     public Page<AccountDto> getAccounts(@RequestParam(defaultValue = "0") int page,
                                         @RequestParam(defaultValue = "10") int size) {
-        return accountService.getAccounts(PageRequest.of(page, size));
+        return bankingMetrics.recordAccountRead(AccountOperation.LIST, () -> accountService.getAccounts(PageRequest.of(page, size)));
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll accounts", description = "Retrieves accounts page by page using an opaque cursor, without counting the total")
+    public CursorPageDto<AccountDto> scrollAccounts(@RequestParam(defaultValue = "ID") AccountSortKey sort,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "10") int size) {
+        return bankingMetrics.recordAccountRead(AccountOperation.SCROLL, () -> accountService.getAccounts(sort, cursor, size));
+    }
+
+    @GetMapping("/{accountNumber}/balance")
+    @Operation(summary = "Get account balance as of a time", description = "Rebuilds the account balance at the given "
+            + "time from the latest balance checkpoint and the transactions after it. Defaults to the current time")
+    public AccountBalanceDto getBalanceAsOf(@PathVariable UUID accountNumber,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime asOf) {
+        return bankingMetrics.recordAccountRead(AccountOperation.BALANCE_AS_OF, () -> accountBalanceService.getBalanceAsOf(accountNumber, asOf));
+    }
+
+    @GetMapping("/{accountNumber}/transactions")
+    @Operation(summary = "Get account transactions", description = "Returns the account's transactions, newest first, "
+            + "page by page using an opaque cursor. Can be filtered by transaction type and a [fromDate, toDate) range")
+    public CursorPageDto<TransactionDto> getAccountTransactions(@PathVariable UUID accountNumber,
+                                                                @RequestParam(required = false) Set<TransactionType> type,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime fromDate,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime toDate,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "20") int size) {
+        return bankingMetrics.recordAccountRead(AccountOperation.HISTORY, () -> transactionHistoryService.getAccountTransactions(
+                accountNumber, new TransactionHistoryFilter(type, fromDate, toDate), cursor, size));
     }
 }
@@ -4,17 +4,43 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ua.example.banking.config.properties.ExportProperties;
+import ua.example.banking.model.dto.transaction.CreateTransactionBatchDto;
 import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionBatchDto;
 import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionHistoryFilter;
+import ua.example.banking.model.enums.ExportFormat;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.monitoring.BankingMetrics;
+import ua.example.banking.service.IdempotentTransactionService;
+import ua.example.banking.service.TransactionBatchService;
+import ua.example.banking.service.TransactionExportService;
 import ua.example.banking.service.TransactionService;
 
+import java.time.OffsetDateTime;
+import java.util.Set;
+import java.util.UUID;
+
 @Validated
 @RestController
 @RequiredArgsConstructor
@@ -22,15 +48,67 @@ import ua.example.banking.service.TransactionService;
 @Tag(name = "Transaction Controller", description = "API for managing account transactions")
 public class TransactionController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final TransactionService transactionService;
+    private final TransactionBatchService transactionBatchService;
+    private final IdempotentTransactionService idempotentTransactionService;
+    private final TransactionExportService transactionExportService;
+    private final BankingMetrics bankingMetrics;
+    private final ExportProperties exportProperties;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(
             summary = "Create a transaction",
-            description = "This endpoint allows you to create a new transaction (deposit, withdraw, or transfer)."
+            description = "This endpoint allows you to create a new transaction (deposit, withdraw, or transfer). "
+                    + "Requests repeated with the same Idempotency-Key header return the original transaction."
+    )
+    public TransactionDto createTransaction(@RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                                            @Valid @RequestBody CreateTransactionDto createTransactionDto) {
+        return bankingMetrics.recordTransaction(createTransactionDto.getTransactionType(), () -> idempotencyKey == null
+                ? transactionService.createTransaction(createTransactionDto)
+                : idempotentTransactionService.createTransaction(idempotencyKey, createTransactionDto));
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Create a batch of transactions",
+            description = "Processes a list of deposits, withdrawals and transfers. In PER_ITEM mode every transaction "
+                    + "succeeds or fails on its own, in ALL_OR_NOTHING mode a single failure rolls back the whole batch."
     )
-    public TransactionDto createTransaction(@Valid @RequestBody CreateTransactionDto createTransactionDto) {
-        return transactionService.createTransaction(createTransactionDto);
+    public TransactionBatchDto createTransactions(@Valid @RequestBody CreateTransactionBatchDto createTransactionBatchDto) {
+        return transactionBatchService.createTransactions(createTransactionBatchDto);
+    }
+
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export transactions",
+            description = "Streams all matching transactions in id order as NDJSON or CSV. Can be filtered by account, "
+                    + "transaction type and a [fromDate, toDate) range"
+    )
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                                                    @RequestParam(required = false) UUID accountNumber,
+                                                                    @RequestParam(required = false) Set<TransactionType> type,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime fromDate,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime toDate,
+                                                                    NativeWebRequest webRequest) {
+        StreamingResponseBody body = transactionExportService.exportTransactions(format, accountNumber,
+                new TransactionHistoryFilter(type, fromDate, toDate));
+
+        // streaming runs as an async request, give only exports the long timeout
+        AsyncWebRequest asyncWebRequest = WebAsyncUtils.getAsyncManager(webRequest).getAsyncWebRequest();
+        if (asyncWebRequest != null) {
+            asyncWebRequest.setTimeout(exportProperties.getTimeout().toMillis());
+        }
+
+        return ResponseEntity.ok()
+                .contentType(format == ExportFormat.CSV ? TEXT_CSV : APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions." + format.name().toLowerCase())
+                        .build()
+                        .toString())
+                .body(body);
     }
 }
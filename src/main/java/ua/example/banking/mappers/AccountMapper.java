@@ -5,6 +5,7 @@ import org.mapstruct.Mapping;
 import ua.example.banking.model.dto.account.AccountDto;
 import ua.example.banking.model.dto.account.CreateAccountDto;
 import ua.example.banking.model.entity.Account;
+import ua.example.banking.model.projection.AccountView;
 import ua.example.banking.util.DateUtils;
 
 @Mapper(uses = DateUtils.class)
@@ -12,9 +13,12 @@ public interface AccountMapper {
 
     AccountDto mapToDto(Account account);
 
+    AccountDto mapToDto(AccountView accountView);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "accountNumber", ignore = true)
     @Mapping(target = "createDateTime", ignore = true)
     @Mapping(target = "updateDateTime", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Account mapToEntity(CreateAccountDto createAccountDto);
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package ua.example.banking.model;
+
+import ua.example.banking.advice.exception.ValidationException;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point amount held as a {@code long} number of minor units (cents) at a fixed scale of 2, for arithmetic
+ * that should not allocate a {@link BigDecimal} per step. Amounts follow the {@code @Digits(integer = 15,
+ * fraction = 2)} rule of the request DTOs; conversion from and to {@link BigDecimal} is exact.
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final int MAX_INTEGER_DIGITS = 15;
+    public static final long MAX_MINOR_UNITS = 99_999_999_999_999_999L;
+    public static final Money ZERO = new Money(0);
+
+    private static final String INVALID_AMOUNT_MESSAGE =
+            "Amount must be a valid monetary value with up to 15 digits and 2 decimal places.";
+
+    public Money {
+        if (minorUnits > MAX_MINOR_UNITS || minorUnits < -MAX_MINOR_UNITS) {
+            throw new ArithmeticException("Amount is out of range: " + minorUnits + " minor units.");
+        }
+    }
+
+    /**
+     * Converts an amount with at most 15 integer digits and 2 decimal places, rejecting anything that would need
+     * rounding.
+     */
+    public static Money of(BigDecimal amount) {
+        try {
+            return new Money(amount.setScale(SCALE).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new ValidationException(INVALID_AMOUNT_MESSAGE);
+        }
+    }
+
+    public static Money ofMinorUnits(long minorUnits) {
+        return new Money(minorUnits);
+    }
+
+    public Money plus(Money other) {
+        return new Money(minorUnits + other.minorUnits);
+    }
+
+    public Money minus(Money other) {
+        return new Money(minorUnits - other.minorUnits);
+    }
+
+    public Money negate() {
+        return new Money(-minorUnits);
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
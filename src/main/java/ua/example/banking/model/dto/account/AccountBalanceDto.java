@@ -0,0 +1,21 @@
+package ua.example.banking.model.dto.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalanceDto {
+
+    private UUID accountNumber;
+    private BigDecimal balance;
+    private OffsetDateTime asOf;
+}
@@ -0,0 +1,28 @@
+package ua.example.banking.model.dto.transaction;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ua.example.banking.model.enums.BatchMode;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateTransactionBatchDto {
+
+    @NotNull(message = "Batch mode is required.")
+    private BatchMode mode = BatchMode.PER_ITEM;
+
+    @Valid
+    @NotEmpty(message = "At least one transaction is required.")
+    @Size(max = 1000, message = "A batch can contain at most 1000 transactions.")
+    private List<@NotNull CreateTransactionDto> transactions;
+}
@@ -8,6 +8,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.validation.TransactionAccounts;
 import ua.example.banking.validation.annotation.AccountNumberValidation;
 
 import java.math.BigDecimal;
@@ -18,7 +19,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @AccountNumberValidation
-public class CreateTransactionDto {
+public class CreateTransactionDto implements TransactionAccounts {
 
     @NotNull(message = "Transaction type is required.")
     private TransactionType transactionType;
@@ -0,0 +1,21 @@
+package ua.example.banking.model.dto.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ua.example.banking.model.enums.BatchMode;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchDto {
+
+    private BatchMode mode;
+    private int succeeded;
+    private int failed;
+    private List<TransactionBatchItemDto> results;
+}
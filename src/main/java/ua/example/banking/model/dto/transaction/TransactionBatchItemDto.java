@@ -0,0 +1,19 @@
+package ua.example.banking.model.dto.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ua.example.banking.model.enums.BatchItemStatus;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchItemDto {
+
+    private int index;
+    private BatchItemStatus status;
+    private TransactionDto transaction;
+    private String error;
+}
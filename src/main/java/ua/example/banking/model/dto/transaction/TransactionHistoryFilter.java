@@ -0,0 +1,21 @@
+package ua.example.banking.model.dto.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ua.example.banking.model.enums.TransactionType;
+
+import java.time.OffsetDateTime;
+import java.util.Set;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHistoryFilter {
+
+    private Set<TransactionType> types;
+    private OffsetDateTime fromDate;
+    private OffsetDateTime toDate;
+}
@@ -0,0 +1,5 @@
+package ua.example.banking.model.enums;
+
+public enum AccountSortKey {
+    ID, CREATE_DATE_TIME
+}
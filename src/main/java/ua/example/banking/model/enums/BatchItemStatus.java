@@ -0,0 +1,5 @@
+package ua.example.banking.model.enums;
+
+public enum BatchItemStatus {
+    SUCCEEDED, FAILED, ROLLED_BACK
+}
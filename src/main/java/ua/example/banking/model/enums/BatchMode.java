@@ -0,0 +1,5 @@
+package ua.example.banking.model.enums;
+
+public enum BatchMode {
+    PER_ITEM, ALL_OR_NOTHING
+}
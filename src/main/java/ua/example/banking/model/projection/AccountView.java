@@ -0,0 +1,16 @@
+package ua.example.banking.model.projection;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Read-only account row fetched with a constructor expression, so listing accounts does not load managed entities.
+ */
+public record AccountView(Long id,
+                          UUID accountNumber,
+                          String ownerName,
+                          BigDecimal balance,
+                          Timestamp createDateTime,
+                          Timestamp updateDateTime) {
+}
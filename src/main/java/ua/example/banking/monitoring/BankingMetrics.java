@@ -0,0 +1,134 @@
+package ua.example.banking.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import ua.example.banking.advice.exception.BankingException;
+import ua.example.banking.advice.exception.ConcurrentOperationException;
+import ua.example.banking.advice.exception.DataNotFoundException;
+import ua.example.banking.advice.exception.InsufficientFundsException;
+import ua.example.banking.advice.exception.ServiceUnavailableException;
+import ua.example.banking.advice.exception.TransactionConflictException;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.model.enums.TransactionType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Latency timers of banking operations tagged by outcome, and counters of handled {@link BankingException}s.
+ * Timers are registered up front so recording on the request path does not look meters up by tags.
+ */
+@Component
+public class BankingMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TransactionType, Map<Outcome, Timer>> transactionTimers = new EnumMap<>(TransactionType.class);
+    private final Map<AccountOperation, Map<Outcome, Timer>> accountTimers = new EnumMap<>(AccountOperation.class);
+    private final Map<Class<?>, Counter> errorCounters = new ConcurrentHashMap<>();
+
+    public BankingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        for (TransactionType type : TransactionType.values()) {
+            transactionTimers.put(type, timers("banking.transaction.create", "Time to create a transaction",
+                    "type", type.name()));
+        }
+        for (AccountOperation operation : AccountOperation.values()) {
+            accountTimers.put(operation, timers("banking.account.read", "Time to read accounts",
+                    "operation", operation.tag));
+        }
+    }
+
+    public <T> T recordTransaction(TransactionType type, Supplier<T> operation) {
+        return record(transactionTimers.get(type), operation);
+    }
+
+    public <T> T recordAccountRead(AccountOperation accountOperation, Supplier<T> operation) {
+        return record(accountTimers.get(accountOperation), operation);
+    }
+
+    public void countError(BankingException exception) {
+        errorCounters.computeIfAbsent(exception.getClass(), type -> Counter.builder("banking.errors")
+                        .description("Banking exceptions returned to clients")
+                        .tag("exception", type.getSimpleName())
+                        .tag("status", String.valueOf(exception.getHttpStatus().value()))
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private <T> T record(Map<Outcome, Timer> timers, Supplier<T> operation) {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            T result = operation.get();
+            outcome = Outcome.SUCCESS;
+            return result;
+        } catch (RuntimeException e) {
+            outcome = Outcome.of(e);
+            throw e;
+        } finally {
+            timers.get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Map<Outcome, Timer> timers(String name, String description, String tagKey, String tagValue) {
+        Map<Outcome, Timer> timers = new EnumMap<>(Outcome.class);
+        for (Outcome outcome : Outcome.values()) {
+            timers.put(outcome, Timer.builder(name)
+                    .description(description)
+                    .tag(tagKey, tagValue)
+                    .tag("outcome", outcome.tag)
+                    .register(meterRegistry));
+        }
+        return timers;
+    }
+
+    public enum AccountOperation {
+        GET_DETAILS("get_details"),
+        LIST("list"),
+        SCROLL("scroll"),
+        BALANCE_AS_OF("balance_as_of"),
+        HISTORY("history");
+
+        private final String tag;
+
+        AccountOperation(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS("success"),
+        INSUFFICIENT_FUNDS("insufficient_funds"),
+        NOT_FOUND("not_found"),
+        REJECTED("rejected"),
+        CONFLICT("conflict"),
+        UNAVAILABLE("unavailable"),
+        ERROR("error");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+
+        private static Outcome of(RuntimeException exception) {
+            return switch (exception) {
+                case InsufficientFundsException e -> INSUFFICIENT_FUNDS;
+                case DataNotFoundException e -> NOT_FOUND;
+                case ValidationException e -> REJECTED;
+                case ConcurrentOperationException e -> CONFLICT;
+                case TransactionConflictException e -> CONFLICT;
+                case ConcurrencyFailureException e -> CONFLICT;
+                case ServiceUnavailableException e -> UNAVAILABLE;
+                default -> ERROR;
+            };
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ua.example.banking.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ua.example.banking.service.ledger.LedgerEngine;
+import ua.example.banking.util.DateUtils;
+
+/**
+ * Reports the ledger as down while applied transactions fail to be written to the database, with the backlog of
+ * transactions waiting to be persisted and the age of the oldest one.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "banking.transactions.mode", havingValue = "ledger")
+public class LedgerHealthIndicator implements HealthIndicator {
+
+    private final LedgerEngine ledgerEngine;
+
+    @Override
+    public Health health() {
+        Health.Builder health = ledgerEngine.isPersistFailing() ? Health.down() : Health.up();
+        health.withDetail("persistBacklog", ledgerEngine.persistBacklog())
+                .withDetail("persistCapacity", ledgerEngine.persistCapacity());
+        ledgerEngine.oldestUnpersisted().ifPresent(oldest -> health.withDetail("persistLagMillis",
+                Math.max(0, DateUtils.nowTimestamp().getTime() - oldest.getTime())));
+        return health.build();
+    }
+}
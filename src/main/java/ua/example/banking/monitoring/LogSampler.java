@@ -0,0 +1,47 @@
+package ua.example.banking.monitoring;
+
+import org.springframework.stereotype.Component;
+import ua.example.banking.config.properties.LoggingProperties;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.monitoring.BankingMetrics.AccountOperation;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether the success event of an operation is logged, so busy operations can log a sample of their
+ * successes. Rates are resolved per operation up front so sampling on the request path is a map lookup.
+ */
+@Component
+public class LogSampler {
+
+    private final Map<TransactionType, Double> transactionRates = new EnumMap<>(TransactionType.class);
+    private final Map<AccountOperation, Double> accountRates = new EnumMap<>(AccountOperation.class);
+
+    public LogSampler(LoggingProperties properties) {
+        for (TransactionType type : TransactionType.values()) {
+            transactionRates.put(type, rate(properties, type));
+        }
+        for (AccountOperation operation : AccountOperation.values()) {
+            accountRates.put(operation, rate(properties, operation));
+        }
+    }
+
+    public boolean sample(TransactionType type) {
+        return sample(transactionRates.get(type));
+    }
+
+    public boolean sample(AccountOperation operation) {
+        return sample(accountRates.get(operation));
+    }
+
+    private static boolean sample(double rate) {
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private static double rate(LoggingProperties properties, Enum<?> operation) {
+        String key = operation.name().toLowerCase().replace('_', '-');
+        return properties.getSuccessSampleRates().getOrDefault(key, properties.getSuccessSampleRate());
+    }
+}
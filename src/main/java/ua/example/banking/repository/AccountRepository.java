@@ -1,12 +1,73 @@
 package ua.example.banking.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ua.example.banking.model.entity.Account;
+import ua.example.banking.model.projection.AccountView;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
     Optional<Account> findByAccountNumber(UUID accountNumber);
+
+    List<Account> findAllByAccountNumberInOrderByAccountNumber(Collection<UUID> accountNumbers);
+
+    Optional<AccountView> findViewByAccountNumber(UUID accountNumber);
+
+    boolean existsByAccountNumber(UUID accountNumber);
+
+    Page<AccountView> findAllBy(Pageable pageable);
+
+    List<AccountView> findAllByOrderByIdAsc(Limit limit);
+
+    List<AccountView> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<AccountView> findAllByOrderByCreateDateTimeAscIdAsc(Limit limit);
+
+    @Query("""
+            select new ua.example.banking.model.projection.AccountView(
+                a.id, a.accountNumber, a.ownerName, a.balance, a.createDateTime, a.updateDateTime)
+            from Account a
+            where (a.createDateTime, a.id) > (:createDateTime, :id)
+            order by a.createDateTime, a.id
+            """)
+    List<AccountView> findAllCreatedAfter(@Param("createDateTime") Timestamp createDateTime,
+                                      @Param("id") Long id,
+                                      Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountNumber in :accountNumbers order by a.accountNumber")
+    List<Account> findAllForUpdate(@Param("accountNumbers") Collection<UUID> accountNumbers);
+
+    @Query(value = """
+            update account
+            set balance = balance + :amount, update_date_time = :updateDateTime, version = version + 1
+            where account_number = :accountNumber
+            returning balance
+            """, nativeQuery = true)
+    Optional<BigDecimal> creditBalance(@Param("accountNumber") UUID accountNumber,
+                                       @Param("amount") BigDecimal amount,
+                                       @Param("updateDateTime") Timestamp updateDateTime);
+
+    @Query(value = """
+            update account
+            set balance = balance - :amount, update_date_time = :updateDateTime, version = version + 1
+            where account_number = :accountNumber and balance >= :amount
+            returning balance
+            """, nativeQuery = true)
+    Optional<BigDecimal> debitBalance(@Param("accountNumber") UUID accountNumber,
+                                      @Param("amount") BigDecimal amount,
+                                      @Param("updateDateTime") Timestamp updateDateTime);
 }
@@ -0,0 +1,27 @@
+package ua.example.banking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ua.example.banking.model.entity.IdempotencyKey;
+
+import java.sql.Timestamp;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    @Modifying
+    @Query(value = """
+            insert into idempotency_key (idempotency_key, request_hash, transaction_id, create_date_time)
+            values (:key, :requestHash, :transactionId, :createDateTime)
+            on conflict do nothing
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("key") String key,
+                       @Param("requestHash") String requestHash,
+                       @Param("transactionId") Long transactionId,
+                       @Param("createDateTime") Timestamp createDateTime);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.createDateTime < :createDateTime")
+    int deleteAllCreatedBefore(@Param("createDateTime") Timestamp createDateTime);
+}
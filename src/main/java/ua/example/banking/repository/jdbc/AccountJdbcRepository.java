@@ -0,0 +1,72 @@
+package ua.example.banking.repository.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+@Repository
+@RequiredArgsConstructor
+public class AccountJdbcRepository {
+
+    private static final String ADD_TO_BALANCE_SQL = """
+            update account
+            set balance = balance + ?, update_date_time = ?, version = version + 1
+            where account_number = ?
+            """;
+
+    // balances include credits still held in balance buckets
+    private static final String FIND_BALANCE_SQL = """
+            select a.balance + coalesce((select sum(b.balance) from account_balance_bucket b
+                                         where b.account_number = a.account_number), 0)
+            from account a
+            where a.account_number = ?
+            """;
+
+    private static final String ALL_BALANCES_SQL = """
+            select a.account_number, a.balance + coalesce(b.balance, 0) as balance
+            from account a
+                     left join (select account_number, sum(balance) as balance
+                                from account_balance_bucket
+                                group by account_number) b on b.account_number = a.account_number
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<BigDecimal> findBalance(UUID accountNumber) {
+        return jdbcTemplate.queryForList(FIND_BALANCE_SQL, BigDecimal.class, accountNumber).stream().findFirst();
+    }
+
+    /**
+     * Streams the balance of every account. Must run inside a transaction for the fetch size to take effect.
+     */
+    public void forEachBalance(int fetchSize, BiConsumer<UUID, BigDecimal> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(ALL_BALANCES_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) resultSet ->
+                consumer.accept(resultSet.getObject("account_number", UUID.class), resultSet.getBigDecimal("balance")));
+    }
+
+    public void addToBalances(Map<UUID, BigDecimal> balanceChanges, Timestamp updateDateTime) {
+        List<Map.Entry<UUID, BigDecimal>> changes = new ArrayList<>(balanceChanges.entrySet());
+
+        jdbcTemplate.batchUpdate(ADD_TO_BALANCE_SQL, changes, changes.size(), (statement, change) -> {
+            statement.setBigDecimal(1, change.getValue());
+            statement.setTimestamp(2, updateDateTime);
+            statement.setObject(3, change.getKey());
+        });
+    }
+}
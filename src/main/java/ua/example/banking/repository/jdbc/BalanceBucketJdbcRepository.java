@@ -0,0 +1,98 @@
+package ua.example.banking.repository.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Balance buckets of hot accounts: credits are spread over the {@code account_balance_bucket} rows of an account so
+ * they do not all wait for the lock of its {@code account} row, and are drained into {@code account.balance} later.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BalanceBucketJdbcRepository {
+
+    private static final String BUCKET_COUNTS_SQL = "select account_number, balance_buckets from account where balance_buckets > 0";
+
+    private static final String CREDIT_BUCKET_SQL = """
+            update account_balance_bucket
+            set balance = balance + ?
+            where account_number = ? and bucket = ?
+            """;
+
+    private static final String LOCK_BUCKETS_SQL = """
+            select coalesce(sum(balance), 0)
+            from (select balance from account_balance_bucket where account_number = ? for update) b
+            """;
+
+    private static final String RESET_BUCKETS_SQL = "update account_balance_bucket set balance = 0 where account_number = ? and balance <> 0";
+
+    private static final String TOTAL_BALANCE_SQL = """
+            select a.balance + coalesce((select sum(b.balance) from account_balance_bucket b
+                                         where b.account_number = a.account_number), 0)
+            from account a
+            where a.account_number = ?
+            """;
+
+    private static final String DELETE_BUCKETS_SQL = "delete from account_balance_bucket where account_number = ?";
+
+    private static final String CREATE_BUCKETS_SQL = """
+            insert into account_balance_bucket (account_number, bucket, balance)
+            select ?, bucket, 0 from generate_series(0, ? - 1) bucket
+            """;
+
+    private static final String UPDATE_BUCKET_COUNT_SQL = "update account set balance_buckets = ? where account_number = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Map<UUID, Integer> findBucketCounts() {
+        Map<UUID, Integer> bucketCounts = new HashMap<>();
+        jdbcTemplate.query(BUCKET_COUNTS_SQL, (RowCallbackHandler) resultSet ->
+                bucketCounts.put(resultSet.getObject("account_number", UUID.class), resultSet.getInt("balance_buckets")));
+        return bucketCounts;
+    }
+
+    /**
+     * Returns {@code false} when the bucket does not exist, e.g. because the account's buckets were removed.
+     */
+    public boolean credit(UUID accountNumber, int bucket, BigDecimal amount) {
+        return jdbcTemplate.update(CREDIT_BUCKET_SQL, amount, accountNumber, bucket) > 0;
+    }
+
+    /**
+     * Locks the buckets of the account, resets them and returns the amount they held, which the caller must add to
+     * the account balance in the same transaction.
+     */
+    public BigDecimal drain(UUID accountNumber) {
+        BigDecimal drained = jdbcTemplate.queryForObject(LOCK_BUCKETS_SQL, BigDecimal.class, accountNumber);
+        if (drained.signum() != 0) {
+            jdbcTemplate.update(RESET_BUCKETS_SQL, accountNumber);
+        }
+        return drained;
+    }
+
+    /**
+     * Account balance including its buckets, read in one statement so a concurrent drain is not counted twice.
+     */
+    public Optional<BigDecimal> findTotalBalance(UUID accountNumber) {
+        return jdbcTemplate.queryForList(TOTAL_BALANCE_SQL, BigDecimal.class, accountNumber).stream().findFirst();
+    }
+
+    /**
+     * Replaces the buckets of the account with {@code buckets} empty ones; the old ones must have been drained.
+     */
+    public void replaceBuckets(UUID accountNumber, int buckets) {
+        jdbcTemplate.update(DELETE_BUCKETS_SQL, accountNumber);
+        if (buckets > 0) {
+            jdbcTemplate.update(CREATE_BUCKETS_SQL, accountNumber, buckets);
+        }
+        jdbcTemplate.update(UPDATE_BUCKET_COUNT_SQL, buckets, accountNumber);
+    }
+}
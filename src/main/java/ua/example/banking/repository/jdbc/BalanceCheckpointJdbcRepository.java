@@ -0,0 +1,103 @@
+package ua.example.banking.repository.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Balance checkpoints are snapshots of an account balance covering every transaction created up to {@code as_of}.
+ * Any balance is the latest checkpoint at or before the requested time plus the transactions after it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BalanceCheckpointJdbcRepository {
+
+    private static final String BALANCE_AS_OF_SQL = """
+            select c.balance
+                       + coalesce((select sum(t.amount)
+                                   from transaction t
+                                   where t.account_number_to = c.account_number
+                                     and t.create_date_time > c.as_of
+                                     and t.create_date_time <= :asOf), 0)
+                       - coalesce((select sum(t.amount)
+                                   from transaction t
+                                   where t.account_number_from = c.account_number
+                                     and t.create_date_time > c.as_of
+                                     and t.create_date_time <= :asOf), 0)
+            from account_balance_checkpoint c
+            where c.account_number = :accountNumber
+              and c.as_of <= :asOf
+            order by c.as_of desc
+            limit 1
+            """;
+
+    private static final String CREATE_CHECKPOINTS_SQL = """
+            insert into account_balance_checkpoint (account_number, as_of, balance)
+            select c.account_number, :cutoff, c.balance + credits.amount - debits.amount
+            from (select distinct on (account_number) account_number, as_of, balance
+                  from account_balance_checkpoint
+                  where as_of < :cutoff
+                  order by account_number, as_of desc) c
+                     cross join lateral (select count(*) as count, coalesce(sum(t.amount), 0) as amount
+                                         from transaction t
+                                         where t.account_number_to = c.account_number
+                                           and t.create_date_time > c.as_of
+                                           and t.create_date_time <= :cutoff) credits
+                     cross join lateral (select count(*) as count, coalesce(sum(t.amount), 0) as amount
+                                         from transaction t
+                                         where t.account_number_from = c.account_number
+                                           and t.create_date_time > c.as_of
+                                           and t.create_date_time <= :cutoff) debits
+            where credits.count + debits.count >= :minTransactions
+            on conflict do nothing
+            """;
+
+    private static final String OLDEST_TRANSACTION_START_SQL = """
+            select min(xact_start) at time zone 'UTC'
+            from pg_stat_activity
+            where datname = current_database()
+              and backend_type = 'client backend'
+              and pid <> pg_backend_pid()
+              and xact_start is not null
+            """;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Returns empty when the account has no checkpoint at or before {@code asOf}, i.e. did not exist yet.
+     */
+    public Optional<BigDecimal> findBalanceAsOf(UUID accountNumber, Timestamp asOf) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("accountNumber", accountNumber)
+                .addValue("asOf", asOf);
+
+        return namedParameterJdbcTemplate.queryForList(BALANCE_AS_OF_SQL, parameters, BigDecimal.class).stream().findFirst();
+    }
+
+    /**
+     * Returns the start of the oldest transaction still open on another connection, or empty when there is none.
+     * Rows such a transaction inserts are stamped after it started but become visible only once it commits.
+     */
+    public Optional<Timestamp> findOldestTransactionStart() {
+        return Optional.ofNullable(namedParameterJdbcTemplate.getJdbcTemplate()
+                .queryForObject(OLDEST_TRANSACTION_START_SQL, Timestamp.class));
+    }
+
+    /**
+     * Adds a checkpoint at {@code cutoff} for every account with at least {@code minTransactions} transactions
+     * since its latest checkpoint.
+     */
+    public int createCheckpoints(Timestamp cutoff, int minTransactions) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("cutoff", cutoff)
+                .addValue("minTransactions", minTransactions);
+
+        return namedParameterJdbcTemplate.update(CREATE_CHECKPOINTS_SQL, parameters);
+    }
+}
@@ -0,0 +1,34 @@
+package ua.example.banking.repository.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ua.example.banking.model.entity.Transaction;
+
+import java.sql.Timestamp;
+
+@Repository
+@RequiredArgsConstructor
+public class LedgerDeadLetterJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            insert into ledger_dead_letter (transaction_id, transaction_type, account_number_from, account_number_to,
+                                            amount, transaction_create_date_time, error, create_date_time)
+            values (?, ?, ?, ?, ?, ?, ?, ?)
+            on conflict do nothing
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(Transaction transaction, String error, Timestamp createDateTime) {
+        jdbcTemplate.update(INSERT_SQL,
+                transaction.getId(),
+                transaction.getTransactionType().name(),
+                transaction.getAccountNumberFrom(),
+                transaction.getAccountNumberTo(),
+                transaction.getAmount(),
+                transaction.getCreateDateTime(),
+                error,
+                createDateTime);
+    }
+}
@@ -0,0 +1,29 @@
+package ua.example.banking.repository.jdbc;
+
+import org.springframework.jdbc.core.RowMapper;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.util.DateUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+final class TransactionDtoRowMapper implements RowMapper<TransactionDto> {
+
+    static final String COLUMNS = "id, account_number_to, account_number_from, amount, transaction_type, create_date_time";
+
+    static final TransactionDtoRowMapper INSTANCE = new TransactionDtoRowMapper();
+
+    @Override
+    public TransactionDto mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+        return new TransactionDto(
+                resultSet.getLong("id"),
+                resultSet.getObject("account_number_to", UUID.class),
+                resultSet.getObject("account_number_from", UUID.class),
+                resultSet.getBigDecimal("amount"),
+                TransactionType.valueOf(resultSet.getString("transaction_type")),
+                DateUtils.timestampToOffsetDateTime(resultSet.getTimestamp("create_date_time"))
+        );
+    }
+}
@@ -0,0 +1,71 @@
+package ua.example.banking.repository.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import ua.example.banking.config.properties.ExportProperties;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionHistoryFilter;
+import ua.example.banking.util.DateUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class TransactionExportJdbcRepository {
+
+    private static final String EXPORT_SQL = """
+            select %s
+            from transaction
+            %s
+            order by id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExportProperties exportProperties;
+
+    /**
+     * Streams matching transactions in id order. PostgreSQL only fetches rows in chunks of the configured
+     * fetch size when the connection is not in auto-commit mode, so this must run inside a transaction.
+     */
+    public void streamTransactions(UUID accountNumber, TransactionHistoryFilter filter, Consumer<TransactionDto> consumer) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+
+        if (accountNumber != null) {
+            conditions.add("(account_number_from = ? or account_number_to = ?)");
+            parameters.add(accountNumber);
+            parameters.add(accountNumber);
+        }
+        if (filter.getTypes() != null && !filter.getTypes().isEmpty()) {
+            conditions.add("transaction_type::text in (%s)".formatted(
+                    String.join(", ", filter.getTypes().stream().map(type -> "?").toList())));
+            filter.getTypes().forEach(type -> parameters.add(type.name()));
+        }
+        if (filter.getFromDate() != null) {
+            conditions.add("create_date_time >= ?");
+            parameters.add(DateUtils.offsetDateTimeToTimestamp(filter.getFromDate()));
+        }
+        if (filter.getToDate() != null) {
+            conditions.add("create_date_time < ?");
+            parameters.add(DateUtils.offsetDateTimeToTimestamp(filter.getToDate()));
+        }
+
+        String sql = EXPORT_SQL.formatted(TransactionDtoRowMapper.COLUMNS,
+                conditions.isEmpty() ? "" : "where " + String.join(" and ", conditions));
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(exportProperties.getFetchSize());
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(TransactionDtoRowMapper.INSTANCE.mapRow(resultSet, 0)));
+    }
+}
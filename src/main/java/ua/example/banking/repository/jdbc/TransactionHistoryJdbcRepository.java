@@ -0,0 +1,70 @@
+package ua.example.banking.repository.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionHistoryFilter;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.util.DateUtils;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class TransactionHistoryJdbcRepository {
+
+    private static final String HISTORY_SQL = """
+            (select %1$s
+             from transaction
+             where account_number_from = :accountNumber%2$s
+             order by create_date_time desc, id desc
+             limit :limit)
+            union all
+            (select %1$s
+             from transaction
+             where account_number_to = :accountNumber
+               and account_number_from is distinct from :accountNumber%2$s
+             order by create_date_time desc, id desc
+             limit :limit)
+            order by create_date_time desc, id desc
+            limit :limit
+            """;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public List<TransactionDto> findAccountHistory(UUID accountNumber,
+                                                   TransactionHistoryFilter filter,
+                                                   Timestamp beforeCreateDateTime,
+                                                   Long beforeId,
+                                                   int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("accountNumber", accountNumber)
+                .addValue("limit", limit);
+        StringBuilder conditions = new StringBuilder();
+
+        if (filter.getTypes() != null && !filter.getTypes().isEmpty()) {
+            conditions.append(" and transaction_type::text in (:types)");
+            parameters.addValue("types", filter.getTypes().stream().map(TransactionType::name).toList());
+        }
+        if (filter.getFromDate() != null) {
+            conditions.append(" and create_date_time >= :fromDate");
+            parameters.addValue("fromDate", DateUtils.offsetDateTimeToTimestamp(filter.getFromDate()));
+        }
+        if (filter.getToDate() != null) {
+            conditions.append(" and create_date_time < :toDate");
+            parameters.addValue("toDate", DateUtils.offsetDateTimeToTimestamp(filter.getToDate()));
+        }
+        if (beforeId != null) {
+            conditions.append(" and (create_date_time, id) < (:beforeCreateDateTime, :beforeId)");
+            parameters.addValue("beforeCreateDateTime", beforeCreateDateTime)
+                    .addValue("beforeId", beforeId);
+        }
+
+        return namedParameterJdbcTemplate.query(HISTORY_SQL.formatted(TransactionDtoRowMapper.COLUMNS, conditions), parameters,
+                TransactionDtoRowMapper.INSTANCE);
+    }
+}
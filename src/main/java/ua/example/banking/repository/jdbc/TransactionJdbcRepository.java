@@ -0,0 +1,61 @@
+package ua.example.banking.repository.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ua.example.banking.model.entity.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class TransactionJdbcRepository {
+
+    private static final String NEXT_ID_BLOCKS_SQL =
+            "select nextval('" + Transaction.ID_SEQUENCE + "') from generate_series(1, ?)";
+
+    private static final String INSERT_SQL = """
+            insert into transaction (id, account_number_to, account_number_from, amount, transaction_type, create_date_time)
+            values (?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = allocateIds(transactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            transactions.get(i).setId(ids.get(i));
+        }
+
+        insertAllWithIds(transactions);
+    }
+
+    public void insertAllWithIds(List<Transaction> transactions) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, transactions.size(), (statement, transaction) -> {
+            statement.setLong(1, transaction.getId());
+            statement.setObject(2, transaction.getAccountNumberTo());
+            statement.setObject(3, transaction.getAccountNumberFrom());
+            statement.setBigDecimal(4, transaction.getAmount());
+            statement.setString(5, transaction.getTransactionType().name());
+            statement.setTimestamp(6, transaction.getCreateDateTime());
+        });
+    }
+
+    public List<Long> allocateIds(int count) {
+        int blocks = (count + Transaction.ID_ALLOCATION_SIZE - 1) / Transaction.ID_ALLOCATION_SIZE;
+        List<Long> blockEnds = jdbcTemplate.queryForList(NEXT_ID_BLOCKS_SQL, Long.class, blocks);
+
+        List<Long> ids = new ArrayList<>(count);
+        for (long blockEnd : blockEnds) {
+            for (long id = blockEnd - Transaction.ID_ALLOCATION_SIZE + 1; id <= blockEnd && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,83 @@
+package ua.example.banking.repository.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Monthly partitions of the {@code transaction} table, named {@code transaction_pYYYYMM}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionPartitionJdbcRepository {
+
+    private static final String PARTITION_PREFIX = "transaction_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String CREATE_PARTITION_SQL = "select create_transaction_partition(?)";
+
+    private static final String ATTACHED_PARTITIONS_SQL = """
+            select c.relname
+            from pg_inherits i
+                     join pg_class c on c.oid = i.inhrelid
+            where i.inhparent = 'transaction'::regclass
+              and c.relname ~ '^transaction_p[0-9]{6}$'
+            order by c.relname
+            """;
+
+    private static final String LATEST_ARCHIVED_PARTITION_SQL = """
+            select c.relname
+            from pg_class c
+                     join pg_namespace n on n.oid = c.relnamespace
+            where n.nspname = 'archive'
+              and c.relname ~ '^transaction_p[0-9]{6}$'
+            order by c.relname desc
+            limit 1
+            """;
+
+    private static final String DETACH_PARTITION_SQL = "alter table transaction detach partition %s";
+
+    private static final String ARCHIVE_PARTITION_SQL = "alter table %s set schema archive";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void createPartition(YearMonth month) {
+        jdbcTemplate.queryForObject(CREATE_PARTITION_SQL, String.class, Date.valueOf(month.atDay(1)));
+    }
+
+    public List<YearMonth> findAttachedPartitions() {
+        return jdbcTemplate.queryForList(ATTACHED_PARTITIONS_SQL, String.class).stream()
+                .map(TransactionPartitionJdbcRepository::monthOf)
+                .toList();
+    }
+
+    public Optional<YearMonth> findLatestArchivedPartition() {
+        return jdbcTemplate.queryForList(LATEST_ARCHIVED_PARTITION_SQL, String.class).stream()
+                .findFirst()
+                .map(TransactionPartitionJdbcRepository::monthOf);
+    }
+
+    /**
+     * Detaches the partition from {@code transaction} and moves it to the {@code archive} schema. The detach takes
+     * an exclusive lock on {@code transaction} for its duration.
+     */
+    public void archivePartition(YearMonth month) {
+        String partitionName = partitionName(month);
+        jdbcTemplate.execute(DETACH_PARTITION_SQL.formatted(partitionName));
+        jdbcTemplate.execute(ARCHIVE_PARTITION_SQL.formatted(partitionName));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + PARTITION_SUFFIX.format(month);
+    }
+
+    private static YearMonth monthOf(String partitionName) {
+        return YearMonth.parse(partitionName.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+    }
+}
@@ -0,0 +1,13 @@
+package ua.example.banking.service;
+
+import ua.example.banking.model.dto.account.AccountBalanceDto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public interface AccountBalanceService {
+
+    AccountBalanceDto getBalanceAsOf(UUID accountNumber, OffsetDateTime asOf);
+
+    int createCheckpoints();
+}
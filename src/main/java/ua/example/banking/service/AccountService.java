@@ -2,8 +2,10 @@ package ua.example.banking.service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import ua.example.banking.model.dto.CursorPageDto;
 import ua.example.banking.model.dto.account.AccountDto;
 import ua.example.banking.model.dto.account.CreateAccountDto;
+import ua.example.banking.model.enums.AccountSortKey;
 
 import java.util.UUID;
 
@@ -13,5 +15,9 @@ public interface AccountService {
 
     AccountDto getAccountDetails(UUID accountNumber);
 
+    void setBalanceBuckets(UUID accountNumber, int buckets);
+
     Page<AccountDto> getAccounts(PageRequest pageRequest);
+
+    CursorPageDto<AccountDto> getAccounts(AccountSortKey sortKey, String cursor, int size);
 }
@@ -0,0 +1,9 @@
+package ua.example.banking.service;
+
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+
+public interface IdempotentTransactionService {
+
+    TransactionDto createTransaction(String idempotencyKey, CreateTransactionDto createTransactionDto);
+}
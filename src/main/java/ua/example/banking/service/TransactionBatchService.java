@@ -0,0 +1,9 @@
+package ua.example.banking.service;
+
+import ua.example.banking.model.dto.transaction.CreateTransactionBatchDto;
+import ua.example.banking.model.dto.transaction.TransactionBatchDto;
+
+public interface TransactionBatchService {
+
+    TransactionBatchDto createTransactions(CreateTransactionBatchDto createTransactionBatchDto);
+}
@@ -0,0 +1,12 @@
+package ua.example.banking.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ua.example.banking.model.dto.transaction.TransactionHistoryFilter;
+import ua.example.banking.model.enums.ExportFormat;
+
+import java.util.UUID;
+
+public interface TransactionExportService {
+
+    StreamingResponseBody exportTransactions(ExportFormat format, UUID accountNumber, TransactionHistoryFilter filter);
+}
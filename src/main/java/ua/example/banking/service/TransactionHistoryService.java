@@ -0,0 +1,13 @@
+package ua.example.banking.service;
+
+import ua.example.banking.model.dto.CursorPageDto;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionHistoryFilter;
+
+import java.util.UUID;
+
+public interface TransactionHistoryService {
+
+    CursorPageDto<TransactionDto> getAccountTransactions(UUID accountNumber, TransactionHistoryFilter filter,
+                                                         String cursor, int size);
+}
@@ -0,0 +1,162 @@
+package ua.example.banking.service.bucket;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.example.banking.advice.exception.ConcurrentOperationException;
+import ua.example.banking.advice.exception.DataNotFoundException;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.config.properties.BalanceBucketProperties;
+import ua.example.banking.repository.AccountRepository;
+import ua.example.banking.repository.jdbc.BalanceBucketJdbcRepository;
+import ua.example.banking.service.lock.AccountLockManager;
+import ua.example.banking.util.DateUtils;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Splits the balance of hot accounts into buckets. Credits to such an account update a random bucket instead of the
+ * account row, so they only wait for each other when they pick the same bucket; debits drain the buckets into the
+ * account balance when it does not cover them, and the buckets of every account are drained periodically.
+ * <p>
+ * The accounts with buckets are reloaded every {@code banking.balance-buckets.refresh-interval}, so other instances
+ * notice a change only after that. A credit to buckets that no longer exist falls back to the account row.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BalanceBucketManager {
+
+    private final BalanceBucketJdbcRepository balanceBucketJdbcRepository;
+    private final AccountRepository accountRepository;
+    private final AccountLockManager accountLockManager;
+    private final BalanceBucketProperties balanceBucketProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    // keeps a refresh that read the bucket counts before a change committed from overwriting it
+    private final Lock bucketCountsLock = new ReentrantLock();
+
+    private volatile Map<UUID, Integer> bucketCounts = new ConcurrentHashMap<>();
+
+    public boolean isBucketed(UUID accountNumber) {
+        return bucketCounts.containsKey(accountNumber);
+    }
+
+    /**
+     * Adds the amount to a random bucket of the account. Returns {@code false} without crediting anything when the
+     * account has no buckets, in which case the caller credits the account row.
+     */
+    public boolean credit(UUID accountNumber, BigDecimal amount) {
+        Integer buckets = bucketCounts.get(accountNumber);
+        if (buckets == null) {
+            return false;
+        }
+
+        if (balanceBucketJdbcRepository.credit(accountNumber, ThreadLocalRandom.current().nextInt(buckets), amount)) {
+            return true;
+        }
+        bucketCounts.remove(accountNumber);
+        return false;
+    }
+
+    /**
+     * Resets the buckets of the account and returns the amount they held, empty when they held nothing. The caller
+     * must hold the account lock and add the amount to the account balance in the same transaction.
+     */
+    public Optional<BigDecimal> drain(UUID accountNumber) {
+        if (!isBucketed(accountNumber)) {
+            return Optional.empty();
+        }
+
+        BigDecimal drained = balanceBucketJdbcRepository.drain(accountNumber);
+        return drained.signum() == 0 ? Optional.empty() : Optional.of(drained);
+    }
+
+    /**
+     * Balance of the account including its buckets, or empty when it has no buckets and the account row is exact.
+     */
+    public Optional<BigDecimal> findTotalBalance(UUID accountNumber) {
+        if (!isBucketed(accountNumber)) {
+            return Optional.empty();
+        }
+        return balanceBucketJdbcRepository.findTotalBalance(accountNumber);
+    }
+
+    /**
+     * Drains the current buckets of the account into its balance and replaces them with {@code buckets} empty ones;
+     * 0 turns buckets off.
+     */
+    public void setBalanceBuckets(UUID accountNumber, int buckets) {
+        if (buckets < 0 || buckets > balanceBucketProperties.getMaxBuckets()) {
+            throw new ValidationException("Balance buckets must be between 0 and %d."
+                    .formatted(balanceBucketProperties.getMaxBuckets()));
+        }
+
+        bucketCountsLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (accountLockManager.lockAccounts(List.of(accountNumber)).isEmpty()) {
+                    throw new DataNotFoundException("Account with account number: %s not found.".formatted(accountNumber));
+                }
+
+                moveIntoBalance(accountNumber, balanceBucketJdbcRepository.drain(accountNumber), DateUtils.nowTimestamp());
+                balanceBucketJdbcRepository.replaceBuckets(accountNumber, buckets);
+            });
+
+            if (buckets > 0) {
+                bucketCounts.put(accountNumber, buckets);
+            } else {
+                bucketCounts.remove(accountNumber);
+            }
+        } finally {
+            bucketCountsLock.unlock();
+        }
+        log.info("Balance buckets of account {} set to {}.", accountNumber, buckets);
+    }
+
+    @Scheduled(fixedDelayString = "${banking.balance-buckets.refresh-interval:PT5S}")
+    public void refreshBucketCounts() {
+        bucketCountsLock.lock();
+        try {
+            bucketCounts = new ConcurrentHashMap<>(balanceBucketJdbcRepository.findBucketCounts());
+        } finally {
+            bucketCountsLock.unlock();
+        }
+    }
+
+    /**
+     * Moves the buckets of every account into its balance, so debits rarely find the balance short and have to
+     * drain the buckets themselves. An account locked by a long-running operation is left for the next run.
+     */
+    @Scheduled(fixedDelayString = "${banking.balance-buckets.consolidation-interval:PT1S}")
+    public void consolidateBuckets() {
+        for (UUID accountNumber : bucketCounts.keySet()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    accountLockManager.lockAccounts(List.of(accountNumber));
+                    drain(accountNumber).ifPresent(drained ->
+                            moveIntoBalance(accountNumber, drained, DateUtils.nowTimestamp()));
+                });
+            } catch (ConcurrentOperationException e) {
+                log.debug("Balance buckets of account {} not consolidated, the account is busy.", accountNumber);
+            }
+        }
+    }
+
+    private void moveIntoBalance(UUID accountNumber, BigDecimal drained, Timestamp updateDateTime) {
+        if (drained.signum() != 0) {
+            accountRepository.creditBalance(accountNumber, drained, updateDateTime);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ua.example.banking.service.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.example.banking.config.properties.AccountCacheProperties;
+import ua.example.banking.model.dto.account.AccountDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Local read-through cache of account details. Entries of changed accounts are evicted after the
+ * changing transaction commits; a load still in flight at that point is dropped from the cache, so
+ * the next read always sees the committed balance. Loads run on the calling thread outside of the
+ * cache's internal locks, which keeps virtual threads from being pinned while they wait on JDBC.
+ */
+@Slf4j
+@Component
+public class AccountCache {
+
+    private final AsyncCache<UUID, AccountDto> accounts;
+    private final List<AccountCacheInvalidationHook> invalidationHooks;
+
+    public AccountCache(AccountCacheProperties accountCacheProperties,
+                        List<AccountCacheInvalidationHook> invalidationHooks,
+                        MeterRegistry meterRegistry) {
+        this.invalidationHooks = invalidationHooks;
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(accountCacheProperties.getSize())
+                .expireAfterWrite(accountCacheProperties.getTtl())
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, accounts, "accounts");
+    }
+
+    public AccountDto get(UUID accountNumber, Function<UUID, AccountDto> loader) {
+        CompletableFuture<AccountDto> load = new CompletableFuture<>();
+        CompletableFuture<AccountDto> account = accounts.get(accountNumber, (key, executor) -> load);
+
+        if (account == load) {
+            try {
+                load.complete(loader.apply(accountNumber));
+            } catch (RuntimeException e) {
+                load.completeExceptionally(e);
+            }
+        }
+
+        try {
+            return account.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void evict(Collection<UUID> accountNumbers) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictAndNotify(accountNumbers);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictAndNotify(accountNumbers);
+            }
+        });
+    }
+
+    public void evictLocally(Collection<UUID> accountNumbers) {
+        accounts.synchronous().invalidateAll(accountNumbers);
+    }
+
+    private void evictAndNotify(Collection<UUID> accountNumbers) {
+        evictLocally(accountNumbers);
+
+        for (AccountCacheInvalidationHook invalidationHook : invalidationHooks) {
+            try {
+                invalidationHook.accountsChanged(accountNumbers);
+            } catch (RuntimeException e) {
+                log.error("Account cache invalidation hook failed for accounts {}.", accountNumbers, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ua.example.banking.service.cache;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Notified after a committed balance change, so other instances can drop their cached accounts
+ * through {@link AccountCache#evictLocally(Collection)}.
+ */
+public interface AccountCacheInvalidationHook {
+
+    void accountsChanged(Collection<UUID> accountNumbers);
+}
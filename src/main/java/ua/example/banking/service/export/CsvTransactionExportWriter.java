@@ -0,0 +1,38 @@
+package ua.example.banking.service.export;
+
+import ua.example.banking.model.dto.transaction.TransactionDto;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+public class CsvTransactionExportWriter implements TransactionExportWriter {
+
+    private static final String HEADER = "id,account_number_to,account_number_from,amount,transaction_type,create_date_time\n";
+
+    private final Writer writer;
+
+    public CsvTransactionExportWriter(OutputStream outputStream) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        this.writer.write(HEADER);
+    }
+
+    @Override
+    public void write(TransactionDto transaction) throws IOException {
+        writer.append(String.valueOf(transaction.getId())).append(',')
+                .append(Objects.toString(transaction.getAccountNumberTo(), "")).append(',')
+                .append(Objects.toString(transaction.getAccountNumberFrom(), "")).append(',')
+                .append(transaction.getAmount().toPlainString()).append(',')
+                .append(transaction.getTransactionType().name()).append(',')
+                .append(transaction.getCreateDateTime().toString()).append('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+}
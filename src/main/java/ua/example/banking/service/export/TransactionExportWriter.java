@@ -0,0 +1,12 @@
+package ua.example.banking.service.export;
+
+import ua.example.banking.model.dto.transaction.TransactionDto;
+
+import java.io.IOException;
+
+public interface TransactionExportWriter {
+
+    void write(TransactionDto transaction) throws IOException;
+
+    void finish() throws IOException;
+}
@@ -0,0 +1,90 @@
+package ua.example.banking.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ua.example.banking.advice.exception.DataNotFoundException;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.config.properties.BalanceCheckpointProperties;
+import ua.example.banking.model.dto.account.AccountBalanceDto;
+import ua.example.banking.repository.AccountRepository;
+import ua.example.banking.repository.jdbc.BalanceCheckpointJdbcRepository;
+import ua.example.banking.service.AccountBalanceService;
+import ua.example.banking.service.ledger.LedgerEngine;
+import ua.example.banking.service.partition.TransactionPartitionManager;
+import ua.example.banking.util.DateUtils;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountBalanceServiceImpl implements AccountBalanceService {
+
+    private final AccountRepository accountRepository;
+    private final BalanceCheckpointJdbcRepository balanceCheckpointJdbcRepository;
+    private final BalanceCheckpointProperties balanceCheckpointProperties;
+    private final TransactionPartitionManager transactionPartitionManager;
+    private final ObjectProvider<LedgerEngine> ledgerEngineProvider;
+
+    @Override
+    @Transactional(readOnly = true)
+    public AccountBalanceDto getBalanceAsOf(UUID accountNumber, OffsetDateTime asOf) {
+        OffsetDateTime now = DateUtils.nowUTC();
+        if (asOf != null && asOf.isAfter(now)) {
+            throw new ValidationException("asOf must not be in the future.");
+        }
+        OffsetDateTime balanceTime = asOf == null ? now : asOf;
+        transactionPartitionManager.getArchivedBefore()
+                .filter(balanceTime::isBefore)
+                .ifPresent(archivedBefore -> {
+                    throw new ValidationException("Balance history before %s is archived.".formatted(archivedBefore));
+                });
+
+        log.info("Rebuilding balance of account '{}' as of {}.", accountNumber, balanceTime);
+
+        BigDecimal balance = balanceCheckpointJdbcRepository.findBalanceAsOf(accountNumber, DateUtils.offsetDateTimeToTimestamp(balanceTime))
+                .orElseThrow(() -> accountRepository.existsByAccountNumber(accountNumber)
+                        ? new DataNotFoundException("Account with account number: %s did not exist at %s."
+                                .formatted(accountNumber, balanceTime))
+                        : new DataNotFoundException("Account with account number: %s not found."
+                                .formatted(accountNumber)));
+
+        return new AccountBalanceDto(accountNumber, balance, balanceTime);
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${banking.balance-checkpoints.interval:PT10M}")
+    public int createCheckpoints() {
+        LedgerEngine ledgerEngine = ledgerEngineProvider.getIfAvailable();
+        if (ledgerEngine != null && ledgerEngine.isPersistFailing()) {
+            log.warn("Skipped balance checkpoints, the ledger has {} transactions it cannot persist.",
+                    ledgerEngine.persistBacklog());
+            return 0;
+        }
+
+        Timestamp inFlightSince = DateUtils.nowTimestamp();
+        inFlightSince = earliest(inFlightSince, balanceCheckpointJdbcRepository.findOldestTransactionStart());
+        if (ledgerEngine != null) {
+            inFlightSince = earliest(inFlightSince, ledgerEngine.oldestUnpersisted());
+        }
+        Timestamp cutoff = Timestamp.valueOf(inFlightSince.toLocalDateTime().minus(balanceCheckpointProperties.getSettleDelay()));
+        int created = balanceCheckpointJdbcRepository.createCheckpoints(cutoff, balanceCheckpointProperties.getMinTransactions());
+
+        log.info("Created {} balance checkpoints as of {}.", created, cutoff);
+
+        return created;
+    }
+
+    private static Timestamp earliest(Timestamp timestamp, Optional<Timestamp> other) {
+        return other.filter(timestamp::after).orElse(timestamp);
+    }
+}
@@ -1,67 +1,200 @@
 package ua.example.banking.service.impl;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ua.example.banking.advice.exception.DataNotFoundException;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.config.datasource.ReadRoutingContext;
 import ua.example.banking.mappers.AccountMapper;
+import ua.example.banking.model.dto.CursorPageDto;
 import ua.example.banking.model.dto.account.AccountDto;
 import ua.example.banking.model.dto.account.CreateAccountDto;
 import ua.example.banking.model.entity.Account;
+import ua.example.banking.model.enums.AccountSortKey;
+import ua.example.banking.model.projection.AccountView;
+import ua.example.banking.monitoring.BankingMetrics.AccountOperation;
+import ua.example.banking.monitoring.LogSampler;
 import ua.example.banking.repository.AccountRepository;
 import ua.example.banking.service.AccountService;
+import ua.example.banking.service.bucket.BalanceBucketManager;
+import ua.example.banking.service.cache.AccountCache;
+import ua.example.banking.util.CursorUtils;
 import ua.example.banking.util.DateUtils;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AccountServiceImpl implements AccountService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+
     private final AccountMapper accountMapper;
     private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final LogSampler logSampler;
+    private final BalanceBucketManager balanceBucketManager;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public AccountServiceImpl(AccountMapper accountMapper,
+                              AccountRepository accountRepository,
+                              AccountCache accountCache,
+                              LogSampler logSampler,
+                              BalanceBucketManager balanceBucketManager,
+                              PlatformTransactionManager transactionManager) {
+        this.accountMapper = accountMapper;
+        this.accountRepository = accountRepository;
+        this.accountCache = accountCache;
+        this.logSampler = logSampler;
+        this.balanceBucketManager = balanceBucketManager;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
 
     @Override
     public AccountDto createAccount(CreateAccountDto createAccountDto) {
         Account account = accountMapper.mapToEntity(createAccountDto);
         account.setCreateDateTime(DateUtils.nowTimestamp());
 
-        log.info("Creating account with balance {} by owner: '{}'.", account.getBalance(), account.getOwnerName());
-
         Account createdAccount = accountRepository.save(account);
 
-        log.info("Account '{}' with id: '{}' created successfully by owner: '{}'.", createdAccount.getAccountNumber(),
-                createdAccount.getId(), createdAccount.getOwnerName());
+        log.atInfo().setMessage("Account created.")
+                .addKeyValue("accountNumber", createdAccount.getAccountNumber())
+                .addKeyValue("id", createdAccount.getId())
+                .addKeyValue("ownerName", createdAccount.getOwnerName())
+                .addKeyValue("balance", createdAccount.getBalance())
+                .log();
 
         return accountMapper.mapToDto(createdAccount);
     }
 
     @Override
     public AccountDto getAccountDetails(UUID accountNumber) {
-        log.info("Retrieving account with account number: '{}'.", accountNumber);
+        AccountDto accountDto = accountCache.get(accountNumber, this::findAccountDetails);
 
-        AccountDto accountDto = accountRepository.findByAccountNumber(accountNumber)
-                .map(accountMapper::mapToDto)
-                .orElseThrow(() -> new DataNotFoundException("Account with account number: %s not found."
-                        .formatted(accountNumber)));
-
-        log.info("Account with account number: '{}' retrieved successfully.", accountNumber);
+        if (logSampler.sample(AccountOperation.GET_DETAILS)) {
+            log.atInfo().setMessage("Account retrieved.")
+                    .addKeyValue("accountNumber", accountNumber)
+                    .log();
+        }
 
         return accountDto;
     }
 
     @Override
-    public Page<AccountDto> getAccounts(PageRequest pageRequest) {
-        log.info("Retrieving accounts.");
+    public void setBalanceBuckets(UUID accountNumber, int buckets) {
+        balanceBucketManager.setBalanceBuckets(accountNumber, buckets);
+    }
 
-        Page<AccountDto> accounts = accountRepository.findAll(pageRequest)
+    @Override
+    @Transactional(readOnly = true)
+    public Page<AccountDto> getAccounts(PageRequest pageRequest) {
+        Page<AccountDto> accounts = accountRepository.findAllBy(pageRequest)
                 .map(accountMapper::mapToDto);
 
-        log.info("Accounts retrieved successfully.");
+        if (logSampler.sample(AccountOperation.LIST)) {
+            log.atInfo().setMessage("Accounts retrieved.")
+                    .addKeyValue("page", pageRequest.getPageNumber())
+                    .addKeyValue("size", accounts.getNumberOfElements())
+                    .log();
+        }
 
         return accounts;
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<AccountDto> getAccounts(AccountSortKey sortKey, String cursor, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and %d.".formatted(MAX_CURSOR_PAGE_SIZE));
+        }
+
+        Limit limit = Limit.of(size + 1);
+        List<AccountView> accounts;
+        if (cursor == null) {
+            accounts = switch (sortKey) {
+                case ID -> accountRepository.findAllByOrderByIdAsc(limit);
+                case CREATE_DATE_TIME -> accountRepository.findAllByOrderByCreateDateTimeAscIdAsc(limit);
+            };
+        } else {
+            AccountPosition position = decodeCursor(sortKey, cursor);
+            accounts = switch (sortKey) {
+                case ID -> accountRepository.findByIdGreaterThanOrderByIdAsc(position.id(), limit);
+                case CREATE_DATE_TIME -> accountRepository.findAllCreatedAfter(position.createDateTime(), position.id(), limit);
+            };
+        }
+
+        String nextCursor = null;
+        if (accounts.size() > size) {
+            accounts = accounts.subList(0, size);
+            nextCursor = encodeCursor(sortKey, accounts.getLast());
+        }
+
+        if (logSampler.sample(AccountOperation.SCROLL)) {
+            log.atInfo().setMessage("Accounts retrieved.")
+                    .addKeyValue("sort", sortKey)
+                    .addKeyValue("cursor", cursor)
+                    .addKeyValue("size", accounts.size())
+                    .log();
+        }
+
+        return new CursorPageDto<>(accounts.stream().map(accountMapper::mapToDto).toList(), nextCursor);
+    }
+
+    /**
+     * Runs in a read-only transaction only on a cache miss, so cache hits do not take a connection. The transaction
+     * stays on the primary: the result is cached longer than the read-your-writes window, so a lagging replica's
+     * balance would be served well after the write it missed. Unlike the account lists, the balance includes credits
+     * still held in balance buckets.
+     */
+    private AccountDto findAccountDetails(UUID accountNumber) {
+        return ReadRoutingContext.onPrimary(() -> readOnlyTransactionTemplate.execute(status ->
+                        accountRepository.findViewByAccountNumber(accountNumber)
+                                .map(accountMapper::mapToDto)
+                                .map(this::includeBalanceBuckets)))
+                .orElseThrow(() -> new DataNotFoundException("Account with account number: %s not found."
+                        .formatted(accountNumber)));
+    }
+
+    private AccountDto includeBalanceBuckets(AccountDto accountDto) {
+        balanceBucketManager.findTotalBalance(accountDto.getAccountNumber()).ifPresent(accountDto::setBalance);
+        return accountDto;
+    }
+
+    private static String encodeCursor(AccountSortKey sortKey, AccountView last) {
+        return switch (sortKey) {
+            case ID -> CursorUtils.encode(sortKey.name(), last.id().toString());
+            case CREATE_DATE_TIME -> CursorUtils.encode(sortKey.name(), last.id().toString(),
+                    last.createDateTime().toLocalDateTime().toString());
+        };
+    }
+
+    private static AccountPosition decodeCursor(AccountSortKey sortKey, String cursor) {
+        String[] parts = CursorUtils.decode(cursor, sortKey == AccountSortKey.ID ? 2 : 3);
+        if (!sortKey.name().equals(parts[0])) {
+            throw new ValidationException("Cursor was issued for a different sort order.");
+        }
+
+        try {
+            Timestamp createDateTime = sortKey == AccountSortKey.CREATE_DATE_TIME
+                    ? Timestamp.valueOf(LocalDateTime.parse(parts[2]))
+                    : null;
+            return new AccountPosition(Long.valueOf(parts[1]), createDateTime);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor.");
+        }
+    }
+
+    private record AccountPosition(Long id, Timestamp createDateTime) {
+    }
 }
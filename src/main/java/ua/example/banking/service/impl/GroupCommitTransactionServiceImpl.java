@@ -0,0 +1,307 @@
+package ua.example.banking.service.impl;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.example.banking.advice.exception.ServiceUnavailableException;
+import ua.example.banking.config.properties.GroupCommitProperties;
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.service.TransactionService;
+import ua.example.banking.service.retry.TransactionRetryPolicy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Gathers concurrent transaction requests into groups that share a single database commit. Each request runs
+ * in its own savepoint inside the group's transaction, so a request rejected on its data is rolled back alone
+ * and reported to its caller while the rest of the group commits. A database error marks the whole transaction
+ * rollback-only, not only the savepoint, so the request that caused it is reported and the rest of the group
+ * runs again in a new transaction.
+ * <p>
+ * A caller that already runs in a transaction, such as an idempotent request storing its key, joins that
+ * transaction directly instead, so both commit or roll back together.
+ * <p>
+ * The group locks the accounts of all its requests up front, in the same order as any other locker, and holds
+ * them until it commits, so it cannot wait in a cycle with other groups or with requests locking on their own
+ * threads. In {@code optimistic} mode only the rows updated by the requests are locked, in request order, and a
+ * deadlock the database detects fails one request like any other database error.
+ */
+@Slf4j
+@Primary
+@Service
+@ConditionalOnProperty(name = "banking.transactions.mode", havingValue = "group-commit")
+public class GroupCommitTransactionServiceImpl implements TransactionService, SmartLifecycle {
+
+    private final TransactionServiceImpl transactionService;
+    private final EntityManager entityManager;
+    private final GroupCommitProperties groupCommitProperties;
+    private final DataSource dataSource;
+    private final TransactionTemplate groupTemplate;
+    private final TransactionRetryPolicy transactionRetryPolicy;
+    private final BlockingQueue<PendingTransaction> pending;
+    private final DistributionSummary groupSize;
+    private final List<Thread> committers = new ArrayList<>();
+    private volatile boolean running;
+
+    public GroupCommitTransactionServiceImpl(TransactionServiceImpl transactionService,
+                                             EntityManager entityManager,
+                                             DataSource dataSource,
+                                             PlatformTransactionManager transactionManager,
+                                             GroupCommitProperties groupCommitProperties,
+                                             TransactionRetryPolicy transactionRetryPolicy,
+                                             MeterRegistry meterRegistry) {
+        this.transactionService = transactionService;
+        this.entityManager = entityManager;
+        this.groupCommitProperties = groupCommitProperties;
+        this.dataSource = dataSource;
+        this.groupTemplate = new TransactionTemplate(transactionManager);
+        this.transactionRetryPolicy = transactionRetryPolicy;
+        this.pending = new LinkedBlockingQueue<>(groupCommitProperties.getQueueCapacity());
+
+        this.groupSize = DistributionSummary.builder("banking.group.commit.size")
+                .description("Transactions committed together in one database commit")
+                .register(meterRegistry);
+        Gauge.builder("banking.group.commit.queue.size", pending, BlockingQueue::size)
+                .description("Transactions waiting to join a commit group")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public TransactionDto createTransaction(CreateTransactionDto createTransactionDto) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transactionService.createTransaction(createTransactionDto);
+        }
+        // a request whose savepoint failed on a concurrent change is submitted again, usually to a later group
+        return transactionRetryPolicy.execute(() -> submit(createTransactionDto));
+    }
+
+    private TransactionDto submit(CreateTransactionDto createTransactionDto) {
+        if (!running) {
+            throw new ServiceUnavailableException("Group commit is not running.");
+        }
+
+        PendingTransaction transaction = new PendingTransaction(createTransactionDto, new CompletableFuture<>());
+        try {
+            if (!pending.offer(transaction, groupCommitProperties.getSubmitTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ServiceUnavailableException("Too many pending transactions, please retry.");
+            }
+            return transaction.result().get(groupCommitProperties.getResultTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // a request is dropped if its group has not started yet, otherwise it may still commit
+            transaction.result().cancel(false);
+            throw new ServiceUnavailableException("Timed out waiting for the transaction to commit.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for the transaction to commit.");
+        }
+    }
+
+    private void runCommitter() {
+        List<PendingTransaction> group = new ArrayList<>(groupCommitProperties.getMaxGroupSize());
+        while (true) {
+            try {
+                PendingTransaction first = pending.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+
+                group.add(first);
+                collectGroup(group);
+            } catch (InterruptedException e) {
+                log.warn("Group committer interrupted, {} transactions left pending.", pending.size());
+                return;
+            }
+
+            commit(group);
+            group.clear();
+        }
+    }
+
+    /**
+     * Adds requests to the group until it is full or the window since its first request has passed.
+     */
+    private void collectGroup(List<PendingTransaction> group) throws InterruptedException {
+        long deadline = System.nanoTime() + groupCommitProperties.getWindow().toNanos();
+        while (group.size() < groupCommitProperties.getMaxGroupSize()) {
+            pending.drainTo(group, groupCommitProperties.getMaxGroupSize() - group.size());
+            long remaining = deadline - System.nanoTime();
+            if (group.size() >= groupCommitProperties.getMaxGroupSize() || remaining <= 0) {
+                return;
+            }
+
+            PendingTransaction next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+        }
+    }
+
+    private void commit(List<PendingTransaction> group) {
+        // callers that timed out are not waiting for their result anymore
+        group.removeIf(transaction -> transaction.result().isDone());
+        if (group.isEmpty()) {
+            return;
+        }
+
+        TransactionDto[] results = new TransactionDto[group.size()];
+        RuntimeException[] failures = new RuntimeException[group.size()];
+
+        int failedGroupAt;
+        try {
+            failedGroupAt = groupTemplate.execute(status -> {
+                transactionService.lockAccountsInCurrentTransaction(group.stream().map(PendingTransaction::request).toList());
+                entityManager.clear();
+
+                Connection connection = DataSourceUtils.getConnection(dataSource);
+                for (int i = 0; i < group.size(); i++) {
+                    Savepoint savepoint = setSavepoint(connection);
+                    try {
+                        results[i] = transactionService.createTransactionInCurrentTransaction(group.get(i).request());
+                        entityManager.flush();
+                        releaseSavepoint(connection, savepoint);
+                    } catch (RuntimeException e) {
+                        failures[i] = e;
+                        // a database error leaves nothing of the group to commit, see the class comment
+                        if (status.isRollbackOnly()) {
+                            status.setRollbackOnly();
+                            return i;
+                        }
+                        rollbackToSavepoint(connection, savepoint);
+                    } finally {
+                        // deposits and withdrawals update balances natively, so accounts left managed by an earlier
+                        // request would be stale for the next one; everything is flushed, so nothing is lost
+                        entityManager.clear();
+                    }
+                }
+                return -1;
+            });
+        } catch (RuntimeException e) {
+            log.error("Commit of a group of {} transactions failed.", group.size(), e);
+            group.forEach(transaction -> transaction.result().completeExceptionally(e));
+            return;
+        }
+
+        if (failedGroupAt >= 0) {
+            log.warn("Group of {} transactions rolled back after a database error, running the rest again.",
+                    group.size(), failures[failedGroupAt]);
+            group.get(failedGroupAt).result().completeExceptionally(failures[failedGroupAt]);
+            List<PendingTransaction> rest = new ArrayList<>(group);
+            rest.remove(failedGroupAt);
+            commit(rest);
+            return;
+        }
+
+        groupSize.record(group.size());
+        for (int i = 0; i < group.size(); i++) {
+            if (failures[i] != null) {
+                group.get(i).result().completeExceptionally(failures[i]);
+            } else {
+                group.get(i).result().complete(results[i]);
+            }
+        }
+    }
+
+    private static Savepoint setSavepoint(Connection connection) {
+        try {
+            return connection.setSavepoint();
+        } catch (SQLException e) {
+            throw new TransactionSystemException("Could not create a savepoint.", e);
+        }
+    }
+
+    private static void releaseSavepoint(Connection connection, Savepoint savepoint) {
+        try {
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            throw new TransactionSystemException("Could not release a savepoint.", e);
+        }
+    }
+
+    private static void rollbackToSavepoint(Connection connection, Savepoint savepoint) {
+        try {
+            connection.rollback(savepoint);
+        } catch (SQLException e) {
+            throw new TransactionSystemException("Could not roll back to a savepoint.", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < groupCommitProperties.getCommitters(); i++) {
+            Thread committer = Thread.ofPlatform().name("group-committer-" + i).daemon().start(this::runCommitter);
+            committers.add(committer);
+        }
+        log.info("Group commit started with {} committers, window {} and up to {} transactions per group.",
+                committers.size(), groupCommitProperties.getWindow(), groupCommitProperties.getMaxGroupSize());
+    }
+
+    /**
+     * Stops accepting transactions and commits the ones already queued.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            for (Thread committer : committers) {
+                committer.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        committers.clear();
+
+        PendingTransaction transaction;
+        while ((transaction = pending.poll()) != null) {
+            transaction.result().completeExceptionally(new ServiceUnavailableException("Group commit is not running."));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so no request waits on a stopped committer.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 4096;
+    }
+
+    private record PendingTransaction(CreateTransactionDto request, CompletableFuture<TransactionDto> result) {
+    }
+}
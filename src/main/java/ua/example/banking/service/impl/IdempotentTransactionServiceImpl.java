@@ -0,0 +1,201 @@
+package ua.example.banking.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.example.banking.advice.exception.DataNotFoundException;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.config.properties.IdempotencyProperties;
+import ua.example.banking.mappers.TransactionMapper;
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.entity.IdempotencyKey;
+import ua.example.banking.repository.IdempotencyKeyRepository;
+import ua.example.banking.repository.TransactionRepository;
+import ua.example.banking.service.IdempotentTransactionService;
+import ua.example.banking.service.TransactionService;
+import ua.example.banking.service.retry.TransactionRetryPolicy;
+import ua.example.banking.util.DateUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Slf4j
+@Service
+@ConditionalOnExpression("'${banking.transactions.mode:jpa}' != 'ledger'")
+public class IdempotentTransactionServiceImpl implements IdempotentTransactionService {
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final TransactionService transactionService;
+    private final TransactionMapper transactionMapper;
+    private final TransactionRepository transactionRepository;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionRetryPolicy transactionRetryPolicy;
+    private final Duration retention;
+    private final Cache<String, StoredResult> completed;
+    private final ConcurrentMap<String, CompletableFuture<StoredResult>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotentTransactionServiceImpl(TransactionService transactionService,
+                                            TransactionMapper transactionMapper,
+                                            TransactionRepository transactionRepository,
+                                            IdempotencyKeyRepository idempotencyKeyRepository,
+                                            TransactionTemplate transactionTemplate,
+                                            TransactionRetryPolicy transactionRetryPolicy,
+                                            IdempotencyProperties idempotencyProperties,
+                                            MeterRegistry meterRegistry) {
+        this.transactionService = transactionService;
+        this.transactionMapper = transactionMapper;
+        this.transactionRepository = transactionRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.transactionRetryPolicy = transactionRetryPolicy;
+        this.retention = idempotencyProperties.getRetention();
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(idempotencyProperties.getCacheSize())
+                .expireAfterWrite(idempotencyProperties.getCacheTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "idempotency");
+    }
+
+    @Override
+    public TransactionDto createTransaction(String idempotencyKey, CreateTransactionDto createTransactionDto) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException("Idempotency key must contain 1 to %d characters.".formatted(MAX_KEY_LENGTH));
+        }
+
+        String requestHash = requestHash(createTransactionDto);
+
+        StoredResult stored = completed.getIfPresent(idempotencyKey);
+        if (stored != null) {
+            log.info("Replaying transaction for idempotency key '{}' from cache.", idempotencyKey);
+            return stored.verify(requestHash);
+        }
+
+        CompletableFuture<StoredResult> request = new CompletableFuture<>();
+        CompletableFuture<StoredResult> running = inFlight.putIfAbsent(idempotencyKey, request);
+        if (running != null) {
+            log.info("Waiting for in-flight request with idempotency key '{}'.", idempotencyKey);
+            return await(running).verify(requestHash);
+        }
+
+        try {
+            StoredResult result = findStored(idempotencyKey)
+                    .orElseGet(() -> execute(idempotencyKey, requestHash, createTransactionDto));
+            completed.put(idempotencyKey, result);
+            request.complete(result);
+
+            return result.verify(requestHash);
+        } catch (RuntimeException e) {
+            request.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(idempotencyKey, request);
+        }
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${banking.idempotency.cleanup-interval:PT1H}")
+    public void deleteExpiredKeys() {
+        int deleted = idempotencyKeyRepository.deleteAllCreatedBefore(
+                Timestamp.valueOf(DateUtils.nowUTC().minus(retention).toLocalDateTime()));
+
+        log.info("Deleted {} expired idempotency keys.", deleted);
+    }
+
+    private StoredResult execute(String idempotencyKey, String requestHash, CreateTransactionDto createTransactionDto) {
+        // the transaction service joins this transaction, so a conflict is retried here together with the key
+        StoredResult result = transactionRetryPolicy.execute(() -> transactionTemplate.execute(status -> {
+            TransactionDto transaction = transactionService.createTransaction(createTransactionDto);
+
+            int inserted = idempotencyKeyRepository.insertIfAbsent(idempotencyKey, requestHash, transaction.getId(),
+                    DateUtils.nowTimestamp());
+            if (inserted == 0) {
+                status.setRollbackOnly();
+                return null;
+            }
+
+            return new StoredResult(requestHash, transaction);
+        }));
+
+        if (result != null) {
+            return result;
+        }
+
+        log.info("Idempotency key '{}' was stored by a concurrent request, replaying its transaction.", idempotencyKey);
+        return findStored(idempotencyKey)
+                .orElseThrow(() -> new IllegalStateException("Idempotency key '%s' disappeared.".formatted(idempotencyKey)));
+    }
+
+    private Optional<StoredResult> findStored(String idempotencyKey) {
+        return idempotencyKeyRepository.findById(idempotencyKey)
+                .map(this::toStoredResult);
+    }
+
+    private StoredResult toStoredResult(IdempotencyKey idempotencyKey) {
+        TransactionDto transaction = transactionRepository.findById(idempotencyKey.getTransactionId())
+                .map(transactionMapper::mapToDto)
+                .orElseThrow(() -> new DataNotFoundException("Transaction for idempotency key not found."));
+
+        return new StoredResult(idempotencyKey.getRequestHash(), transaction);
+    }
+
+    /**
+     * SHA-256 of a canonical form of the request, so the hash stored with the key compares equal on every instance
+     * and after restarts; amounts differing only in trailing zeros are the same request.
+     */
+    private static String requestHash(CreateTransactionDto createTransactionDto) {
+        String canonical = String.join("|",
+                Objects.toString(createTransactionDto.getTransactionType(), ""),
+                Objects.toString(createTransactionDto.getFrom(), ""),
+                Objects.toString(createTransactionDto.getTo(), ""),
+                createTransactionDto.getAmount() == null ? "" : createTransactionDto.getAmount().stripTrailingZeros().toPlainString());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    private static StoredResult await(CompletableFuture<StoredResult> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record StoredResult(String requestHash, TransactionDto transaction) {
+
+        private TransactionDto verify(String requestHash) {
+            if (!this.requestHash.equals(requestHash)) {
+                throw new ValidationException("Idempotency key was already used for a different request.");
+            }
+            return transaction;
+        }
+    }
+}
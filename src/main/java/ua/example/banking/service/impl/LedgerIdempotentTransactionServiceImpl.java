@@ -0,0 +1,23 @@
+package ua.example.banking.service.impl;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.service.IdempotentTransactionService;
+
+/**
+ * Rejects idempotency keys in ledger mode. The ledger moves the money outside of any database transaction, so a key
+ * could not be stored atomically with the transaction it guards: a failed insert would let a retry apply the
+ * transaction twice, and a key stored for an entry not yet persisted would point at a missing transaction.
+ */
+@Service
+@ConditionalOnProperty(name = "banking.transactions.mode", havingValue = "ledger")
+public class LedgerIdempotentTransactionServiceImpl implements IdempotentTransactionService {
+
+    @Override
+    public TransactionDto createTransaction(String idempotencyKey, CreateTransactionDto createTransactionDto) {
+        throw new ValidationException("Idempotency keys are not supported in ledger mode.");
+    }
+}
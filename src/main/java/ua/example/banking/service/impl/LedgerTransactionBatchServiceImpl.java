@@ -0,0 +1,63 @@
+package ua.example.banking.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import ua.example.banking.advice.exception.BankingException;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.mappers.TransactionMapper;
+import ua.example.banking.model.dto.transaction.CreateTransactionBatchDto;
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionBatchDto;
+import ua.example.banking.model.dto.transaction.TransactionBatchItemDto;
+import ua.example.banking.model.enums.BatchItemStatus;
+import ua.example.banking.model.enums.BatchMode;
+import ua.example.banking.service.TransactionBatchService;
+import ua.example.banking.service.ledger.LedgerEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies batch items one by one through the ledger. The ledger has no multi-shard transaction, so only
+ * {@link BatchMode#PER_ITEM} batches are supported.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "banking.transactions.mode", havingValue = "ledger")
+public class LedgerTransactionBatchServiceImpl implements TransactionBatchService {
+
+    private final TransactionMapper transactionMapper;
+    private final LedgerEngine ledgerEngine;
+
+    @Override
+    public TransactionBatchDto createTransactions(CreateTransactionBatchDto createTransactionBatchDto) {
+        BatchMode mode = createTransactionBatchDto.getMode();
+        List<CreateTransactionDto> items = createTransactionBatchDto.getTransactions();
+
+        if (mode != BatchMode.PER_ITEM) {
+            throw new ValidationException("Only PER_ITEM batches are supported in ledger mode.");
+        }
+
+        log.info("Processing batch of {} transactions in the ledger.", items.size());
+
+        List<TransactionBatchItemDto> results = new ArrayList<>(items.size());
+        int succeeded = 0;
+        for (int i = 0; i < items.size(); i++) {
+            try {
+                results.add(new TransactionBatchItemDto(i, BatchItemStatus.SUCCEEDED,
+                        transactionMapper.mapToDto(ledgerEngine.execute(items.get(i))), null));
+                succeeded++;
+            } catch (BankingException e) {
+                results.add(new TransactionBatchItemDto(i, BatchItemStatus.FAILED, null, e.getMessage()));
+            }
+        }
+
+        int failed = items.size() - succeeded;
+        log.info("Batch processed: {} transactions succeeded, {} failed.", succeeded, failed);
+
+        return new TransactionBatchDto(mode, succeeded, failed, results);
+    }
+}
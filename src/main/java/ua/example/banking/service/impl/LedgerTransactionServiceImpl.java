@@ -0,0 +1,41 @@
+package ua.example.banking.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import ua.example.banking.mappers.TransactionMapper;
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.entity.Transaction;
+import ua.example.banking.monitoring.LogSampler;
+import ua.example.banking.service.TransactionService;
+import ua.example.banking.service.ledger.LedgerEngine;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "banking.transactions.mode", havingValue = "ledger")
+public class LedgerTransactionServiceImpl implements TransactionService {
+
+    private final TransactionMapper transactionMapper;
+    private final LedgerEngine ledgerEngine;
+    private final LogSampler logSampler;
+
+    @Override
+    public TransactionDto createTransaction(CreateTransactionDto createTransactionDto) {
+        Transaction transaction = ledgerEngine.execute(createTransactionDto);
+
+        if (logSampler.sample(transaction.getTransactionType())) {
+            log.atInfo().setMessage("Ledger transaction completed.")
+                    .addKeyValue("transactionId", transaction.getId())
+                    .addKeyValue("type", transaction.getTransactionType())
+                    .addKeyValue("from", transaction.getAccountNumberFrom())
+                    .addKeyValue("to", transaction.getAccountNumberTo())
+                    .addKeyValue("amount", transaction.getAmount())
+                    .log();
+        }
+
+        return transactionMapper.mapToDto(transaction);
+    }
+}
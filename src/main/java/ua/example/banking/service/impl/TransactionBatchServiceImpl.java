@@ -0,0 +1,191 @@
+package ua.example.banking.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ua.example.banking.advice.exception.BankingException;
+import ua.example.banking.advice.exception.DataNotFoundException;
+import ua.example.banking.advice.exception.InsufficientFundsException;
+import ua.example.banking.mappers.TransactionMapper;
+import ua.example.banking.model.dto.transaction.CreateTransactionBatchDto;
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionBatchDto;
+import ua.example.banking.model.dto.transaction.TransactionBatchItemDto;
+import ua.example.banking.model.entity.Account;
+import ua.example.banking.model.entity.Transaction;
+import ua.example.banking.model.enums.BatchItemStatus;
+import ua.example.banking.model.enums.BatchMode;
+import ua.example.banking.repository.jdbc.AccountJdbcRepository;
+import ua.example.banking.repository.jdbc.TransactionJdbcRepository;
+import ua.example.banking.service.TransactionBatchService;
+import ua.example.banking.service.bucket.BalanceBucketManager;
+import ua.example.banking.service.cache.AccountCache;
+import ua.example.banking.service.lock.AccountLockManager;
+import ua.example.banking.util.DateUtils;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${banking.transactions.mode:jpa}' != 'ledger'")
+public class TransactionBatchServiceImpl implements TransactionBatchService {
+
+    private final TransactionMapper transactionMapper;
+    private final AccountLockManager accountLockManager;
+    private final AccountJdbcRepository accountJdbcRepository;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final AccountCache accountCache;
+    private final BalanceBucketManager balanceBucketManager;
+
+    @Override
+    @Transactional
+    public TransactionBatchDto createTransactions(CreateTransactionBatchDto createTransactionBatchDto) {
+        BatchMode mode = createTransactionBatchDto.getMode();
+        List<CreateTransactionDto> items = createTransactionBatchDto.getTransactions();
+
+        log.info("Processing batch of {} transactions in mode '{}'.", items.size(), mode);
+
+        Map<UUID, Account> accounts = accountLockManager.lockAccountsForUpdate(collectAccountNumbers(items));
+        Map<UUID, BigDecimal> balances = new HashMap<>();
+        accounts.forEach((accountNumber, account) -> balances.put(accountNumber, account.getBalance()));
+
+        Map<UUID, BigDecimal> balanceChanges = new LinkedHashMap<>();
+        Transaction[] transactions = new Transaction[items.size()];
+        String[] errors = new String[items.size()];
+        Timestamp now = DateUtils.nowTimestamp();
+
+        for (int i = 0; i < items.size(); i++) {
+            try {
+                transactions[i] = applyTransaction(items.get(i), balances, balanceChanges, now);
+            } catch (BankingException e) {
+                errors[i] = e.getMessage();
+
+                if (mode == BatchMode.ALL_OR_NOTHING) {
+                    log.error("Batch rejected, transaction at index {} failed: '{}'.", i, e.getMessage());
+                    return rejectedBatch(mode, items.size(), i, e.getMessage());
+                }
+            }
+        }
+
+        List<Transaction> successful = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            if (transaction != null) {
+                successful.add(transaction);
+            }
+        }
+
+        accountJdbcRepository.addToBalances(balanceChanges, now);
+        transactionJdbcRepository.insertAll(successful);
+        accountCache.evict(balanceChanges.keySet());
+
+        List<TransactionBatchItemDto> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            results.add(transactions[i] != null
+                    ? new TransactionBatchItemDto(i, BatchItemStatus.SUCCEEDED, transactionMapper.mapToDto(transactions[i]), null)
+                    : new TransactionBatchItemDto(i, BatchItemStatus.FAILED, null, errors[i]));
+        }
+
+        int failed = items.size() - successful.size();
+        log.info("Batch processed: {} transactions succeeded, {} failed.", successful.size(), failed);
+
+        return new TransactionBatchDto(mode, successful.size(), failed, results);
+    }
+
+    private Transaction applyTransaction(CreateTransactionDto createTransactionDto,
+                                         Map<UUID, BigDecimal> balances,
+                                         Map<UUID, BigDecimal> balanceChanges,
+                                         Timestamp now) {
+        UUID to = createTransactionDto.getTo();
+        UUID from = createTransactionDto.getFrom();
+        BigDecimal amount = createTransactionDto.getAmount();
+
+        switch (createTransactionDto.getTransactionType()) {
+            case DEPOSIT -> {
+                requireAccount(balances, to, "Target account not found.");
+                changeBalance(balances, balanceChanges, to, amount);
+            }
+            case WITHDRAW -> {
+                requireFunds(balances, from, amount, now);
+                changeBalance(balances, balanceChanges, from, amount.negate());
+            }
+            case TRANSFER -> {
+                requireAccount(balances, to, "Target account not found.");
+                requireFunds(balances, from, amount, now);
+                changeBalance(balances, balanceChanges, from, amount.negate());
+                changeBalance(balances, balanceChanges, to, amount);
+            }
+            default -> throw new IllegalArgumentException("Invalid transaction type");
+        }
+
+        return new Transaction(to, from, amount, createTransactionDto.getTransactionType(), now);
+    }
+
+    private void requireAccount(Map<UUID, BigDecimal> balances, UUID accountNumber, String message) {
+        if (accountNumber == null || !balances.containsKey(accountNumber)) {
+            throw new DataNotFoundException(message);
+        }
+    }
+
+    /**
+     * Moves the account's balance buckets into its balance when the balance alone does not cover the amount, as the
+     * single transaction debits do. The drained amount is written right away, so it is kept even if the batch is
+     * rejected.
+     */
+    private void requireFunds(Map<UUID, BigDecimal> balances, UUID accountNumber, BigDecimal amount, Timestamp now) {
+        requireAccount(balances, accountNumber, "Source account not found.");
+
+        if (balances.get(accountNumber).compareTo(amount) < 0) {
+            balanceBucketManager.drain(accountNumber).ifPresent(drained -> {
+                accountJdbcRepository.addToBalances(Map.of(accountNumber, drained), now);
+                balances.merge(accountNumber, drained, BigDecimal::add);
+            });
+        }
+
+        if (balances.get(accountNumber).compareTo(amount) < 0) {
+            throw new InsufficientFundsException();
+        }
+    }
+
+    private void changeBalance(Map<UUID, BigDecimal> balances,
+                               Map<UUID, BigDecimal> balanceChanges,
+                               UUID accountNumber,
+                               BigDecimal amount) {
+        balances.merge(accountNumber, amount, BigDecimal::add);
+        balanceChanges.merge(accountNumber, amount, BigDecimal::add);
+    }
+
+    private Set<UUID> collectAccountNumbers(List<CreateTransactionDto> items) {
+        Set<UUID> accountNumbers = new LinkedHashSet<>();
+        for (CreateTransactionDto item : items) {
+            if (item.getFrom() != null) {
+                accountNumbers.add(item.getFrom());
+            }
+            if (item.getTo() != null) {
+                accountNumbers.add(item.getTo());
+            }
+        }
+        return accountNumbers;
+    }
+
+    private TransactionBatchDto rejectedBatch(BatchMode mode, int size, int failedIndex, String error) {
+        List<TransactionBatchItemDto> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            results.add(i == failedIndex
+                    ? new TransactionBatchItemDto(i, BatchItemStatus.FAILED, null, error)
+                    : new TransactionBatchItemDto(i, BatchItemStatus.ROLLED_BACK, null, null));
+        }
+        return new TransactionBatchDto(mode, 0, 1, results);
+    }
+}
@@ -0,0 +1,78 @@
+package ua.example.banking.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.model.dto.transaction.TransactionHistoryFilter;
+import ua.example.banking.model.enums.ExportFormat;
+import ua.example.banking.repository.jdbc.TransactionExportJdbcRepository;
+import ua.example.banking.service.TransactionExportService;
+import ua.example.banking.service.export.CsvTransactionExportWriter;
+import ua.example.banking.service.export.NdjsonTransactionExportWriter;
+import ua.example.banking.service.export.TransactionExportWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    private final TransactionExportJdbcRepository transactionExportJdbcRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public TransactionExportServiceImpl(TransactionExportJdbcRepository transactionExportJdbcRepository,
+                                        ObjectMapper objectMapper,
+                                        PlatformTransactionManager transactionManager) {
+        this.transactionExportJdbcRepository = transactionExportJdbcRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public StreamingResponseBody exportTransactions(ExportFormat format, UUID accountNumber, TransactionHistoryFilter filter) {
+        if (filter.getFromDate() != null && filter.getToDate() != null && !filter.getFromDate().isBefore(filter.getToDate())) {
+            throw new ValidationException("fromDate must be before toDate.");
+        }
+
+        return outputStream -> {
+            log.info("Exporting transactions as {} for account '{}'.", format, accountNumber);
+
+            TransactionExportWriter writer = createWriter(format, outputStream);
+            long[] exported = new long[1];
+
+            try {
+                readOnlyTransactionTemplate.executeWithoutResult(status ->
+                        transactionExportJdbcRepository.streamTransactions(accountNumber, filter, transaction -> {
+                            try {
+                                writer.write(transaction);
+                                exported[0]++;
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }));
+            } catch (UncheckedIOException e) {
+                log.error("Transaction export aborted after {} rows.", exported[0], e);
+                throw e.getCause();
+            }
+            writer.finish();
+
+            log.info("Exported {} transactions as {}.", exported[0], format);
+        };
+    }
+
+    private TransactionExportWriter createWriter(ExportFormat format, OutputStream outputStream) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonTransactionExportWriter(objectMapper, outputStream);
+            case CSV -> new CsvTransactionExportWriter(outputStream);
+        };
+    }
+}
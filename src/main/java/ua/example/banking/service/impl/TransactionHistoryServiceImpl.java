@@ -0,0 +1,85 @@
+package ua.example.banking.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ua.example.banking.advice.exception.DataNotFoundException;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.model.dto.CursorPageDto;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionHistoryFilter;
+import ua.example.banking.monitoring.BankingMetrics.AccountOperation;
+import ua.example.banking.monitoring.LogSampler;
+import ua.example.banking.repository.AccountRepository;
+import ua.example.banking.repository.jdbc.TransactionHistoryJdbcRepository;
+import ua.example.banking.service.TransactionHistoryService;
+import ua.example.banking.util.CursorUtils;
+import ua.example.banking.util.DateUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionHistoryServiceImpl implements TransactionHistoryService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final AccountRepository accountRepository;
+    private final TransactionHistoryJdbcRepository transactionHistoryJdbcRepository;
+    private final LogSampler logSampler;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<TransactionDto> getAccountTransactions(UUID accountNumber, TransactionHistoryFilter filter,
+                                                                String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and %d.".formatted(MAX_PAGE_SIZE));
+        }
+        if (filter.getFromDate() != null && filter.getToDate() != null && !filter.getFromDate().isBefore(filter.getToDate())) {
+            throw new ValidationException("fromDate must be before toDate.");
+        }
+
+        if (!accountRepository.existsByAccountNumber(accountNumber)) {
+            throw new DataNotFoundException("Account with account number: %s not found.".formatted(accountNumber));
+        }
+
+        Timestamp beforeCreateDateTime = null;
+        Long beforeId = null;
+        if (cursor != null) {
+            String[] position = CursorUtils.decode(cursor, 2);
+            try {
+                beforeId = Long.valueOf(position[0]);
+                beforeCreateDateTime = Timestamp.valueOf(LocalDateTime.parse(position[1]));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new ValidationException("Invalid cursor.");
+            }
+        }
+
+        List<TransactionDto> transactions = transactionHistoryJdbcRepository.findAccountHistory(
+                accountNumber, filter, beforeCreateDateTime, beforeId, size + 1);
+
+        String nextCursor = null;
+        if (transactions.size() > size) {
+            transactions = transactions.subList(0, size);
+            TransactionDto last = transactions.getLast();
+            nextCursor = CursorUtils.encode(last.getId().toString(),
+                    DateUtils.offsetDateTimeToTimestamp(last.getCreateDateTime()).toLocalDateTime().toString());
+        }
+
+        if (logSampler.sample(AccountOperation.HISTORY)) {
+            log.atInfo().setMessage("Account transactions retrieved.")
+                    .addKeyValue("accountNumber", accountNumber)
+                    .addKeyValue("cursor", cursor)
+                    .addKeyValue("size", transactions.size())
+                    .log();
+        }
+
+        return new CursorPageDto<>(transactions, nextCursor);
+    }
+}
@@ -2,40 +2,64 @@ package ua.example.banking.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ua.example.banking.advice.exception.DataNotFoundException;
-import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.advice.exception.InsufficientFundsException;
 import ua.example.banking.mappers.TransactionMapper;
 import ua.example.banking.model.dto.transaction.CreateTransactionDto;
 import ua.example.banking.model.dto.transaction.TransactionDto;
 import ua.example.banking.model.entity.Account;
 import ua.example.banking.model.entity.Transaction;
 import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.monitoring.LogSampler;
 import ua.example.banking.repository.AccountRepository;
 import ua.example.banking.repository.TransactionRepository;
 import ua.example.banking.service.TransactionService;
+import ua.example.banking.service.bucket.BalanceBucketManager;
+import ua.example.banking.service.cache.AccountCache;
+import ua.example.banking.service.lock.AccountLockManager;
+import ua.example.banking.service.retry.TransactionRetryPolicy;
 import ua.example.banking.util.DateUtils;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@ConditionalOnExpression("'${banking.transactions.mode:jpa}' != 'ledger'")
 public class TransactionServiceImpl implements TransactionService {
 
     private final TransactionMapper transactionMapper;
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final AccountLockManager accountLockManager;
+    private final AccountCache accountCache;
+    private final LogSampler logSampler;
+    private final BalanceBucketManager balanceBucketManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionRetryPolicy transactionRetryPolicy;
 
     @Override
-    @Transactional
     public TransactionDto createTransaction(CreateTransactionDto createTransactionDto) {
-        log.info("Creating transaction of type: '{}'.", createTransactionDto.getTransactionType());
+        return transactionRetryPolicy.execute(() -> transactionTemplate.execute(
+                status -> createTransactionInCurrentTransaction(createTransactionDto)));
+    }
 
+    /**
+     * Runs the transaction in the caller's database transaction without a transactional boundary of its own,
+     * so a failure is left to the caller to roll back rather than marking the whole transaction rollback-only.
+     */
+    public TransactionDto createTransactionInCurrentTransaction(CreateTransactionDto createTransactionDto) {
         Transaction transaction;
         switch (createTransactionDto.getTransactionType()) {
             case DEPOSIT -> transaction = depositFunds(createTransactionDto);
@@ -44,34 +68,47 @@ public class TransactionServiceImpl implements TransactionService {
             default -> throw new IllegalArgumentException("Invalid transaction type");
         }
 
-        log.info("Transaction of type: '{}' created successfully.",
-                transaction.getTransactionType());
-
         return transactionMapper.mapToDto(transaction);
     }
 
+    /**
+     * Locks in the caller's database transaction every account the transactions would lock, all at once and in the
+     * lock manager's order, so running them one after another does not take the locks in the order of the requests.
+     */
+    public void lockAccountsInCurrentTransaction(Collection<CreateTransactionDto> createTransactionDtos) {
+        Set<UUID> accountNumbers = new LinkedHashSet<>();
+        for (CreateTransactionDto createTransactionDto : createTransactionDtos) {
+            if (createTransactionDto.getFrom() != null) {
+                accountNumbers.add(createTransactionDto.getFrom());
+            }
+            UUID to = createTransactionDto.getTo();
+            if (to != null && !balanceBucketManager.isBucketed(to)) {
+                accountNumbers.add(to);
+            }
+        }
+        accountLockManager.lockAccounts(accountNumbers);
+    }
+
     private Transaction depositFunds(CreateTransactionDto createTransactionDto) {
         UUID to = createTransactionDto.getTo();
         BigDecimal amount = createTransactionDto.getAmount();
 
-        log.info("Initiating deposit of amount '{}' to account: '{}'.", amount, to);
-
-        Account toAccount = accountRepository.findByAccountNumber(to)
-                .orElseThrow(() -> new DataNotFoundException("Target account not found."));
-
         Timestamp now = DateUtils.nowTimestamp();
-        toAccount.setBalance(toAccount.getBalance().add(amount));
-        toAccount.setUpdateDateTime(now);
-        accountRepository.save(toAccount);
-
-        log.info("Deposit of amount '{}' to account '{}' completed successfully. Updated balance: '{}'.",
-                amount, to, toAccount.getBalance());
+        BigDecimal balance = creditBalance(to, amount, now);
+        accountCache.evict(List.of(to));
 
         Transaction transaction = transactionRepository.save(
                 new Transaction(to, null, amount, TransactionType.DEPOSIT, now)
         );
 
-        log.info("Transaction record for deposit created successfully. Transaction ID: '{}'.", transaction.getId());
+        if (logSampler.sample(TransactionType.DEPOSIT)) {
+            log.atInfo().setMessage("Deposit completed.")
+                    .addKeyValue("transactionId", transaction.getId())
+                    .addKeyValue("to", to)
+                    .addKeyValue("amount", amount)
+                    .addKeyValue("balance", balance)
+                    .log();
+        }
 
         return transaction;
     }
@@ -80,30 +117,37 @@ public class TransactionServiceImpl implements TransactionService {
         UUID from = createTransactionDto.getFrom();
         BigDecimal amount = createTransactionDto.getAmount();
 
-        log.info("Initiating withdrawal of amount '{}' from account: '{}'.", amount, from);
-
-        Account fromAccount = accountRepository.findByAccountNumber(from)
-                .orElseThrow(() -> new DataNotFoundException("Source account not found."));
-
-        if (fromAccount.getBalance().compareTo(amount) < 0) {
-            log.error("Insufficient funds for withdrawal from account '{}'. Available balance: '{}', requested: '{}'.",
-                    from, fromAccount.getBalance(), amount);
-            throw new ValidationException("Insufficient funds.");
+        Timestamp now = DateUtils.nowTimestamp();
+        Optional<BigDecimal> balance = accountRepository.debitBalance(from, amount, now);
+        if (balance.isEmpty() && balanceBucketManager.isBucketed(from)) {
+            balance = debitIncludingBuckets(from, amount, now);
         }
 
-        Timestamp now = DateUtils.nowTimestamp();
-        fromAccount.setBalance(fromAccount.getBalance().subtract(amount));
-        fromAccount.setUpdateDateTime(now);
-        accountRepository.save(fromAccount);
+        if (balance.isEmpty()) {
+            if (!accountRepository.existsByAccountNumber(from)) {
+                throw new DataNotFoundException("Source account not found.");
+            }
 
-        log.info("Withdrawal of amount '{}' from account '{}' completed successfully. Updated balance: '{}'.",
-                amount, from, fromAccount.getBalance());
+            log.atError().setMessage("Withdrawal rejected, insufficient funds.")
+                    .addKeyValue("from", from)
+                    .addKeyValue("amount", amount)
+                    .log();
+            throw new InsufficientFundsException();
+        }
+        accountCache.evict(List.of(from));
 
         Transaction transaction = transactionRepository.save(
                 new Transaction(null, from, amount, TransactionType.WITHDRAW, now)
         );
 
-        log.info("Transaction record for withdrawal created successfully. Transaction ID: '{}'.", transaction.getId());
+        if (logSampler.sample(TransactionType.WITHDRAW)) {
+            log.atInfo().setMessage("Withdrawal completed.")
+                    .addKeyValue("transactionId", transaction.getId())
+                    .addKeyValue("from", from)
+                    .addKeyValue("amount", amount)
+                    .addKeyValue("balance", balance.get())
+                    .log();
+        }
 
         return transaction;
     }
@@ -113,35 +157,83 @@ public class TransactionServiceImpl implements TransactionService {
         UUID from = createTransactionDto.getFrom();
         BigDecimal amount = createTransactionDto.getAmount();
 
-        log.info("Initiating transfer of amount '{}' from account '{}' to account '{}'.", amount, from, to);
+        // the target is not locked when the credit goes to one of its balance buckets
+        boolean bucketedTarget = balanceBucketManager.isBucketed(to);
+        Map<UUID, Account> accounts = accountLockManager.lockAccounts(bucketedTarget ? List.of(from) : List.of(from, to));
 
-        Account toAccount = accountRepository.findByAccountNumber(to)
+        Account toAccount = bucketedTarget ? null : Optional.ofNullable(accounts.get(to))
                 .orElseThrow(() -> new DataNotFoundException("Target account not found."));
-        Account fromAccount = accountRepository.findByAccountNumber(from)
+        Account fromAccount = Optional.ofNullable(accounts.get(from))
                 .orElseThrow(() -> new DataNotFoundException("Source account not found."));
 
         if (fromAccount.getBalance().compareTo(amount) < 0) {
-            log.error("Insufficient funds for transfer from account '{}'. Available balance: '{}', requested: '{}'.",
-                    from, fromAccount.getBalance(), amount);
-            throw new ValidationException("Insufficient funds.");
+            balanceBucketManager.drain(from)
+                    .ifPresent(drained -> fromAccount.setBalance(fromAccount.getBalance().add(drained)));
+        }
+
+        if (fromAccount.getBalance().compareTo(amount) < 0) {
+            log.atError().setMessage("Transfer rejected, insufficient funds.")
+                    .addKeyValue("from", from)
+                    .addKeyValue("to", to)
+                    .addKeyValue("amount", amount)
+                    .addKeyValue("balance", fromAccount.getBalance())
+                    .log();
+            throw new InsufficientFundsException();
         }
 
         Timestamp now = DateUtils.nowTimestamp();
-        toAccount.setBalance(toAccount.getBalance().add(amount));
-        toAccount.setUpdateDateTime(now);
         fromAccount.setBalance(fromAccount.getBalance().subtract(amount));
         fromAccount.setUpdateDateTime(now);
-        accountRepository.saveAll(List.of(toAccount, fromAccount));
-
-        log.info("Transfer of amount '{}' from account '{}' to account '{}' completed successfully. Updated balances - From: '{}', To: '{}'.",
-                amount, from, to, fromAccount.getBalance(), toAccount.getBalance());
+        BigDecimal toBalance;
+        if (toAccount != null) {
+            toAccount.setBalance(toAccount.getBalance().add(amount));
+            toAccount.setUpdateDateTime(now);
+            accountRepository.saveAll(List.of(toAccount, fromAccount));
+            toBalance = toAccount.getBalance();
+        } else {
+            toBalance = creditBalance(to, amount, now);
+            accountRepository.save(fromAccount);
+        }
+        accountCache.evict(List.of(to, from));
 
         Transaction transaction = transactionRepository.save(
                 new Transaction(to, from, amount, TransactionType.TRANSFER, now)
         );
 
-        log.info("Transaction record for transfer created successfully. Transaction ID: '{}'.", transaction.getId());
+        if (logSampler.sample(TransactionType.TRANSFER)) {
+            log.atInfo().setMessage("Transfer completed.")
+                    .addKeyValue("transactionId", transaction.getId())
+                    .addKeyValue("from", from)
+                    .addKeyValue("to", to)
+                    .addKeyValue("amount", amount)
+                    .addKeyValue("fromBalance", fromAccount.getBalance())
+                    .addKeyValue("toBalance", toBalance)
+                    .log();
+        }
 
         return transaction;
     }
+
+    /**
+     * Credits a random balance bucket of the account if it has buckets, otherwise the account row. Returns the new
+     * balance of the account row, or {@code null} for a bucket credit, as the balance is then only known after
+     * summing the buckets.
+     */
+    private BigDecimal creditBalance(UUID to, BigDecimal amount, Timestamp now) {
+        if (balanceBucketManager.credit(to, amount)) {
+            return null;
+        }
+        return accountRepository.creditBalance(to, amount, now)
+                .orElseThrow(() -> new DataNotFoundException("Target account not found."));
+    }
+
+    /**
+     * Retries a debit the account balance did not cover after moving the account's balance buckets into it.
+     */
+    private Optional<BigDecimal> debitIncludingBuckets(UUID from, BigDecimal amount, Timestamp now) {
+        accountLockManager.lockAccounts(List.of(from));
+        return balanceBucketManager.drain(from)
+                .flatMap(drained -> accountRepository.creditBalance(from, drained, now))
+                .flatMap(balance -> accountRepository.debitBalance(from, amount, now));
+    }
 }
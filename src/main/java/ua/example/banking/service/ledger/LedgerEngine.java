@@ -0,0 +1,355 @@
+package ua.example.banking.service.ledger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.example.banking.advice.exception.DataNotFoundException;
+import ua.example.banking.advice.exception.ServiceUnavailableException;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.config.properties.LedgerProperties;
+import ua.example.banking.model.Money;
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.entity.Transaction;
+import ua.example.banking.repository.jdbc.AccountJdbcRepository;
+import ua.example.banking.repository.jdbc.LedgerDeadLetterJdbcRepository;
+import ua.example.banking.repository.jdbc.TransactionJdbcRepository;
+import ua.example.banking.service.cache.AccountCache;
+import ua.example.banking.util.DateUtils;
+import ua.example.banking.validation.AccountNumberValidator;
+
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * In-memory ledger that owns account balances while {@code banking.transactions.mode} is {@code ledger}.
+ * <p>
+ * Accounts are partitioned by account number across shards, each updated by a single writer thread, so
+ * transactions are validated and applied without locks. A transfer between shards debits the source on its
+ * shard first and then credits the target on its shard; the target is checked up front so the credit cannot
+ * fail, and should it fail regardless the source is credited back. Applied transactions are persisted
+ * asynchronously, and balances are reloaded from the database on startup.
+ * <p>
+ * The ledger assumes it is the only writer of account balances, i.e. a single application instance.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "banking.transactions.mode", havingValue = "ledger")
+public class LedgerEngine implements SmartLifecycle {
+
+    private final LedgerProperties ledgerProperties;
+    private final AccountJdbcRepository accountJdbcRepository;
+    private final TransactionTemplate recoveryTransactionTemplate;
+    private final LedgerShard[] shards;
+    private final LedgerPersister persister;
+    private final LedgerIdAllocator idAllocator;
+    private volatile boolean running;
+
+    public LedgerEngine(LedgerProperties ledgerProperties,
+                        AccountJdbcRepository accountJdbcRepository,
+                        TransactionJdbcRepository transactionJdbcRepository,
+                        LedgerDeadLetterJdbcRepository ledgerDeadLetterJdbcRepository,
+                        PlatformTransactionManager transactionManager,
+                        AccountCache accountCache,
+                        MeterRegistry meterRegistry) {
+        this.ledgerProperties = ledgerProperties;
+        this.accountJdbcRepository = accountJdbcRepository;
+        // not read-only: read-only transactions may be routed to a replica, and recovery must read the primary
+        this.recoveryTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.idAllocator = new LedgerIdAllocator(transactionJdbcRepository);
+
+        DistributionSummary batchSize = DistributionSummary.builder("banking.ledger.persist.batch.size")
+                .description("Ledger entries written per database transaction")
+                .register(meterRegistry);
+        Counter deadLetters = Counter.builder("banking.ledger.persist.dead.letters")
+                .description("Ledger entries that could not be persisted and were moved to the dead-letter table")
+                .register(meterRegistry);
+        this.persister = new LedgerPersister(ledgerProperties.getPersistQueueCapacity(),
+                ledgerProperties.getPersistBatchSize(), ledgerProperties.getPersistRetryDelay(),
+                ledgerProperties.getPersistMaxAttempts(), accountJdbcRepository, transactionJdbcRepository,
+                ledgerDeadLetterJdbcRepository, new TransactionTemplate(transactionManager), accountCache,
+                batchSize::record, deadLetters::increment);
+        Gauge.builder("banking.ledger.persist.queue.size", persister, LedgerPersister::queueSize)
+                .description("Ledger entries waiting to be persisted")
+                .register(meterRegistry);
+        Gauge.builder("banking.ledger.persist.lag", persister, LedgerEngine::persistLagSeconds)
+                .description("Age of the oldest ledger entry not yet persisted")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        this.shards = new LedgerShard[ledgerProperties.getShards()];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new LedgerShard(i, ledgerProperties.getQueueCapacity(), ledgerProperties.getSubmitTimeout(),
+                    this::loadBalance);
+            Gauge.builder("banking.ledger.queue.size", shards[i], LedgerShard::queueSize)
+                    .description("Commands waiting for a ledger shard writer")
+                    .tag("shard", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Applies the transaction and returns it once acknowledged according to {@code banking.ledger.acknowledge}.
+     */
+    public Transaction execute(CreateTransactionDto createTransactionDto) {
+        if (!running) {
+            throw new ServiceUnavailableException("Ledger is not running.");
+        }
+
+        Money amount = Money.of(createTransactionDto.getAmount());
+        Transaction transaction = new Transaction(idAllocator.nextId(), createTransactionDto.getTo(),
+                createTransactionDto.getFrom(), amount.toBigDecimal(),
+                createTransactionDto.getTransactionType(), null);
+
+        LedgerEntry entry = switch (createTransactionDto.getTransactionType()) {
+            case DEPOSIT -> deposit(transaction, amount);
+            case WITHDRAW -> withdraw(transaction, amount);
+            case TRANSFER -> transfer(transaction, amount);
+        };
+
+        if (ledgerProperties.getAcknowledge() == LedgerProperties.Acknowledge.PERSISTED) {
+            awaitPersisted(entry);
+        }
+        return transaction;
+    }
+
+    /**
+     * Creation time of the oldest applied transaction that is not committed to the database yet, if any.
+     */
+    public Optional<Timestamp> oldestUnpersisted() {
+        return persister.oldestUnpersisted();
+    }
+
+    public int persistBacklog() {
+        return persister.queueSize();
+    }
+
+    public int persistCapacity() {
+        return persister.capacity();
+    }
+
+    /**
+     * Whether the last attempt to persist applied transactions failed.
+     */
+    public boolean isPersistFailing() {
+        return persister.isFailing();
+    }
+
+    private LedgerEntry deposit(Transaction transaction, Money amount) {
+        UUID to = requireAccountNumber(transaction.getAccountNumberTo(), "Target account not found.");
+        LedgerShard shard = shardOf(to);
+
+        return await(shard.submit(() -> {
+            shard.credit(to, amount.minorUnits(), "Target account not found.");
+            return record(transaction, Map.of(to, amount));
+        }));
+    }
+
+    private LedgerEntry withdraw(Transaction transaction, Money amount) {
+        UUID from = requireAccountNumber(transaction.getAccountNumberFrom(), "Source account not found.");
+        LedgerShard shard = shardOf(from);
+
+        return await(shard.submit(() -> {
+            shard.debit(from, amount.minorUnits(), "Source account not found.");
+            return record(transaction, Map.of(from, amount.negate()));
+        }));
+    }
+
+    private LedgerEntry transfer(Transaction transaction, Money amount) {
+        UUID to = requireAccountNumber(transaction.getAccountNumberTo(), "Target account not found.");
+        UUID from = requireAccountNumber(transaction.getAccountNumberFrom(), "Source account not found.");
+        if (to.equals(from)) {
+            throw new ValidationException(AccountNumberValidator.MUST_BE_DIFFERENT_MESSAGE);
+        }
+
+        LedgerShard source = shardOf(from);
+        LedgerShard target = shardOf(to);
+        long minorUnits = amount.minorUnits();
+        Map<UUID, Money> balanceChanges = Map.of(from, amount.negate(), to, amount);
+
+        if (source == target) {
+            return await(source.submit(() -> {
+                source.requireAccount(to, "Target account not found.");
+                source.debit(from, minorUnits, "Source account not found.");
+                try {
+                    source.credit(to, minorUnits, "Target account not found.");
+                } catch (RuntimeException e) {
+                    source.refund(from, minorUnits);
+                    throw e;
+                }
+                return record(transaction, balanceChanges);
+            }));
+        }
+
+        await(target.submit(() -> {
+            target.requireAccount(to, "Target account not found.");
+            return null;
+        }));
+        await(source.submit(() -> source.debit(from, minorUnits, "Source account not found.")));
+
+        // the debit is applied, so the credit must run even when the target shard is busy; if it fails anyway
+        // the source is refunded off the writer threads, which never block on each other's queues
+        CompletableFuture<LedgerEntry> credit = target.submitRequired(() -> {
+            target.credit(to, minorUnits, "Target account not found.");
+            return record(transaction, balanceChanges);
+        });
+        credit.whenCompleteAsync((entry, failure) -> {
+            if (failure != null) {
+                log.warn("Crediting transfer {} failed, refunding account '{}'.", transaction.getId(), from);
+                source.submitRequired(() -> source.refund(from, minorUnits));
+            }
+        });
+        return await(credit);
+    }
+
+    /**
+     * Runs on the writer thread right after the balances changed, so entries reach the persister in the order
+     * they were applied to each account.
+     */
+    private LedgerEntry record(Transaction transaction, Map<UUID, Money> balanceChanges) {
+        transaction.setCreateDateTime(DateUtils.nowTimestamp());
+        LedgerEntry entry = new LedgerEntry(transaction, balanceChanges);
+        persister.enqueue(entry);
+        return entry;
+    }
+
+    private Long loadBalance(UUID accountNumber) {
+        return accountJdbcRepository.findBalance(accountNumber).map(balance -> Money.of(balance).minorUnits()).orElse(null);
+    }
+
+    private static UUID requireAccountNumber(UUID accountNumber, String notFoundMessage) {
+        if (accountNumber == null) {
+            throw new DataNotFoundException(notFoundMessage);
+        }
+        return accountNumber;
+    }
+
+    private LedgerShard shardOf(UUID accountNumber) {
+        return shards[Math.floorMod(accountNumber.hashCode(), shards.length)];
+    }
+
+    /**
+     * Waits for a shard command. A command still queued when the wait times out is withdrawn and reported as
+     * unavailable; one the writer has started, or one that must run, is waited for, so a transaction that moved
+     * money is never reported as failed.
+     */
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(ledgerProperties.getAcknowledgeTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (TimeoutException e) {
+            if (future instanceof LedgerShard.Command<T> command && command.withdraw()) {
+                throw new ServiceUnavailableException("Ledger did not confirm the transaction in time.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (future instanceof LedgerShard.Command<T> command && command.withdraw()) {
+                throw new ServiceUnavailableException("Interrupted while waiting for the ledger.");
+            }
+        }
+
+        log.warn("Ledger command already started did not complete within {}, waiting for it.",
+                ledgerProperties.getAcknowledgeTimeout());
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * Waits for the transaction to be committed to the database. It is applied already, so it is returned even when
+     * persisting takes longer than the timeout or ends in the dead-letter table.
+     */
+    private void awaitPersisted(LedgerEntry entry) {
+        Long transactionId = entry.getTransaction().getId();
+        try {
+            entry.getPersisted().get(ledgerProperties.getAcknowledgeTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Transaction {} is applied but not persisted within {}, acknowledging it as applied.",
+                    transactionId, ledgerProperties.getAcknowledgeTimeout());
+        } catch (ExecutionException e) {
+            log.error("Transaction {} is applied but could not be persisted, see the dead-letter table.", transactionId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for transaction {} to be persisted, acknowledging it as applied.",
+                    transactionId);
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable failure) {
+        if (failure instanceof RuntimeException cause) {
+            return cause;
+        }
+        return new IllegalStateException(failure);
+    }
+
+    private static double persistLagSeconds(LedgerPersister persister) {
+        return persister.oldestUnpersisted()
+                .map(oldest -> Math.max(0, DateUtils.nowTimestamp().getTime() - oldest.getTime()) / 1000.0)
+                .orElse(0.0);
+    }
+
+    @Override
+    public void start() {
+        long started = System.nanoTime();
+        int[] accounts = new int[1];
+        recoveryTransactionTemplate.executeWithoutResult(status ->
+                accountJdbcRepository.forEachBalance(ledgerProperties.getRecoveryFetchSize(), (accountNumber, balance) -> {
+                    shardOf(accountNumber).preload(accountNumber, Money.of(balance).minorUnits());
+                    accounts[0]++;
+                }));
+
+        persister.start();
+        for (LedgerShard shard : shards) {
+            shard.start();
+        }
+        running = true;
+
+        log.info("Ledger started with {} shards, {} account balances loaded in {} ms.", shards.length, accounts[0],
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            for (LedgerShard shard : shards) {
+                shard.stop();
+            }
+            persister.stop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while stopping the ledger, {} entries may be unpersisted.", persister.queueSize());
+            return;
+        }
+        log.info("Ledger stopped.");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so no request reaches a stopped ledger.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 4096;
+    }
+}
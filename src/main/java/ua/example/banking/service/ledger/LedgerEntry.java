@@ -0,0 +1,25 @@
+package ua.example.banking.service.ledger;
+
+import lombok.Getter;
+import ua.example.banking.model.Money;
+import ua.example.banking.model.entity.Transaction;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A transaction applied in memory together with the balance changes it made, waiting to be persisted.
+ */
+@Getter
+public class LedgerEntry {
+
+    private final Transaction transaction;
+    private final Map<UUID, Money> balanceChanges;
+    private final CompletableFuture<Void> persisted = new CompletableFuture<>();
+
+    LedgerEntry(Transaction transaction, Map<UUID, Money> balanceChanges) {
+        this.transaction = transaction;
+        this.balanceChanges = balanceChanges;
+    }
+}
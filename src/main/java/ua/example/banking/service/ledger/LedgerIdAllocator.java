@@ -0,0 +1,35 @@
+package ua.example.banking.service.ledger;
+
+import lombok.RequiredArgsConstructor;
+import ua.example.banking.model.entity.Transaction;
+import ua.example.banking.repository.jdbc.TransactionJdbcRepository;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out transaction ids from blocks reserved on the pooled transaction sequence, so the ledger can return
+ * the id of a transaction before it is persisted.
+ */
+@RequiredArgsConstructor
+class LedgerIdAllocator {
+
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long next;
+    private long blockEnd = -1;
+
+    long nextId() {
+        lock.lock();
+        try {
+            if (next > blockEnd) {
+                List<Long> ids = transactionJdbcRepository.allocateIds(Transaction.ID_ALLOCATION_SIZE);
+                next = ids.getFirst();
+                blockEnd = ids.getLast();
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
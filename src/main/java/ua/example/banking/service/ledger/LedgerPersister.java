@@ -0,0 +1,273 @@
+package ua.example.banking.service.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.example.banking.model.Money;
+import ua.example.banking.model.entity.Transaction;
+import ua.example.banking.repository.jdbc.AccountJdbcRepository;
+import ua.example.banking.repository.jdbc.LedgerDeadLetterJdbcRepository;
+import ua.example.banking.repository.jdbc.TransactionJdbcRepository;
+import ua.example.banking.service.cache.AccountCache;
+import ua.example.banking.util.DateUtils;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Writes applied ledger entries to the account and transaction tables in batches. Balance changes of a batch are
+ * summed per account, so a busy account costs one update per batch rather than one per transaction.
+ * <p>
+ * A batch failing because the database is unavailable is retried until it commits, while the bounded queue pushes
+ * back on the shard writers. A batch failing on its data is retried {@code maxAttempts} times and then persisted
+ * entry by entry, so the entries that keep failing are moved to the dead-letter table (or, failing that, only
+ * logged) instead of stalling the ledger.
+ */
+@Slf4j
+class LedgerPersister {
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final BlockingQueue<LedgerEntry> entries;
+    private final int batchSize;
+    private final Duration retryDelay;
+    private final int maxAttempts;
+    private final AccountJdbcRepository accountJdbcRepository;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final LedgerDeadLetterJdbcRepository ledgerDeadLetterJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountCache accountCache;
+    private final IntConsumer batchSizeRecorder;
+    private final Runnable deadLetterRecorder;
+    private final Thread worker;
+    private volatile boolean stopping;
+    private volatile boolean failing;
+    private volatile List<LedgerEntry> persisting = List.of();
+
+    LedgerPersister(int capacity,
+                    int batchSize,
+                    Duration retryDelay,
+                    int maxAttempts,
+                    AccountJdbcRepository accountJdbcRepository,
+                    TransactionJdbcRepository transactionJdbcRepository,
+                    LedgerDeadLetterJdbcRepository ledgerDeadLetterJdbcRepository,
+                    TransactionTemplate transactionTemplate,
+                    AccountCache accountCache,
+                    IntConsumer batchSizeRecorder,
+                    Runnable deadLetterRecorder) {
+        this.entries = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.accountJdbcRepository = accountJdbcRepository;
+        this.transactionJdbcRepository = transactionJdbcRepository;
+        this.ledgerDeadLetterJdbcRepository = ledgerDeadLetterJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.accountCache = accountCache;
+        this.batchSizeRecorder = batchSizeRecorder;
+        this.deadLetterRecorder = deadLetterRecorder;
+        this.worker = Thread.ofPlatform().name("ledger-persister").daemon().unstarted(this::run);
+    }
+
+    /**
+     * Called by shard writers; blocks while the queue is full.
+     */
+    void enqueue(LedgerEntry entry) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                entries.put(entry);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    int queueSize() {
+        return entries.size();
+    }
+
+    int capacity() {
+        return entries.size() + entries.remainingCapacity();
+    }
+
+    /**
+     * Whether the last attempt to persist a batch failed.
+     */
+    boolean isFailing() {
+        return failing;
+    }
+
+    /**
+     * Creation time of the oldest entry that is applied but not yet committed to the database, if any. Entries
+     * reach the queue right after they are stamped, so the head of the queue is the oldest one waiting.
+     */
+    Optional<Timestamp> oldestUnpersisted() {
+        Optional<Timestamp> oldestPersisting = persisting.stream()
+                .filter(entry -> !entry.getPersisted().isDone())
+                .map(entry -> entry.getTransaction().getCreateDateTime())
+                .min(Comparator.naturalOrder());
+        if (oldestPersisting.isPresent()) {
+            return oldestPersisting;
+        }
+        return Optional.ofNullable(entries.peek()).map(entry -> entry.getTransaction().getCreateDateTime());
+    }
+
+    void start() {
+        worker.start();
+    }
+
+    /**
+     * Persists everything queued so far and stops the worker. Entries that still fail to persist once stopping
+     * has begun are moved to the dead-letter table after a single attempt.
+     */
+    void stop() throws InterruptedException {
+        stopping = true;
+        worker.join();
+    }
+
+    private void run() {
+        List<LedgerEntry> batch = new ArrayList<>(batchSize);
+        while (true) {
+            LedgerEntry first;
+            try {
+                first = entries.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                log.warn("Ledger persister interrupted, {} entries left unpersisted.", entries.size());
+                return;
+            }
+
+            if (first == null) {
+                if (stopping) {
+                    return;
+                }
+                continue;
+            }
+
+            batch.add(first);
+            entries.drainTo(batch, batchSize - 1);
+            persistWithRetry(batch);
+            batch.clear();
+        }
+    }
+
+    private void persistWithRetry(List<LedgerEntry> batch) {
+        persisting = List.copyOf(batch);
+        try {
+            persistWithRetry(batch, true);
+        } finally {
+            persisting = List.of();
+        }
+    }
+
+    private void persistWithRetry(List<LedgerEntry> batch, boolean splitOnFailure) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                persist(batch);
+                failing = false;
+                batch.forEach(entry -> entry.getPersisted().complete(null));
+                return;
+            } catch (RuntimeException e) {
+                failing = true;
+                if (stopping) {
+                    log.error("Failed to persist {} ledger entries during shutdown, giving up.", batch.size(), e);
+                    batch.forEach(entry -> deadLetter(entry, e));
+                    return;
+                }
+                if (!isUnavailable(e) && attempt >= maxAttempts) {
+                    if (splitOnFailure && batch.size() > 1) {
+                        log.error("Failed to persist {} ledger entries {} times, persisting them one by one.",
+                                batch.size(), attempt, e);
+                        batch.forEach(entry -> persistWithRetry(List.of(entry), false));
+                    } else {
+                        failing = false;
+                        batch.forEach(entry -> deadLetter(entry, e));
+                    }
+                    return;
+                }
+                log.error("Failed to persist {} ledger entries, retrying in {}.", batch.size(), retryDelay, e);
+            }
+
+            try {
+                Thread.sleep(retryDelay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Records an entry that cannot be persisted where it can be repaired from. The entry stays applied in memory, so
+     * its caller is told the transaction went through.
+     */
+    private void deadLetter(LedgerEntry entry, RuntimeException failure) {
+        Transaction transaction = entry.getTransaction();
+        deadLetterRecorder.run();
+        log.atError().setMessage("Ledger entry could not be persisted, moving it to the dead-letter table.")
+                .addKeyValue("transactionId", transaction.getId())
+                .addKeyValue("type", transaction.getTransactionType())
+                .addKeyValue("from", transaction.getAccountNumberFrom())
+                .addKeyValue("to", transaction.getAccountNumberTo())
+                .addKeyValue("amount", transaction.getAmount())
+                .addKeyValue("createDateTime", transaction.getCreateDateTime())
+                .setCause(failure)
+                .log();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    ledgerDeadLetterJdbcRepository.insert(transaction, failure.toString(), DateUtils.nowTimestamp()));
+        } catch (RuntimeException e) {
+            log.error("Failed to write ledger entry {} to the dead-letter table, it is only logged.",
+                    transaction.getId(), e);
+        }
+        entry.getPersisted().completeExceptionally(failure);
+    }
+
+    /**
+     * Failures of the database rather than of the entries, which a later attempt can get past.
+     */
+    private static boolean isUnavailable(RuntimeException failure) {
+        return failure instanceof TransientDataAccessException
+                || failure instanceof RecoverableDataAccessException
+                || failure instanceof DataAccessResourceFailureException
+                || failure instanceof CannotCreateTransactionException;
+    }
+
+    private void persist(List<LedgerEntry> batch) {
+        Map<UUID, Money> netChanges = new LinkedHashMap<>();
+        List<Transaction> transactions = new ArrayList<>(batch.size());
+        for (LedgerEntry entry : batch) {
+            entry.getBalanceChanges().forEach((accountNumber, amount) -> netChanges.merge(accountNumber, amount, Money::plus));
+            transactions.add(entry.getTransaction());
+        }
+        Map<UUID, BigDecimal> balanceChanges = new LinkedHashMap<>(netChanges.size() * 2);
+        netChanges.forEach((accountNumber, amount) -> balanceChanges.put(accountNumber, amount.toBigDecimal()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            accountJdbcRepository.addToBalances(balanceChanges, DateUtils.nowTimestamp());
+            transactionJdbcRepository.insertAllWithIds(transactions);
+            accountCache.evict(balanceChanges.keySet());
+        });
+
+        batchSizeRecorder.accept(batch.size());
+    }
+}
@@ -0,0 +1,198 @@
+package ua.example.banking.service.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+import ua.example.banking.advice.exception.DataNotFoundException;
+import ua.example.banking.advice.exception.InsufficientFundsException;
+import ua.example.banking.advice.exception.ServiceUnavailableException;
+import ua.example.banking.advice.exception.ValidationException;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Owns the balances of a subset of accounts. Commands are queued and executed one at a time by the shard's
+ * writer thread, so balances are only ever read and written by that thread and need no locking.
+ */
+@Slf4j
+class LedgerShard {
+
+    /**
+     * Largest balance, in cents, the {@code decimal(15, 2)} balance column can hold.
+     */
+    static final long MAX_BALANCE = 999_999_999_999_999L;
+
+    private static final Runnable STOP = () -> {
+    };
+
+    private final int index;
+    private final BlockingQueue<Runnable> commands;
+    private final Duration submitTimeout;
+    private final Function<UUID, Long> balanceLoader;
+    private final Map<UUID, long[]> balances = new HashMap<>();
+    private final Thread writer;
+
+    LedgerShard(int index, int queueCapacity, Duration submitTimeout, Function<UUID, Long> balanceLoader) {
+        this.index = index;
+        this.commands = new ArrayBlockingQueue<>(queueCapacity);
+        this.submitTimeout = submitTimeout;
+        this.balanceLoader = balanceLoader;
+        this.writer = Thread.ofPlatform().name("ledger-shard-" + index).daemon().unstarted(this::run);
+    }
+
+    /**
+     * Queues a command that may be rejected when the shard is overloaded.
+     */
+    <T> Command<T> submit(Supplier<T> command) {
+        Command<T> result = new Command<>(command, false);
+        try {
+            if (!commands.offer(result::run, submitTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ServiceUnavailableException("Ledger is overloaded, please retry.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while submitting to the ledger.");
+        }
+        return result;
+    }
+
+    /**
+     * Queues a command that must run, such as the second leg of a cross-shard transfer, waiting for queue space.
+     */
+    <T> Command<T> submitRequired(Supplier<T> command) {
+        Command<T> result = new Command<>(command, true);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                commands.put(result::run);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    void preload(UUID accountNumber, long balance) {
+        balances.put(accountNumber, new long[]{balance});
+    }
+
+    long credit(UUID accountNumber, long amount, String notFoundMessage) {
+        long[] balance = requireAccount(accountNumber, notFoundMessage);
+        if (balance[0] > MAX_BALANCE - amount) {
+            throw new ValidationException("Balance limit exceeded.");
+        }
+        balance[0] += amount;
+        return balance[0];
+    }
+
+    /**
+     * Returns a debited amount of a transfer whose credit failed; the account is known to be loaded.
+     */
+    long refund(UUID accountNumber, long amount) {
+        long[] balance = balances.get(accountNumber);
+        balance[0] += amount;
+        return balance[0];
+    }
+
+    long debit(UUID accountNumber, long amount, String notFoundMessage) {
+        long[] balance = requireAccount(accountNumber, notFoundMessage);
+        if (balance[0] < amount) {
+            throw new InsufficientFundsException();
+        }
+        balance[0] -= amount;
+        return balance[0];
+    }
+
+    long[] requireAccount(UUID accountNumber, String notFoundMessage) {
+        long[] balance = balances.get(accountNumber);
+        if (balance == null) {
+            Long loaded = balanceLoader.apply(accountNumber);
+            if (loaded == null) {
+                throw new DataNotFoundException(notFoundMessage);
+            }
+            balance = new long[]{loaded};
+            balances.put(accountNumber, balance);
+        }
+        return balance;
+    }
+
+    int queueSize() {
+        return commands.size();
+    }
+
+    int accounts() {
+        return balances.size();
+    }
+
+    void start() {
+        writer.start();
+    }
+
+    void stop() throws InterruptedException {
+        commands.put(STOP);
+        writer.join();
+    }
+
+    private void run() {
+        while (true) {
+            Runnable command;
+            try {
+                command = commands.take();
+            } catch (InterruptedException e) {
+                log.warn("Ledger shard {} writer interrupted, stopping.", index);
+                return;
+            }
+
+            if (command == STOP) {
+                return;
+            }
+            command.run();
+        }
+    }
+
+    /**
+     * Result of a queued command. A caller that stops waiting can withdraw a command the writer has not started
+     * yet, so a transaction reported as failed is never applied afterwards.
+     */
+    static final class Command<T> extends CompletableFuture<T> {
+
+        private final Supplier<T> command;
+        private final boolean required;
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        private Command(Supplier<T> command, boolean required) {
+            this.command = command;
+            this.required = required;
+        }
+
+        /**
+         * Returns {@code false} when the command is required or already started, so its outcome has to be awaited.
+         */
+        boolean withdraw() {
+            return !required && started.compareAndSet(false, true);
+        }
+
+        private void run() {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                complete(command.get());
+            } catch (RuntimeException e) {
+                completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package ua.example.banking.service.lock;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.example.banking.advice.exception.ConcurrentOperationException;
+import ua.example.banking.config.properties.AccountLockProperties;
+import ua.example.banking.model.entity.Account;
+import ua.example.banking.repository.AccountRepository;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes balance mutations of the same accounts. Stripes of the in-JVM lock table are always taken
+ * in ascending stripe order and the database rows in ascending account number order, so two operations
+ * over the same accounts can never wait on each other in a cycle. Locks are released when the surrounding
+ * transaction completes. {@link #lockAccountsForUpdate} takes only the rows.
+ * <p>
+ * In {@code optimistic} mode {@link #lockAccounts} takes no locks: the accounts are only loaded, and a concurrent
+ * change is detected by their version when the transaction writes them, which then fails with an optimistic locking
+ * exception.
+ */
+@Slf4j
+@Component
+public class AccountLockManager {
+
+    private final AccountRepository accountRepository;
+    private final boolean optimistic;
+    private final Stripe[] stripes;
+    private final long timeoutNanos;
+    private final Timer waitTimer;
+
+    public AccountLockManager(AccountRepository accountRepository,
+                              AccountLockProperties accountLockProperties,
+                              MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.optimistic = accountLockProperties.getMode() == AccountLockProperties.Mode.OPTIMISTIC;
+        this.stripes = new Stripe[stripeCount(accountLockProperties.getStripes())];
+        this.timeoutNanos = accountLockProperties.getTimeout().toNanos();
+        this.waitTimer = Timer.builder("banking.account.lock.wait")
+                .description("Time spent waiting for account lock stripes")
+                .register(meterRegistry);
+
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+            registerStripeMetrics(meterRegistry, i, stripes[i]);
+        }
+    }
+
+    public Map<UUID, Account> lockAccounts(Collection<UUID> accountNumbers) {
+        if (optimistic) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                throw new IllegalStateException("Account locks can only be acquired within a transaction.");
+            }
+            return toMap(accountRepository.findAllByAccountNumberInOrderByAccountNumber(accountNumbers));
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Account locks can only be acquired within a transaction.");
+        }
+
+        int[] stripeIndexes = accountNumbers.stream()
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        for (int i = 0; i < stripeIndexes.length; i++) {
+            try {
+                stripes[stripeIndexes[i]].acquire();
+            } catch (RuntimeException e) {
+                release(stripeIndexes, i);
+                throw e;
+            }
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(stripeIndexes, stripeIndexes.length);
+            }
+        });
+
+        return toMap(accountRepository.findAllForUpdate(accountNumbers));
+    }
+
+    /**
+     * Locks only the account rows, in every mode, for writers that check funds against the loaded balances and then
+     * update them without comparing versions, such as batches. Such writers span many accounts, and taking a stripe
+     * for each would hold most of the stripes and queue every other operation behind them.
+     */
+    public Map<UUID, Account> lockAccountsForUpdate(Collection<UUID> accountNumbers) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Account locks can only be acquired within a transaction.");
+        }
+        return toMap(accountRepository.findAllForUpdate(accountNumbers));
+    }
+
+    int stripeIndex(UUID accountNumber) {
+        int hash = accountNumber.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    boolean isLocked(UUID accountNumber) {
+        return stripes[stripeIndex(accountNumber)].lock.isLocked();
+    }
+
+    private static Map<UUID, Account> toMap(List<Account> accountList) {
+        Map<UUID, Account> accounts = new LinkedHashMap<>();
+        for (Account account : accountList) {
+            accounts.put(account.getAccountNumber(), account);
+        }
+        return accounts;
+    }
+
+    private void release(int[] stripeIndexes, int acquired) {
+        for (int i = acquired - 1; i >= 0; i--) {
+            stripes[stripeIndexes[i]].lock.unlock();
+        }
+    }
+
+    private void registerStripeMetrics(MeterRegistry meterRegistry, int index, Stripe stripe) {
+        String tag = String.valueOf(index);
+
+        FunctionCounter.builder("banking.account.lock.acquisitions", stripe.acquisitions, LongAdder::sum)
+                .description("Account lock stripe acquisitions")
+                .tag("stripe", tag)
+                .register(meterRegistry);
+        FunctionCounter.builder("banking.account.lock.contentions", stripe.contentions, LongAdder::sum)
+                .description("Account lock stripe acquisitions that had to wait for another holder")
+                .tag("stripe", tag)
+                .register(meterRegistry);
+        FunctionCounter.builder("banking.account.lock.wait.time", stripe.waitNanos, nanos -> nanos.sum() / 1e9)
+                .description("Total time spent waiting for the account lock stripe")
+                .baseUnit("seconds")
+                .tag("stripe", tag)
+                .register(meterRegistry);
+    }
+
+    private static int stripeCount(int requested) {
+        int count = 1;
+        while (count < requested) {
+            count <<= 1;
+        }
+        return count;
+    }
+
+    private final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder contentions = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+
+        private void acquire() {
+            acquisitions.increment();
+
+            if (lock.tryLock()) {
+                waitTimer.record(0, TimeUnit.NANOSECONDS);
+                return;
+            }
+
+            contentions.increment();
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+
+            long waited = System.nanoTime() - start;
+            waitNanos.add(waited);
+            waitTimer.record(waited, TimeUnit.NANOSECONDS);
+
+            if (!acquired) {
+                log.warn("Timed out after {} ms waiting for account lock.", TimeUnit.NANOSECONDS.toMillis(waited));
+                throw new ConcurrentOperationException("Account is busy with another operation, please retry.");
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ua.example.banking.service.partition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.example.banking.config.properties.TransactionPartitionProperties;
+import ua.example.banking.repository.jdbc.BalanceCheckpointJdbcRepository;
+import ua.example.banking.repository.jdbc.TransactionPartitionJdbcRepository;
+import ua.example.banking.util.DateUtils;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+/**
+ * Keeps monthly {@code transaction} partitions created ahead of time and archives the ones past retention.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionPartitionManager {
+
+    private final TransactionPartitionJdbcRepository transactionPartitionJdbcRepository;
+    private final BalanceCheckpointJdbcRepository balanceCheckpointJdbcRepository;
+    private final TransactionPartitionProperties transactionPartitionProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Archive boundary as last read, or {@code null} before it is first loaded.
+     */
+    private volatile ArchiveBoundary archiveBoundary;
+
+    @Scheduled(fixedDelayString = "${banking.transaction-partitions.maintenance-interval:PT1H}")
+    public void maintainPartitions() {
+        OffsetDateTime now = DateUtils.nowUTC();
+        YearMonth currentMonth = YearMonth.from(now);
+
+        for (int i = 0; i <= transactionPartitionProperties.getPrecreateMonths(); i++) {
+            transactionPartitionJdbcRepository.createPartition(currentMonth.plusMonths(i));
+        }
+
+        if (transactionPartitionProperties.getRetention() != null) {
+            YearMonth oldestRetainedMonth = YearMonth.from(now.minus(transactionPartitionProperties.getRetention()));
+            transactionPartitionJdbcRepository.findAttachedPartitions().stream()
+                    .filter(month -> month.isBefore(oldestRetainedMonth))
+                    .forEach(this::archivePartition);
+        }
+    }
+
+    /**
+     * Start of the oldest transaction still in the {@code transaction} table, if older ones were archived.
+     */
+    public Optional<OffsetDateTime> getArchivedBefore() {
+        ArchiveBoundary boundary = archiveBoundary;
+        if (boundary == null || boundary.isOlderThan(transactionPartitionProperties.getArchiveBoundaryTtl())) {
+            boundary = new ArchiveBoundary(transactionPartitionJdbcRepository.findLatestArchivedPartition()
+                    .map(archived -> archived.plusMonths(1))
+                    .orElse(null), System.nanoTime());
+            archiveBoundary = boundary;
+        }
+        return Optional.ofNullable(boundary.archivedUntil()).map(TransactionPartitionManager::startOf);
+    }
+
+    /**
+     * Checkpoints every account that had transactions up to the end of the partition first, so balances can still
+     * be rebuilt without it.
+     */
+    private void archivePartition(YearMonth month) {
+        YearMonth end = month.plusMonths(1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            int checkpoints = balanceCheckpointJdbcRepository.createCheckpoints(
+                    DateUtils.offsetDateTimeToTimestamp(startOf(end)), 1);
+            transactionPartitionJdbcRepository.archivePartition(month);
+
+            log.info("Archived transactions of {} after creating {} balance checkpoints.", month, checkpoints);
+        });
+
+        archiveBoundary = new ArchiveBoundary(end, System.nanoTime());
+    }
+
+    private static OffsetDateTime startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * @param archivedUntil first month whose transactions are still in the {@code transaction} table, or
+     *                      {@code null} when nothing was archived
+     */
+    private record ArchiveBoundary(YearMonth archivedUntil, long loadedAtNanos) {
+
+        boolean isOlderThan(Duration ttl) {
+            return System.nanoTime() - loadedAtNanos >= ttl.toNanos();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package ua.example.banking.service.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.example.banking.advice.exception.ServiceUnavailableException;
+import ua.example.banking.advice.exception.TransactionConflictException;
+import ua.example.banking.config.properties.TransactionRetryProperties;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Reruns a transaction that was rolled back because an account changed concurrently: an optimistic version
+ * check failed, or the database reported a lock conflict or deadlock. Attempts are spaced by exponential backoff
+ * with full jitter, so transactions conflicting with each other do not retry in lockstep.
+ * <p>
+ * Retries are paid from a budget that every first attempt adds {@code budgetRatio} to, which caps the extra load
+ * retries put on the database when most transactions conflict. Once attempts or budget are used up the conflict is
+ * reported as {@link TransactionConflictException}. A caller that already runs in a transaction is not retried, as
+ * only the caller can roll it back.
+ */
+@Slf4j
+@Component
+public class TransactionRetryPolicy {
+
+    private static final long TOKEN = 1000;
+
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final long depositPerAttempt;
+    private final long budgetCapacity;
+    private final AtomicLong budget;
+    private final Counter retried;
+    private final Counter exhausted;
+    private final DistributionSummary attempts;
+
+    public TransactionRetryPolicy(TransactionRetryProperties transactionRetryProperties, MeterRegistry meterRegistry) {
+        this.maxAttempts = Math.max(1, transactionRetryProperties.getMaxAttempts());
+        this.initialBackoffNanos = transactionRetryProperties.getInitialBackoff().toNanos();
+        this.maxBackoffNanos = transactionRetryProperties.getMaxBackoff().toNanos();
+        this.depositPerAttempt = Math.round(transactionRetryProperties.getBudgetRatio() * TOKEN);
+        this.budgetCapacity = transactionRetryProperties.getBudgetCapacity() * TOKEN;
+        this.budget = new AtomicLong(budgetCapacity);
+
+        this.retried = conflicts(meterRegistry, "retried");
+        this.exhausted = conflicts(meterRegistry, "exhausted");
+        this.attempts = DistributionSummary.builder("banking.transaction.attempts")
+                .description("Attempts needed by a transaction that committed")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> transaction) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transaction.get();
+        }
+
+        deposit();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = transaction.get();
+                attempts.record(attempt);
+                return result;
+            } catch (ConcurrencyFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts || !withdraw()) {
+                    exhausted.increment();
+                    log.atWarn().setMessage("Transaction conflict not resolved by retries.")
+                            .addKeyValue("attempts", attempt)
+                            .addKeyValue("cause", e.toString())
+                            .log();
+                    throw new TransactionConflictException();
+                }
+                retried.increment();
+                backOff(attempt);
+            }
+        }
+    }
+
+    long remainingBudget() {
+        return budget.get() / TOKEN;
+    }
+
+    private void deposit() {
+        budget.accumulateAndGet(depositPerAttempt, (current, deposit) -> Math.min(budgetCapacity, current + deposit));
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    private void backOff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 30));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting to retry the transaction.");
+        }
+    }
+
+    private static Counter conflicts(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("banking.transaction.conflicts")
+                .description("Transactions rolled back because an account changed concurrently")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
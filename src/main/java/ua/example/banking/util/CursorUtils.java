@@ -0,0 +1,36 @@
+package ua.example.banking.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import ua.example.banking.advice.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CursorUtils {
+
+    private static final String SEPARATOR = "|";
+    private static final Pattern SEPARATOR_PATTERN = Pattern.compile(Pattern.quote(SEPARATOR));
+
+    public static String encode(String... parts) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.join(SEPARATOR, parts).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int expectedParts) {
+        String[] parts;
+        try {
+            parts = SEPARATOR_PATTERN.split(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), -1);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor.");
+        }
+
+        if (parts.length != expectedParts) {
+            throw new ValidationException("Invalid cursor.");
+        }
+
+        return parts;
+    }
+}
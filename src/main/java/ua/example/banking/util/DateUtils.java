@@ -15,6 +15,11 @@ public final class DateUtils {
         return Objects.isNull(timestamp) ? null : OffsetDateTime.of(timestamp.toLocalDateTime(), ZoneOffset.UTC);
     }
 
+    public static Timestamp offsetDateTimeToTimestamp(OffsetDateTime offsetDateTime) {
+        return Objects.isNull(offsetDateTime) ? null
+                : Timestamp.valueOf(offsetDateTime.withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime());
+    }
+
     public static Timestamp nowTimestamp() {
         return Timestamp.valueOf(nowUTC().toLocalDateTime());
     }
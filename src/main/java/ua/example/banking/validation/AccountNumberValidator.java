@@ -2,35 +2,42 @@ package ua.example.banking.validation;
 
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
-import ua.example.banking.model.enums.TransactionType;
 import ua.example.banking.validation.annotation.AccountNumberValidation;
 
 import java.util.UUID;
 
-public class AccountNumberValidator implements ConstraintValidator<AccountNumberValidation, Object> {
+/**
+ * Checks the accounts a transaction type requires: a deposit needs a target, a withdrawal a source and a
+ * transfer two different accounts. A missing transaction type is left to {@code @NotNull}.
+ */
+public class AccountNumberValidator implements ConstraintValidator<AccountNumberValidation, TransactionAccounts> {
 
+    public static final String TARGET_REQUIRED_MESSAGE = "Target account ('to') is required for a deposit.";
+    public static final String SOURCE_REQUIRED_MESSAGE = "Source account ('from') is required for a withdrawal.";
+    public static final String BOTH_REQUIRED_MESSAGE = "Source ('from') and target ('to') accounts are required for a transfer.";
     public static final String MUST_BE_DIFFERENT_MESSAGE = "Source and target accounts must be different.";
 
     @Override
-    public boolean isValid(Object value, ConstraintValidatorContext context) {
-        if (value == null) {
-            return false;
+    public boolean isValid(TransactionAccounts value, ConstraintValidatorContext context) {
+        if (value == null || value.getTransactionType() == null) {
+            return true;
         }
 
-        try {
-            UUID to = (UUID) value.getClass().getMethod("getTo").invoke(value);
-            UUID from = (UUID) value.getClass().getMethod("getFrom").invoke(value);
-            TransactionType transactionType = (TransactionType) value.getClass().getMethod("getTransactionType").invoke(value);
+        UUID from = value.getFrom();
+        UUID to = value.getTo();
 
-            if (transactionType == TransactionType.TRANSFER && to != null && to.equals(from)) {
-                context.disableDefaultConstraintViolation();
-                context.buildConstraintViolationWithTemplate(MUST_BE_DIFFERENT_MESSAGE).addConstraintViolation();
-                return false;
-            }
+        return switch (value.getTransactionType()) {
+            case DEPOSIT -> to != null || reject(context, TARGET_REQUIRED_MESSAGE);
+            case WITHDRAW -> from != null || reject(context, SOURCE_REQUIRED_MESSAGE);
+            case TRANSFER -> from == null || to == null
+                    ? reject(context, BOTH_REQUIRED_MESSAGE)
+                    : !from.equals(to) || reject(context, MUST_BE_DIFFERENT_MESSAGE);
+        };
+    }
 
-            return from != null || to != null;
-        } catch (Exception e) {
-            return false;
-        }
+    private static boolean reject(ConstraintValidatorContext context, String message) {
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate(message).addConstraintViolation();
+        return false;
     }
 }
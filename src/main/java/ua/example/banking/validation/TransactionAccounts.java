@@ -0,0 +1,17 @@
+package ua.example.banking.validation;
+
+import ua.example.banking.model.enums.TransactionType;
+
+import java.util.UUID;
+
+/**
+ * Accounts involved in a transaction request, validated by {@link AccountNumberValidator}.
+ */
+public interface TransactionAccounts {
+
+    TransactionType getTransactionType();
+
+    UUID getFrom();
+
+    UUID getTo();
+}
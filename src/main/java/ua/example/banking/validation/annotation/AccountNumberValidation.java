@@ -14,7 +14,7 @@ import java.lang.annotation.Target;
 @Constraint(validatedBy = AccountNumberValidator.class)
 public @interface AccountNumberValidation {
 
-    String message() default "At least one account number ('from' or 'to') must be provided.";
+    String message() default "Account numbers do not match the transaction type.";
 
     Class<?>[] groups() default {};
 
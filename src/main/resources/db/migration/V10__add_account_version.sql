@@ -0,0 +1,3 @@
+-- optimistic locking of accounts; every statement changing a balance increments it
+alter table account
+    add column version bigint not null default 0;
@@ -0,0 +1,4 @@
+-- request hashes are hex SHA-256 digests of the canonical request; integer hashes stored before cannot be compared
+-- with them, so a key stored before this migration rejects its retries instead of moving money twice
+alter table idempotency_key
+    alter column request_hash type varchar(64) using request_hash::text;
@@ -0,0 +1,13 @@
+-- ledger entries applied in memory that could not be written to account and transaction; they have to be repaired
+-- by hand, as the balances reloaded on the next start do not include them
+create table ledger_dead_letter
+(
+    transaction_id               bigint primary key,
+    transaction_type             varchar(16)    not null,
+    account_number_from          uuid,
+    account_number_to            uuid,
+    amount                       decimal(15, 2) not null,
+    transaction_create_date_time timestamp      not null,
+    error                        text           not null,
+    create_date_time             timestamp      not null
+);
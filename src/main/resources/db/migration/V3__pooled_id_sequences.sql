@@ -0,0 +1,15 @@
+create sequence account_seq increment by 50;
+select setval('account_seq', coalesce((select max(id) from account), 0) + 50, false);
+
+alter table account
+    alter column id drop default;
+drop sequence account_id_seq;
+alter sequence account_seq owned by account.id;
+
+create sequence transaction_seq increment by 50;
+select setval('transaction_seq', coalesce((select max(id) from transaction), 0) + 50, false);
+
+alter table transaction
+    alter column id drop default;
+drop sequence transaction_id_seq;
+alter sequence transaction_seq owned by transaction.id;
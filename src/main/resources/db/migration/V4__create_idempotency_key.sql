@@ -0,0 +1,9 @@
+create table idempotency_key
+(
+    idempotency_key  varchar(64) primary key,
+    request_hash     integer   not null,
+    transaction_id   bigint    not null,
+    create_date_time timestamp not null
+);
+
+create index idempotency_key_create_date_time_idx on idempotency_key (create_date_time);
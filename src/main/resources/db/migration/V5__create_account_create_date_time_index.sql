@@ -0,0 +1 @@
+create index concurrently if not exists account_create_date_time_id_idx on account (create_date_time, id);
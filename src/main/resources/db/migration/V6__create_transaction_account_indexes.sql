@@ -0,0 +1,5 @@
+create index concurrently if not exists transaction_account_number_from_idx
+    on transaction (account_number_from, create_date_time, id);
+
+create index concurrently if not exists transaction_account_number_to_idx
+    on transaction (account_number_to, create_date_time, id);
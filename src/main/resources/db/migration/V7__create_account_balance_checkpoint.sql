@@ -0,0 +1,32 @@
+create table account_balance_checkpoint
+(
+    account_number uuid           not null references account (account_number),
+    as_of          timestamp      not null,
+    balance        decimal(15, 2) not null,
+    primary key (account_number, as_of)
+);
+
+-- every account starts with a checkpoint holding its opening balance
+create function create_opening_balance_checkpoint() returns trigger as
+$$
+begin
+    insert into account_balance_checkpoint (account_number, as_of, balance)
+    values (new.account_number, new.create_date_time, new.balance);
+    return new;
+end;
+$$ language plpgsql;
+
+create trigger account_opening_balance_checkpoint
+    after insert
+    on account
+    for each row
+execute function create_opening_balance_checkpoint();
+
+-- existing accounts: the opening balance is the current one with all their transactions undone
+insert into account_balance_checkpoint (account_number, as_of, balance)
+select a.account_number,
+       a.create_date_time,
+       a.balance
+           - coalesce((select sum(t.amount) from transaction t where t.account_number_to = a.account_number), 0)
+           + coalesce((select sum(t.amount) from transaction t where t.account_number_from = a.account_number), 0)
+from account a;
@@ -0,0 +1,50 @@
+create schema if not exists archive;
+
+alter table transaction rename to transaction_unpartitioned;
+alter index transaction_pkey rename to transaction_unpartitioned_pkey;
+drop index transaction_account_number_from_idx;
+drop index transaction_account_number_to_idx;
+alter sequence transaction_seq owned by none;
+
+create table transaction
+(
+    id                  bigint                not null,
+    account_number_to   uuid references account (account_number),
+    account_number_from uuid references account (account_number),
+    amount              decimal(15, 2)        not null check (amount > 0),
+    transaction_type    transaction_type_enum not null,
+    create_date_time    timestamp             not null,
+    primary key (id, create_date_time),
+    constraint at_least_one_account_present
+        check (account_number_from is not null or account_number_to is not null)
+) partition by range (create_date_time);
+
+alter sequence transaction_seq owned by transaction.id;
+
+create index transaction_account_number_from_idx on transaction (account_number_from, create_date_time, id);
+create index transaction_account_number_to_idx on transaction (account_number_to, create_date_time, id);
+
+-- monthly partitions are named transaction_pYYYYMM and cover [month, month + 1 month)
+create function create_transaction_partition(month date) returns text as
+$$
+declare
+    partition_name text := format('transaction_p%s', to_char(month, 'YYYYMM'));
+begin
+    execute format('create table if not exists %I partition of transaction for values from (%L) to (%L)',
+                   partition_name, date_trunc('month', month), date_trunc('month', month) + interval '1 month');
+    return partition_name;
+end;
+$$ language plpgsql;
+
+select create_transaction_partition(month::date)
+from generate_series(
+             date_trunc('month', coalesce((select min(create_date_time) from transaction_unpartitioned),
+                                          now() at time zone 'utc')),
+             date_trunc('month', now() at time zone 'utc') + interval '3 months',
+             interval '1 month') as month;
+
+insert into transaction (id, account_number_to, account_number_from, amount, transaction_type, create_date_time)
+select id, account_number_to, account_number_from, amount, transaction_type, create_date_time
+from transaction_unpartitioned;
+
+drop table transaction_unpartitioned;
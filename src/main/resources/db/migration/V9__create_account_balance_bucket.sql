@@ -0,0 +1,14 @@
+-- accounts with balance buckets take credits into one of their buckets instead of the account row
+alter table account
+    add column balance_buckets integer not null default 0;
+
+create index account_balance_buckets_idx on account (account_number) where balance_buckets > 0;
+
+-- credits not yet consolidated into account.balance; the balance of an account is the sum of both
+create table account_balance_bucket
+(
+    account_number uuid           not null references account (account_number),
+    bucket         integer        not null,
+    balance        decimal(15, 2) not null default 0,
+    primary key (account_number, bucket)
+);
@@ -0,0 +1,168 @@
+package ua.example.banking.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private HikariDataSource firstReplica;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private HikariDataSource secondReplica;
+
+    private final Connection primaryConnection = mock(Connection.class, Answers.RETURNS_DEEP_STUBS);
+    private final Connection firstConnection = mock(Connection.class);
+    private final Connection secondConnection = mock(Connection.class);
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(firstReplica.getPoolName()).thenReturn("replica-0");
+        lenient().when(secondReplica.getPoolName()).thenReturn("replica-1");
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        lenient().when(primaryConnection.createStatement().executeQuery(anyString()).getString(1)).thenReturn("0/3000148");
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(firstReplica, secondReplica),
+                Duration.ofSeconds(5), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadRoutingContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should read from the primary until replica lag was measured")
+    void shouldUsePrimaryBeforeLagIsKnown() throws SQLException {
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("Should spread reads over replicas within the allowed staleness")
+    void shouldRoundRobinOverFreshReplicas() throws SQLException {
+        replicaLag(firstReplica, 0.2);
+        replicaLag(secondReplica, 1);
+        routingDataSource.checkReplicationLag();
+        when(firstReplica.getConnection()).thenReturn(firstConnection);
+        when(secondReplica.getConnection()).thenReturn(secondConnection);
+
+        assertThat(List.of(routingDataSource.getConnection(), routingDataSource.getConnection()))
+                .containsExactlyInAnyOrder(firstConnection, secondConnection);
+    }
+
+    @Test
+    @DisplayName("Should skip replicas lagging behind and fall back to the primary")
+    void shouldSkipStaleReplicas() throws SQLException {
+        replicaLag(firstReplica, 30);
+        replicaLag(secondReplica, 10);
+        routingDataSource.checkReplicationLag();
+        clearInvocations(firstReplica, secondReplica);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        verify(firstReplica, never()).getConnection();
+        verify(secondReplica, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should read from the primary when the request must see its own writes")
+    void shouldUsePrimaryForReadYourWrites() throws SQLException {
+        replicaLag(firstReplica, 0);
+        replicaLag(secondReplica, 0);
+        routingDataSource.checkReplicationLag();
+        ReadRoutingContext.setPrimaryRequired(true);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("Should fall back when a replica fails to connect and skip it until it recovers")
+    void shouldFallBackOnConnectionFailure() throws SQLException {
+        replicaLag(firstReplica, 0);
+        when(secondReplica.getConnection().prepareStatement(anyString())).thenThrow(new SQLException("down"));
+        routingDataSource.checkReplicationLag();
+        when(firstReplica.getConnection()).thenThrow(new SQLException("down"));
+        clearInvocations(firstReplica);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        verify(firstReplica, times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should skip a replica that is promoted or not streaming from the primary")
+    void shouldSkipReplicaNotStreaming() throws SQLException {
+        replicaLag(firstReplica, 0);
+        notStreaming(secondReplica);
+        routingDataSource.checkReplicationLag();
+        when(firstReplica.getConnection()).thenReturn(firstConnection);
+        clearInvocations(secondReplica);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(firstConnection);
+        assertThat(routingDataSource.getConnection()).isSameAs(firstConnection);
+        verify(secondReplica, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should measure replica lag against the primary's current WAL position")
+    void shouldMeasureLagAgainstPrimary() throws SQLException {
+        replicaLag(firstReplica, 0);
+        replicaLag(secondReplica, 0);
+
+        routingDataSource.checkReplicationLag();
+
+        verify(firstReplica.getConnection().prepareStatement(anyString())).setString(1, "0/3000148");
+    }
+
+    @Test
+    @DisplayName("Should stop using replicas while the primary's WAL position cannot be read")
+    void shouldSkipReplicasWhenPrimaryPositionUnknown() throws SQLException {
+        replicaLag(firstReplica, 0);
+        replicaLag(secondReplica, 0);
+        routingDataSource.checkReplicationLag();
+        when(primaryConnection.createStatement()).thenThrow(new SQLException("down"));
+        routingDataSource.checkReplicationLag();
+        clearInvocations(firstReplica, secondReplica);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        verify(firstReplica, never()).getConnection();
+        verify(secondReplica, never()).getConnection();
+    }
+
+    private static void replicaLag(HikariDataSource replica, double seconds) throws SQLException {
+        when(replica.getConnection().prepareStatement(anyString()).executeQuery().getDouble(1)).thenReturn(seconds);
+    }
+
+    private static void notStreaming(HikariDataSource replica) throws SQLException {
+        when(replica.getConnection().prepareStatement(anyString()).executeQuery().wasNull()).thenReturn(true);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import ua.example.banking.model.dto.account.AccountDto;
 import ua.example.banking.model.dto.account.CreateAccountDto;
 import ua.example.banking.model.entity.Account;
+import ua.example.banking.model.projection.AccountView;
 import ua.example.banking.util.DateUtils;
 
 import java.math.BigDecimal;
@@ -31,7 +32,7 @@ class AccountMapperTest {
         Timestamp createDateTime = DateUtils.nowTimestamp();
         Timestamp updateDateTime = DateUtils.nowTimestamp();
 
-        Account account = new Account(1L, accountNumber, "User", BigDecimal.valueOf(2000.00), createDateTime, updateDateTime);
+        Account account = new Account(1L, accountNumber, "User", BigDecimal.valueOf(2000.00), createDateTime, updateDateTime, 0L);
 
         AccountDto accountDto = accountMapper.mapToDto(account);
 
@@ -44,6 +45,23 @@ class AccountMapperTest {
         assertThat(accountDto.getUpdateDateTime()).isEqualTo(DateUtils.timestampToOffsetDateTime(account.getUpdateDateTime()));
     }
 
+    @Test
+    @DisplayName("Should map AccountView projection to AccountDto correctly")
+    void shouldMapAccountViewToAccountDto() {
+        Timestamp createDateTime = DateUtils.nowTimestamp();
+
+        AccountView accountView = new AccountView(1L, UUID.randomUUID(), "User", BigDecimal.valueOf(2000.00), createDateTime, null);
+
+        AccountDto accountDto = accountMapper.mapToDto(accountView);
+
+        assertThat(accountDto.getId()).isEqualTo(accountView.id());
+        assertThat(accountDto.getAccountNumber()).isEqualTo(accountView.accountNumber());
+        assertThat(accountDto.getOwnerName()).isEqualTo(accountView.ownerName());
+        assertThat(accountDto.getBalance()).isEqualTo(accountView.balance());
+        assertThat(accountDto.getCreateDateTime()).isEqualTo(DateUtils.timestampToOffsetDateTime(createDateTime));
+        assertThat(accountDto.getUpdateDateTime()).isNull();
+    }
+
     @Test
     @DisplayName("Should map CreateAccountDto to Account entity correctly")
     void shouldMapCreateAccountDtoToAccountEntity() {
@@ -0,0 +1,52 @@
+package ua.example.banking.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ua.example.banking.advice.exception.ValidationException;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    @Test
+    @DisplayName("Should convert amounts to minor units and back without losing precision")
+    void shouldRoundTripAmounts() {
+        assertThat(Money.of(new BigDecimal("10")).minorUnits()).isEqualTo(1000);
+        assertThat(Money.of(new BigDecimal("0.1")).minorUnits()).isEqualTo(10);
+        assertThat(Money.of(new BigDecimal("-12.34")).minorUnits()).isEqualTo(-1234);
+        assertThat(Money.of(new BigDecimal("1.2E+3")).minorUnits()).isEqualTo(120000);
+
+        BigDecimal max = new BigDecimal("999999999999999.99");
+        assertThat(Money.of(max).toBigDecimal()).isEqualTo(max);
+        assertThat(Money.ofMinorUnits(5).toBigDecimal()).isEqualTo(new BigDecimal("0.05"));
+        assertThat(Money.ofMinorUnits(5)).hasToString("0.05");
+    }
+
+    @Test
+    @DisplayName("Should reject amounts that do not fit 15 integer digits and 2 decimal places")
+    void shouldRejectAmountsOutOfRange() {
+        ValidationException exception = assertThrows(ValidationException.class, () -> Money.of(new BigDecimal("1.005")));
+
+        assertThat(exception.getMessage()).isEqualTo("Amount must be a valid monetary value with up to 15 digits and 2 decimal places.");
+        assertThrows(ValidationException.class, () -> Money.of(new BigDecimal("1000000000000000.00")));
+        assertThrows(ValidationException.class, () -> Money.of(new BigDecimal("-1000000000000000")));
+    }
+
+    @Test
+    @DisplayName("Should do arithmetic in minor units and fail instead of overflowing")
+    void shouldDoArithmetic() {
+        Money amount = Money.of(new BigDecimal("10.50"));
+
+        assertThat(amount.plus(Money.of(new BigDecimal("0.75")))).isEqualTo(Money.ofMinorUnits(1125));
+        assertThat(amount.minus(Money.of(new BigDecimal("20")))).isEqualTo(Money.ofMinorUnits(-950));
+        assertThat(amount.negate().signum()).isEqualTo(-1);
+        assertThat(Money.ZERO.isLessThan(amount)).isTrue();
+        assertThat(amount.compareTo(Money.ofMinorUnits(1050))).isZero();
+
+        Money max = Money.ofMinorUnits(Money.MAX_MINOR_UNITS);
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinorUnits(1)));
+    }
+}
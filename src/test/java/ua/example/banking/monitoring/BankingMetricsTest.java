@@ -0,0 +1,68 @@
+package ua.example.banking.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ua.example.banking.advice.exception.DataNotFoundException;
+import ua.example.banking.advice.exception.InsufficientFundsException;
+import ua.example.banking.model.enums.TransactionType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BankingMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BankingMetrics bankingMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bankingMetrics = new BankingMetrics(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should time transactions by type and outcome")
+    void shouldTimeTransactionsByTypeAndOutcome() {
+        assertThat(bankingMetrics.recordTransaction(TransactionType.DEPOSIT, () -> "created")).isEqualTo("created");
+        assertThrows(InsufficientFundsException.class, () -> bankingMetrics.recordTransaction(TransactionType.WITHDRAW, () -> {
+            throw new InsufficientFundsException();
+        }));
+
+        assertThat(transactionCount("DEPOSIT", "success")).isEqualTo(1);
+        assertThat(transactionCount("WITHDRAW", "insufficient_funds")).isEqualTo(1);
+        assertThat(transactionCount("WITHDRAW", "success")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should time account reads with a not found outcome")
+    void shouldTimeAccountReads() {
+        assertThrows(DataNotFoundException.class, () -> bankingMetrics.recordAccountRead(BankingMetrics.AccountOperation.GET_DETAILS, () -> {
+            throw new DataNotFoundException("Account not found.");
+        }));
+
+        assertThat(meterRegistry.get("banking.account.read")
+                .tag("operation", "get_details")
+                .tag("outcome", "not_found")
+                .timer()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should count handled exceptions by type and status")
+    void shouldCountErrors() {
+        bankingMetrics.countError(new InsufficientFundsException());
+        bankingMetrics.countError(new InsufficientFundsException());
+        bankingMetrics.countError(new DataNotFoundException("Account not found."));
+
+        assertThat(meterRegistry.get("banking.errors").tag("exception", "InsufficientFundsException").tag("status", "400")
+                .counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("banking.errors").tag("exception", "DataNotFoundException").tag("status", "404")
+                .counter().count()).isEqualTo(1);
+    }
+
+    private long transactionCount(String type, String outcome) {
+        return meterRegistry.get("banking.transaction.create").tag("type", type).tag("outcome", outcome).timer().count();
+    }
+}
@@ -0,0 +1,42 @@
+package ua.example.banking.monitoring;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ua.example.banking.config.properties.LoggingProperties;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.monitoring.BankingMetrics.AccountOperation;
+
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSamplerTest {
+
+    @Test
+    @DisplayName("Should log every success by default")
+    void shouldSampleEverythingByDefault() {
+        LogSampler logSampler = new LogSampler(new LoggingProperties());
+
+        assertThat(logSampler.sample(TransactionType.TRANSFER)).isTrue();
+        assertThat(logSampler.sample(AccountOperation.GET_DETAILS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should apply per-operation rates over the default rate")
+    void shouldApplyPerOperationRates() {
+        LoggingProperties properties = new LoggingProperties();
+        properties.setSuccessSampleRate(0.0);
+        properties.setSuccessSampleRates(Map.of("deposit", 1.0, "get-details", 0.5));
+        LogSampler logSampler = new LogSampler(properties);
+
+        assertThat(logSampler.sample(TransactionType.DEPOSIT)).isTrue();
+        assertThat(logSampler.sample(TransactionType.TRANSFER)).isFalse();
+        assertThat(logSampler.sample(AccountOperation.LIST)).isFalse();
+
+        long sampled = IntStream.range(0, 10_000)
+                .filter(i -> logSampler.sample(AccountOperation.GET_DETAILS))
+                .count();
+        assertThat(sampled).isBetween(4_000L, 6_000L);
+    }
+}
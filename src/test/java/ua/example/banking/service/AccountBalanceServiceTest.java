@@ -0,0 +1,190 @@
+package ua.example.banking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import ua.example.banking.advice.exception.DataNotFoundException;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.config.properties.BalanceCheckpointProperties;
+import ua.example.banking.model.dto.account.AccountBalanceDto;
+import ua.example.banking.repository.AccountRepository;
+import ua.example.banking.repository.jdbc.BalanceCheckpointJdbcRepository;
+import ua.example.banking.service.impl.AccountBalanceServiceImpl;
+import ua.example.banking.service.ledger.LedgerEngine;
+import ua.example.banking.service.partition.TransactionPartitionManager;
+import ua.example.banking.util.DateUtils;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountBalanceServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private BalanceCheckpointJdbcRepository balanceCheckpointJdbcRepository;
+
+    @Mock
+    private TransactionPartitionManager transactionPartitionManager;
+
+    @Mock
+    private ObjectProvider<LedgerEngine> ledgerEngineProvider;
+
+    private final BalanceCheckpointProperties balanceCheckpointProperties = new BalanceCheckpointProperties();
+
+    private AccountBalanceServiceImpl accountBalanceService;
+
+    @BeforeEach
+    void setUp() {
+        accountBalanceService = new AccountBalanceServiceImpl(accountRepository, balanceCheckpointJdbcRepository,
+                balanceCheckpointProperties, transactionPartitionManager, ledgerEngineProvider);
+    }
+
+    @Test
+    @DisplayName("Should rebuild the balance as of the requested time")
+    void shouldReturnBalanceAsOf() {
+        UUID accountNumber = UUID.randomUUID();
+        OffsetDateTime asOf = DateUtils.nowUTC().minusDays(1);
+
+        when(balanceCheckpointJdbcRepository.findBalanceAsOf(accountNumber, DateUtils.offsetDateTimeToTimestamp(asOf)))
+                .thenReturn(Optional.of(new BigDecimal("42.00")));
+
+        AccountBalanceDto result = accountBalanceService.getBalanceAsOf(accountNumber, asOf);
+
+        assertThat(result.getAccountNumber()).isEqualTo(accountNumber);
+        assertThat(result.getBalance()).isEqualByComparingTo("42.00");
+        assertThat(result.getAsOf()).isEqualTo(asOf);
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    @DisplayName("Should default to the current balance when no time is given")
+    void shouldDefaultToNow() {
+        UUID accountNumber = UUID.randomUUID();
+        when(balanceCheckpointJdbcRepository.findBalanceAsOf(eq(accountNumber), any(Timestamp.class)))
+                .thenReturn(Optional.of(BigDecimal.TEN));
+
+        AccountBalanceDto result = accountBalanceService.getBalanceAsOf(accountNumber, null);
+
+        assertThat(result.getAsOf()).isNotNull().isBeforeOrEqualTo(DateUtils.nowUTC());
+        assertThat(result.getBalance()).isEqualByComparingTo(BigDecimal.TEN);
+    }
+
+    @Test
+    @DisplayName("Should reject a time in the future")
+    void shouldRejectFutureTime() {
+        ValidationException exception = assertThrows(ValidationException.class, () ->
+                accountBalanceService.getBalanceAsOf(UUID.randomUUID(), DateUtils.nowUTC().plusHours(1)));
+
+        assertThat(exception.getMessage()).isEqualTo("asOf must not be in the future.");
+        verifyNoInteractions(balanceCheckpointJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a time whose transactions were archived")
+    void shouldRejectArchivedTime() {
+        OffsetDateTime archivedBefore = DateUtils.nowUTC().minusYears(1);
+        when(transactionPartitionManager.getArchivedBefore()).thenReturn(Optional.of(archivedBefore));
+
+        ValidationException exception = assertThrows(ValidationException.class, () ->
+                accountBalanceService.getBalanceAsOf(UUID.randomUUID(), archivedBefore.minusDays(1)));
+
+        assertThat(exception.getMessage()).isEqualTo("Balance history before %s is archived.".formatted(archivedBefore));
+        verifyNoInteractions(balanceCheckpointJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("Should tell an unknown account apart from one created after the requested time")
+    void shouldThrowWhenNoCheckpointExists() {
+        UUID unknown = UUID.randomUUID();
+        UUID later = UUID.randomUUID();
+        OffsetDateTime asOf = DateUtils.nowUTC().minusYears(1);
+
+        when(balanceCheckpointJdbcRepository.findBalanceAsOf(any(UUID.class), any(Timestamp.class))).thenReturn(Optional.empty());
+        when(accountRepository.existsByAccountNumber(unknown)).thenReturn(false);
+        when(accountRepository.existsByAccountNumber(later)).thenReturn(true);
+
+        DataNotFoundException notFound = assertThrows(DataNotFoundException.class, () ->
+                accountBalanceService.getBalanceAsOf(unknown, asOf));
+        DataNotFoundException notYetCreated = assertThrows(DataNotFoundException.class, () ->
+                accountBalanceService.getBalanceAsOf(later, asOf));
+
+        assertThat(notFound.getMessage()).isEqualTo("Account with account number: %s not found.".formatted(unknown));
+        assertThat(notYetCreated.getMessage()).isEqualTo("Account with account number: %s did not exist at %s.".formatted(later, asOf));
+    }
+
+    @Test
+    @DisplayName("Should take checkpoints the configured settle delay in the past")
+    void shouldCreateCheckpointsBeforeSettleDelay() {
+        when(balanceCheckpointJdbcRepository.createCheckpoints(any(Timestamp.class), eq(100))).thenReturn(3);
+
+        OffsetDateTime before = DateUtils.nowUTC();
+        assertThat(accountBalanceService.createCheckpoints()).isEqualTo(3);
+
+        verify(balanceCheckpointJdbcRepository).createCheckpoints(
+                argThat(cutoff -> !cutoff.after(DateUtils.offsetDateTimeToTimestamp(
+                        before.minus(balanceCheckpointProperties.getSettleDelay()).plusSeconds(1)))),
+                eq(100));
+    }
+
+    @Test
+    @DisplayName("Should take checkpoints before the oldest transaction still in flight")
+    void shouldCreateCheckpointsBeforeOldestTransactionInFlight() {
+        Timestamp inFlightSince = DateUtils.offsetDateTimeToTimestamp(DateUtils.nowUTC().minusMinutes(30));
+        when(balanceCheckpointJdbcRepository.findOldestTransactionStart()).thenReturn(Optional.of(inFlightSince));
+
+        accountBalanceService.createCheckpoints();
+
+        verify(balanceCheckpointJdbcRepository).createCheckpoints(
+                Timestamp.valueOf(inFlightSince.toLocalDateTime().minus(balanceCheckpointProperties.getSettleDelay())), 100);
+    }
+
+    @Test
+    @DisplayName("Should take checkpoints before the oldest transaction the ledger has not persisted")
+    void shouldCreateCheckpointsBeforeOldestUnpersistedLedgerTransaction() {
+        Timestamp unpersistedSince = DateUtils.offsetDateTimeToTimestamp(DateUtils.nowUTC().minusMinutes(20));
+        LedgerEngine ledgerEngine = mock(LedgerEngine.class);
+        when(ledgerEngineProvider.getIfAvailable()).thenReturn(ledgerEngine);
+        when(ledgerEngine.oldestUnpersisted()).thenReturn(Optional.of(unpersistedSince));
+        when(balanceCheckpointJdbcRepository.findOldestTransactionStart())
+                .thenReturn(Optional.of(DateUtils.offsetDateTimeToTimestamp(DateUtils.nowUTC().minusMinutes(10))));
+
+        accountBalanceService.createCheckpoints();
+
+        verify(balanceCheckpointJdbcRepository).createCheckpoints(
+                Timestamp.valueOf(unpersistedSince.toLocalDateTime().minus(balanceCheckpointProperties.getSettleDelay())), 100);
+    }
+
+    @Test
+    @DisplayName("Should not take checkpoints while the ledger cannot persist its transactions")
+    void shouldNotCreateCheckpointsWhileLedgerPersistFails() {
+        LedgerEngine ledgerEngine = mock(LedgerEngine.class);
+        when(ledgerEngineProvider.getIfAvailable()).thenReturn(ledgerEngine);
+        when(ledgerEngine.isPersistFailing()).thenReturn(true);
+
+        assertThat(accountBalanceService.createCheckpoints()).isZero();
+
+        verify(balanceCheckpointJdbcRepository, never()).createCheckpoints(any(Timestamp.class), anyInt());
+    }
+}
@@ -1,30 +1,47 @@
 package ua.example.banking.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.config.datasource.ReadRoutingContext;
+import ua.example.banking.config.properties.AccountCacheProperties;
 import ua.example.banking.mappers.AccountMapper;
+import ua.example.banking.model.dto.CursorPageDto;
 import ua.example.banking.model.dto.account.AccountDto;
 import ua.example.banking.model.dto.account.CreateAccountDto;
 import ua.example.banking.model.entity.Account;
+import ua.example.banking.model.enums.AccountSortKey;
+import ua.example.banking.model.projection.AccountView;
+import ua.example.banking.monitoring.LogSampler;
 import ua.example.banking.repository.AccountRepository;
+import ua.example.banking.service.bucket.BalanceBucketManager;
+import ua.example.banking.service.cache.AccountCache;
 import ua.example.banking.service.impl.AccountServiceImpl;
+import ua.example.banking.util.CursorUtils;
 import ua.example.banking.util.DateUtils;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -39,6 +56,18 @@ class AccountServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private AccountCache accountCache = new AccountCache(new AccountCacheProperties(), List.of(), new SimpleMeterRegistry());
+
+    @Mock
+    private LogSampler logSampler;
+
+    @Mock
+    private BalanceBucketManager balanceBucketManager;
+
     @InjectMocks
     private AccountServiceImpl accountService;
 
@@ -47,8 +76,8 @@ class AccountServiceTest {
     void shouldCreateAccountSuccessfully() {
         CreateAccountDto createAccountDto = new CreateAccountDto("user", BigDecimal.valueOf(1000));
         UUID accountNumber = UUID.randomUUID();
-        Account mappedAccount = new Account(null, null, createAccountDto.getOwnerName(), createAccountDto.getBalance(), null, null);
-        Account savedAccount = new Account(1L, accountNumber, createAccountDto.getOwnerName(), createAccountDto.getBalance(), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
+        Account mappedAccount = new Account(null, null, createAccountDto.getOwnerName(), createAccountDto.getBalance(), null, null, null);
+        Account savedAccount = new Account(1L, accountNumber, createAccountDto.getOwnerName(), createAccountDto.getBalance(), DateUtils.nowTimestamp(), DateUtils.nowTimestamp(), 0L);
         AccountDto accountDto = new AccountDto(1L, accountNumber, createAccountDto.getOwnerName(), createAccountDto.getBalance(), DateUtils.nowUTC(), DateUtils.nowUTC());
 
         when(accountMapper.mapToEntity(createAccountDto)).thenReturn(mappedAccount);
@@ -74,10 +103,10 @@ class AccountServiceTest {
     @DisplayName("Should retrieve account details successfully by account number")
     void shouldGetAccountDetailsSuccessfully() {
         UUID accountNumber = UUID.randomUUID();
-        Account account = new Account(1L, accountNumber, "user", BigDecimal.valueOf(500), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
+        AccountView account = new AccountView(1L, accountNumber, "user", BigDecimal.valueOf(500), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
         AccountDto accountDto = new AccountDto(1L, accountNumber, "user", BigDecimal.valueOf(500), DateUtils.nowUTC(), DateUtils.nowUTC());
 
-        when(accountRepository.findByAccountNumber(accountNumber)).thenReturn(Optional.of(account));
+        when(accountRepository.findViewByAccountNumber(accountNumber)).thenReturn(Optional.of(account));
         when(accountMapper.mapToDto(account)).thenReturn(accountDto);
 
         AccountDto result = accountService.getAccountDetails(accountNumber);
@@ -90,21 +119,78 @@ class AccountServiceTest {
         assertThat(result.getCreateDateTime()).isNotNull();
         assertThat(result.getUpdateDateTime()).isNotNull();
 
-        verify(accountRepository, times(1)).findByAccountNumber(accountNumber);
+        verify(accountRepository, times(1)).findViewByAccountNumber(accountNumber);
         verify(accountMapper, times(1)).mapToDto(account);
     }
 
+    @Test
+    @DisplayName("Should load account details into the cache from the primary")
+    void shouldLoadAccountDetailsFromPrimary() {
+        UUID accountNumber = UUID.randomUUID();
+        AccountView account = new AccountView(1L, accountNumber, "user", BigDecimal.valueOf(500), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
+        AtomicBoolean loadedFromPrimary = new AtomicBoolean();
+
+        when(accountRepository.findViewByAccountNumber(accountNumber)).thenAnswer(invocation -> {
+            loadedFromPrimary.set(ReadRoutingContext.isPrimaryRequired());
+            return Optional.of(account);
+        });
+        when(accountMapper.mapToDto(account)).thenReturn(new AccountDto(1L, accountNumber, "user", BigDecimal.valueOf(500), DateUtils.nowUTC(), DateUtils.nowUTC()));
+
+        accountService.getAccountDetails(accountNumber);
+
+        assertThat(loadedFromPrimary).isTrue();
+        assertThat(ReadRoutingContext.isPrimaryRequired()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should include credits held in balance buckets in the account details balance")
+    void shouldIncludeBalanceBucketsInAccountDetails() {
+        UUID accountNumber = UUID.randomUUID();
+        AccountView account = new AccountView(1L, accountNumber, "merchant", BigDecimal.valueOf(500), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
+        AccountDto accountDto = new AccountDto(1L, accountNumber, "merchant", BigDecimal.valueOf(500), DateUtils.nowUTC(), DateUtils.nowUTC());
+
+        when(accountRepository.findViewByAccountNumber(accountNumber)).thenReturn(Optional.of(account));
+        when(accountMapper.mapToDto(account)).thenReturn(accountDto);
+        when(balanceBucketManager.findTotalBalance(accountNumber)).thenReturn(Optional.of(BigDecimal.valueOf(1750)));
+
+        AccountDto result = accountService.getAccountDetails(accountNumber);
+
+        assertThat(result.getBalance()).isEqualTo(BigDecimal.valueOf(1750));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads of account details from the cache until the account changes")
+    void shouldCacheAccountDetailsUntilEvicted() {
+        UUID accountNumber = UUID.randomUUID();
+        AccountView account = new AccountView(1L, accountNumber, "user", BigDecimal.valueOf(500), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
+        AccountDto accountDto = new AccountDto(1L, accountNumber, "user", BigDecimal.valueOf(500), DateUtils.nowUTC(), DateUtils.nowUTC());
+
+        when(accountRepository.findViewByAccountNumber(accountNumber)).thenReturn(Optional.of(account));
+        when(accountMapper.mapToDto(account)).thenReturn(accountDto);
+
+        accountService.getAccountDetails(accountNumber);
+        AccountDto cached = accountService.getAccountDetails(accountNumber);
+
+        assertThat(cached).isSameAs(accountDto);
+        verify(accountRepository, times(1)).findViewByAccountNumber(accountNumber);
+
+        accountCache.evict(List.of(accountNumber));
+        accountService.getAccountDetails(accountNumber);
+
+        verify(accountRepository, times(2)).findViewByAccountNumber(accountNumber);
+    }
+
     @Test
     @DisplayName("Should throw exception when account with given account number is not found")
     void shouldThrowExceptionWhenAccountNotFound() {
         UUID accountNumber = UUID.randomUUID();
-        when(accountRepository.findByAccountNumber(accountNumber)).thenReturn(Optional.empty());
+        when(accountRepository.findViewByAccountNumber(accountNumber)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> accountService.getAccountDetails(accountNumber));
 
         assertThat(exception.getMessage()).isEqualTo("Account with account number: %s not found.".formatted(accountNumber));
 
-        verify(accountRepository, times(1)).findByAccountNumber(accountNumber);
+        verify(accountRepository, times(1)).findViewByAccountNumber(accountNumber);
         verifyNoInteractions(accountMapper);
     }
 
@@ -114,19 +200,19 @@ class AccountServiceTest {
         PageRequest firstPageRequest = PageRequest.of(0, 2);
         PageRequest secondPageRequest = PageRequest.of(1, 2);
 
-        Account account1 = new Account(1L, UUID.randomUUID(), "User1", BigDecimal.valueOf(1000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
-        Account account2 = new Account(2L, UUID.randomUUID(), "User2", BigDecimal.valueOf(2000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
-        Account account3 = new Account(3L, UUID.randomUUID(), "User3", BigDecimal.valueOf(3000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
+        AccountView account1 = new AccountView(1L, UUID.randomUUID(), "User1", BigDecimal.valueOf(1000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
+        AccountView account2 = new AccountView(2L, UUID.randomUUID(), "User2", BigDecimal.valueOf(2000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
+        AccountView account3 = new AccountView(3L, UUID.randomUUID(), "User3", BigDecimal.valueOf(3000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
 
-        Page<Account> firstAccountPage = new PageImpl<>(List.of(account1, account2), firstPageRequest, 3);
-        AccountDto accountDto1 = new AccountDto(1L, account1.getAccountNumber(), account1.getOwnerName(), account1.getBalance(), DateUtils.timestampToOffsetDateTime(account1.getCreateDateTime()), DateUtils.timestampToOffsetDateTime(account1.getUpdateDateTime()));
-        AccountDto accountDto2 = new AccountDto(2L, account2.getAccountNumber(), account2.getOwnerName(), account2.getBalance(), DateUtils.timestampToOffsetDateTime(account2.getCreateDateTime()), DateUtils.timestampToOffsetDateTime(account2.getUpdateDateTime()));
+        Page<AccountView> firstAccountPage = new PageImpl<>(List.of(account1, account2), firstPageRequest, 3);
+        AccountDto accountDto1 = new AccountDto(1L, account1.accountNumber(), account1.ownerName(), account1.balance(), DateUtils.timestampToOffsetDateTime(account1.createDateTime()), DateUtils.timestampToOffsetDateTime(account1.updateDateTime()));
+        AccountDto accountDto2 = new AccountDto(2L, account2.accountNumber(), account2.ownerName(), account2.balance(), DateUtils.timestampToOffsetDateTime(account2.createDateTime()), DateUtils.timestampToOffsetDateTime(account2.updateDateTime()));
 
-        Page<Account> secondAccountPage = new PageImpl<>(List.of(account3), secondPageRequest, 3);
-        AccountDto accountDto3 = new AccountDto(3L, account3.getAccountNumber(), account3.getOwnerName(), account3.getBalance(), DateUtils.timestampToOffsetDateTime(account3.getCreateDateTime()), DateUtils.timestampToOffsetDateTime(account3.getUpdateDateTime()));
+        Page<AccountView> secondAccountPage = new PageImpl<>(List.of(account3), secondPageRequest, 3);
+        AccountDto accountDto3 = new AccountDto(3L, account3.accountNumber(), account3.ownerName(), account3.balance(), DateUtils.timestampToOffsetDateTime(account3.createDateTime()), DateUtils.timestampToOffsetDateTime(account3.updateDateTime()));
 
-        when(accountRepository.findAll(firstPageRequest)).thenReturn(firstAccountPage);
-        when(accountRepository.findAll(secondPageRequest)).thenReturn(secondAccountPage);
+        when(accountRepository.findAllBy(firstPageRequest)).thenReturn(firstAccountPage);
+        when(accountRepository.findAllBy(secondPageRequest)).thenReturn(secondAccountPage);
         when(accountMapper.mapToDto(account1)).thenReturn(accountDto1);
         when(accountMapper.mapToDto(account2)).thenReturn(accountDto2);
         when(accountMapper.mapToDto(account3)).thenReturn(accountDto3);
@@ -146,8 +232,8 @@ class AccountServiceTest {
         assertThat(secondPageResult.getTotalElements()).isEqualTo(3);
         assertThat(secondPageResult.getNumber()).isEqualTo(1);
 
-        verify(accountRepository, times(1)).findAll(firstPageRequest);
-        verify(accountRepository, times(1)).findAll(secondPageRequest);
+        verify(accountRepository, times(1)).findAllBy(firstPageRequest);
+        verify(accountRepository, times(1)).findAllBy(secondPageRequest);
         verify(accountMapper, times(1)).mapToDto(account1);
         verify(accountMapper, times(1)).mapToDto(account2);
         verify(accountMapper, times(1)).mapToDto(account3);
@@ -157,16 +243,53 @@ class AccountServiceTest {
     @DisplayName("Should retrieve an empty page when no accounts exist")
     void shouldRetrieveEmptyPageWhenNoAccountsExist() {
         PageRequest pageRequest = PageRequest.of(0, 10);
-        Page<Account> emptyPage = Page.empty();
+        Page<AccountView> emptyPage = Page.empty();
 
-        when(accountRepository.findAll(pageRequest)).thenReturn(emptyPage);
+        when(accountRepository.findAllBy(pageRequest)).thenReturn(emptyPage);
 
         Page<AccountDto> result = accountService.getAccounts(pageRequest);
 
         assertNotNull(result, "Result should not be null");
         assertThat(result.getContent()).isEmpty();
 
-        verify(accountRepository, times(1)).findAll(pageRequest);
+        verify(accountRepository, times(1)).findAllBy(pageRequest);
         verifyNoInteractions(accountMapper);
     }
+
+    @Test
+    @DisplayName("Should scroll accounts by creation time and continue after the returned cursor")
+    void shouldScrollAccountsWithCursor() {
+        Timestamp created = DateUtils.nowTimestamp();
+        AccountView account1 = new AccountView(1L, UUID.randomUUID(), "user1", BigDecimal.valueOf(100), created, null);
+        AccountView account2 = new AccountView(2L, UUID.randomUUID(), "user2", BigDecimal.valueOf(200), created, null);
+        AccountView account3 = new AccountView(3L, UUID.randomUUID(), "user3", BigDecimal.valueOf(300), created, null);
+
+        when(accountRepository.findAllByOrderByCreateDateTimeAscIdAsc(Limit.of(3))).thenReturn(List.of(account1, account2, account3));
+        when(accountRepository.findAllCreatedAfter(created, 2L, Limit.of(3))).thenReturn(List.of(account3));
+
+        CursorPageDto<AccountDto> firstPage = accountService.getAccounts(AccountSortKey.CREATE_DATE_TIME, null, 2);
+
+        assertThat(firstPage.getContent()).hasSize(2);
+        assertThat(firstPage.getNextCursor()).isNotNull();
+
+        CursorPageDto<AccountDto> secondPage = accountService.getAccounts(AccountSortKey.CREATE_DATE_TIME, firstPage.getNextCursor(), 2);
+
+        assertThat(secondPage.getContent()).hasSize(1);
+        assertThat(secondPage.getNextCursor()).isNull();
+
+        verify(accountRepository, times(1)).findAllCreatedAfter(created, 2L, Limit.of(3));
+        verify(accountRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor issued for a different sort order")
+    void shouldRejectCursorOfDifferentSortOrder() {
+        String cursor = CursorUtils.encode(AccountSortKey.ID.name(), "10");
+
+        ValidationException exception = assertThrows(ValidationException.class, () ->
+                accountService.getAccounts(AccountSortKey.CREATE_DATE_TIME, cursor, 10));
+
+        assertThat(exception.getMessage()).isEqualTo("Invalid cursor.");
+        verifyNoInteractions(accountRepository);
+    }
 }
@@ -0,0 +1,260 @@
+package ua.example.banking.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.example.banking.advice.exception.ServiceUnavailableException;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.config.properties.GroupCommitProperties;
+import ua.example.banking.config.properties.TransactionRetryProperties;
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.service.impl.GroupCommitTransactionServiceImpl;
+import ua.example.banking.service.impl.TransactionServiceImpl;
+import ua.example.banking.service.retry.TransactionRetryPolicy;
+import ua.example.banking.util.DateUtils;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCommitTransactionServiceTest {
+
+    private static final int GROUP_SIZE = 5;
+
+    @Mock
+    private TransactionServiceImpl transactionService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<SimpleTransactionStatus> statuses = Collections.synchronizedList(new ArrayList<>());
+    private SimpleMeterRegistry meterRegistry;
+    private GroupCommitProperties properties;
+    private GroupCommitTransactionServiceImpl groupCommitTransactionService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(dataSource.getConnection()).thenReturn(connection);
+        lenient().when(connection.setSavepoint()).thenReturn(mock(Savepoint.class));
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            SimpleTransactionStatus status = new SimpleTransactionStatus();
+            statuses.add(status);
+            return status;
+        });
+
+        properties = new GroupCommitProperties();
+        properties.setWindow(Duration.ofSeconds(5));
+        properties.setMaxGroupSize(GROUP_SIZE);
+
+        meterRegistry = new SimpleMeterRegistry();
+        groupCommitTransactionService = new GroupCommitTransactionServiceImpl(transactionService, entityManager,
+                dataSource, transactionManager, properties,
+                new TransactionRetryPolicy(new TransactionRetryProperties(), meterRegistry), meterRegistry);
+        groupCommitTransactionService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        groupCommitTransactionService.stop();
+    }
+
+    @Test
+    @DisplayName("Should commit concurrent transactions together and return each caller its own result")
+    void shouldCommitConcurrentTransactionsTogether() {
+        when(transactionService.createTransactionInCurrentTransaction(any())).thenAnswer(invocation -> transactionDto(invocation.getArgument(0)));
+
+        List<CreateTransactionDto> requests = new ArrayList<>();
+        List<CompletableFuture<TransactionDto>> results = new ArrayList<>();
+        for (int i = 0; i < GROUP_SIZE; i++) {
+            CreateTransactionDto request = deposit();
+            requests.add(request);
+            results.add(CompletableFuture.supplyAsync(() -> groupCommitTransactionService.createTransaction(request)));
+        }
+
+        for (int i = 0; i < GROUP_SIZE; i++) {
+            assertThat(results.get(i).join().getAccountNumberTo()).isEqualTo(requests.get(i).getTo());
+        }
+
+        DistributionSummary groupSize = meterRegistry.get("banking.group.commit.size").summary();
+        assertThat(groupSize.count()).isEqualTo(1);
+        assertThat(groupSize.totalAmount()).isEqualTo(GROUP_SIZE);
+        verify(transactionService).lockAccountsInCurrentTransaction(argThat(locked -> locked.containsAll(requests)));
+        verify(entityManager, times(GROUP_SIZE + 1)).clear();
+    }
+
+    @Test
+    @DisplayName("Should fail only the transaction that failed within its group")
+    void shouldFailOnlyTheFailedTransaction() throws SQLException {
+        CreateTransactionDto failing = deposit();
+        when(transactionService.createTransactionInCurrentTransaction(any())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0) == failing) {
+                throw new ValidationException("Insufficient funds.");
+            }
+            return transactionDto(invocation.getArgument(0));
+        });
+
+        List<CompletableFuture<TransactionDto>> results = new ArrayList<>();
+        results.add(CompletableFuture.supplyAsync(() -> groupCommitTransactionService.createTransaction(failing)));
+        for (int i = 1; i < GROUP_SIZE; i++) {
+            CreateTransactionDto request = deposit();
+            results.add(CompletableFuture.supplyAsync(() -> groupCommitTransactionService.createTransaction(request)));
+        }
+
+        CompletionException exception = assertThrows(CompletionException.class, () -> results.getFirst().join());
+        assertThat(exception.getCause()).isInstanceOf(ValidationException.class).hasMessage("Insufficient funds.");
+        for (int i = 1; i < GROUP_SIZE; i++) {
+            assertThat(results.get(i).join()).isNotNull();
+        }
+        verify(connection).rollback(any(Savepoint.class));
+        verify(entityManager, times(GROUP_SIZE + 1)).clear();
+        assertThat(meterRegistry.get("banking.group.commit.size").summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should fail only the transaction that hit a database error and commit the rest in a new group")
+    void shouldRunGroupAgainWithoutTransactionThatHitDatabaseError() {
+        CreateTransactionDto failing = deposit();
+        PersistenceException databaseError = new PersistenceException("numeric field overflow");
+        when(transactionService.createTransactionInCurrentTransaction(any())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0) == failing) {
+                // the persistence provider marks the whole transaction rollback-only on a database error
+                statuses.getLast().setRollbackOnly();
+                throw databaseError;
+            }
+            return transactionDto(invocation.getArgument(0));
+        });
+
+        List<CompletableFuture<TransactionDto>> results = new ArrayList<>();
+        results.add(CompletableFuture.supplyAsync(() -> groupCommitTransactionService.createTransaction(failing)));
+        for (int i = 1; i < GROUP_SIZE; i++) {
+            CreateTransactionDto request = deposit();
+            results.add(CompletableFuture.supplyAsync(() -> groupCommitTransactionService.createTransaction(request)));
+        }
+
+        CompletionException exception = assertThrows(CompletionException.class, () -> results.getFirst().join());
+        assertThat(exception.getCause()).isSameAs(databaseError);
+        for (int i = 1; i < GROUP_SIZE; i++) {
+            assertThat(results.get(i).join()).isNotNull();
+        }
+        assertThat(statuses).hasSize(2);
+        assertThat(statuses.getFirst().isRollbackOnly()).isTrue();
+        assertThat(statuses.getLast().isRollbackOnly()).isFalse();
+        DistributionSummary groupSize = meterRegistry.get("banking.group.commit.size").summary();
+        assertThat(groupSize.count()).isEqualTo(1);
+        assertThat(groupSize.totalAmount()).isEqualTo(GROUP_SIZE - 1);
+    }
+
+    @Test
+    @DisplayName("Should give up waiting for a transaction whose group does not start in time and drop it")
+    void shouldTimeOutWaitingForGroup() {
+        properties.setResultTimeout(Duration.ofMillis(50));
+
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                () -> groupCommitTransactionService.createTransaction(deposit()));
+
+        assertThat(exception).hasMessage("Timed out waiting for the transaction to commit.");
+        groupCommitTransactionService.stop();
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    @DisplayName("Should clear the persistence context between a deposit and a transfer on the same account in one group")
+    void shouldClearPersistenceContextBetweenRequestsOnSameAccount() {
+        UUID account = UUID.randomUUID();
+        CreateTransactionDto deposit = new CreateTransactionDto(TransactionType.DEPOSIT, null, account, BigDecimal.TEN);
+        CreateTransactionDto transfer = new CreateTransactionDto(TransactionType.TRANSFER, account, UUID.randomUUID(), BigDecimal.TEN);
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        when(transactionService.createTransactionInCurrentTransaction(any())).thenAnswer(invocation -> {
+            CreateTransactionDto request = invocation.getArgument(0);
+            events.add(request == deposit ? "deposit" : request == transfer ? "transfer" : "other");
+            return transactionDto(request);
+        });
+        doAnswer(invocation -> events.add("clear")).when(entityManager).clear();
+        doAnswer(invocation -> events.add("lock")).when(transactionService).lockAccountsInCurrentTransaction(any());
+
+        List<CompletableFuture<TransactionDto>> results = new ArrayList<>();
+        results.add(CompletableFuture.supplyAsync(() -> groupCommitTransactionService.createTransaction(deposit)));
+        results.add(CompletableFuture.supplyAsync(() -> groupCommitTransactionService.createTransaction(transfer)));
+        for (int i = 2; i < GROUP_SIZE; i++) {
+            CreateTransactionDto request = deposit();
+            results.add(CompletableFuture.supplyAsync(() -> groupCommitTransactionService.createTransaction(request)));
+        }
+        results.forEach(CompletableFuture::join);
+
+        assertThat(meterRegistry.get("banking.group.commit.size").summary().count()).isEqualTo(1);
+        assertThat(events).hasSize(GROUP_SIZE * 2 + 2).startsWith("lock", "clear").contains("deposit", "transfer");
+        for (int i = 2; i < events.size(); i += 2) {
+            assertThat(events.get(i)).isNotEqualTo("clear");
+            assertThat(events.get(i + 1)).isEqualTo("clear");
+        }
+    }
+
+    @Test
+    @DisplayName("Should join the caller's transaction instead of grouping")
+    void shouldJoinCallerTransaction() {
+        CreateTransactionDto request = deposit();
+        TransactionDto transactionDto = transactionDto(request);
+        when(transactionService.createTransaction(request)).thenReturn(transactionDto);
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThat(groupCommitTransactionService.createTransaction(request)).isSameAs(transactionDto);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        verifyNoInteractions(transactionManager);
+    }
+
+    private static CreateTransactionDto deposit() {
+        return new CreateTransactionDto(TransactionType.DEPOSIT, null, UUID.randomUUID(), BigDecimal.TEN);
+    }
+
+    private static TransactionDto transactionDto(CreateTransactionDto request) {
+        return new TransactionDto(1L, request.getTo(), request.getFrom(), request.getAmount(), request.getTransactionType(), DateUtils.nowUTC());
+    }
+}
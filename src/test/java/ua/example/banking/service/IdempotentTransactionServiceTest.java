@@ -0,0 +1,202 @@
+package ua.example.banking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.config.properties.IdempotencyProperties;
+import ua.example.banking.config.properties.TransactionRetryProperties;
+import ua.example.banking.mappers.TransactionMapper;
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.entity.IdempotencyKey;
+import ua.example.banking.model.entity.Transaction;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.repository.IdempotencyKeyRepository;
+import ua.example.banking.repository.TransactionRepository;
+import ua.example.banking.service.impl.IdempotentTransactionServiceImpl;
+import ua.example.banking.service.retry.TransactionRetryPolicy;
+import ua.example.banking.util.DateUtils;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotentTransactionServiceTest {
+
+    private static final UUID FIXED_ACCOUNT = UUID.fromString("3f1c2a9e-7b4d-4e8a-9c6f-2d5b8e1a0c47");
+
+    // SHA-256 of "DEPOSIT||3f1c2a9e-7b4d-4e8a-9c6f-2d5b8e1a0c47|100"
+    private static final String FIXED_REQUEST_HASH = "228ad99bf67ebc32fe535793cffd80f33a5c98ea5b916ae166880463ca7f7aad";
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private TransactionMapper transactionMapper;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private IdempotentTransactionServiceImpl idempotentTransactionService;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        idempotentTransactionService = new IdempotentTransactionServiceImpl(transactionService, transactionMapper,
+                transactionRepository, idempotencyKeyRepository, transactionTemplate,
+                new TransactionRetryPolicy(new TransactionRetryProperties(), meterRegistry), new IdempotencyProperties(),
+                meterRegistry);
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+    }
+
+    @Test
+    @DisplayName("Should execute the transaction once and replay it for a repeated key")
+    void shouldReplayTransactionForRepeatedKey() {
+        CreateTransactionDto request = deposit(BigDecimal.valueOf(100));
+        TransactionDto transactionDto = transactionDto(1L, request);
+
+        when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.empty());
+        when(transactionService.createTransaction(request)).thenReturn(transactionDto);
+        when(idempotencyKeyRepository.insertIfAbsent(anyString(), anyString(), anyLong(), any(Timestamp.class))).thenReturn(1);
+
+        TransactionDto first = idempotentTransactionService.createTransaction("key-1", request);
+        TransactionDto second = idempotentTransactionService.createTransaction("key-1", request);
+
+        assertThat(first).isSameAs(transactionDto);
+        assertThat(second).isSameAs(transactionDto);
+
+        verify(transactionService, times(1)).createTransaction(request);
+        verify(idempotencyKeyRepository, times(1)).findById("key-1");
+    }
+
+    @Test
+    @DisplayName("Should reject a repeated key that carries a different request")
+    void shouldRejectKeyReusedForDifferentRequest() {
+        CreateTransactionDto request = deposit(BigDecimal.valueOf(100));
+        CreateTransactionDto otherRequest = new CreateTransactionDto(TransactionType.DEPOSIT, null, request.getTo(), BigDecimal.valueOf(200));
+
+        when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.empty());
+        when(transactionService.createTransaction(request)).thenReturn(transactionDto(1L, request));
+        when(idempotencyKeyRepository.insertIfAbsent(anyString(), anyString(), anyLong(), any(Timestamp.class))).thenReturn(1);
+
+        idempotentTransactionService.createTransaction("key-1", request);
+
+        ValidationException exception = assertThrows(ValidationException.class, () ->
+                idempotentTransactionService.createTransaction("key-1", otherRequest));
+
+        assertThat(exception.getMessage()).isEqualTo("Idempotency key was already used for a different request.");
+        verify(transactionService, times(1)).createTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Should return the transaction persisted by any instance without moving money again")
+    void shouldReturnPersistedTransaction() {
+        CreateTransactionDto request = new CreateTransactionDto(TransactionType.DEPOSIT, null, FIXED_ACCOUNT, new BigDecimal("100.00"));
+        TransactionDto transactionDto = transactionDto(7L, request);
+        Transaction transaction = new Transaction(7L, request.getTo(), null, request.getAmount(), TransactionType.DEPOSIT, DateUtils.nowTimestamp());
+
+        // stored hash of this request, as computed by any instance at any time
+        IdempotencyKey stored = new IdempotencyKey("key-1", FIXED_REQUEST_HASH, 7L, DateUtils.nowTimestamp());
+        when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.of(stored));
+        when(transactionRepository.findById(7L)).thenReturn(Optional.of(transaction));
+        when(transactionMapper.mapToDto(transaction)).thenReturn(transactionDto);
+
+        TransactionDto result = idempotentTransactionService.createTransaction("key-1", request);
+
+        assertThat(result).isSameAs(transactionDto);
+        verifyNoInteractions(transactionService);
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("Should coalesce concurrent requests with the same key into one execution")
+    void shouldCoalesceConcurrentDuplicates() throws Exception {
+        CreateTransactionDto request = deposit(BigDecimal.valueOf(100));
+        TransactionDto transactionDto = transactionDto(1L, request);
+        CountDownLatch executing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.insertIfAbsent(anyString(), anyString(), anyLong(), any(Timestamp.class))).thenReturn(1);
+        when(transactionService.createTransaction(request)).thenAnswer(invocation -> {
+            executing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return transactionDto;
+        });
+
+        CompletableFuture<TransactionDto> leader = CompletableFuture.supplyAsync(() ->
+                idempotentTransactionService.createTransaction("key-1", request));
+        assertThat(executing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<TransactionDto> follower = CompletableFuture.supplyAsync(() ->
+                idempotentTransactionService.createTransaction("key-1", request));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isSameAs(transactionDto);
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(transactionDto);
+        verify(transactionService, times(1)).createTransaction(request);
+    }
+
+    @Test
+    @DisplayName("Should replay the transaction stored by a concurrent request on another instance")
+    void shouldReplayTransactionStoredConcurrently() {
+        CreateTransactionDto request = new CreateTransactionDto(TransactionType.DEPOSIT, null, FIXED_ACCOUNT, BigDecimal.valueOf(100));
+        TransactionDto ownTransaction = transactionDto(1L, request);
+        TransactionDto storedTransaction = transactionDto(2L, request);
+        Transaction transaction = new Transaction(2L, request.getTo(), null, request.getAmount(), TransactionType.DEPOSIT, DateUtils.nowTimestamp());
+
+        when(idempotencyKeyRepository.findById("key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new IdempotencyKey("key-1", FIXED_REQUEST_HASH, 2L, DateUtils.nowTimestamp())));
+        when(transactionService.createTransaction(request)).thenReturn(ownTransaction);
+        when(idempotencyKeyRepository.insertIfAbsent(anyString(), anyString(), anyLong(), any(Timestamp.class))).thenReturn(0);
+        when(transactionRepository.findById(2L)).thenReturn(Optional.of(transaction));
+        when(transactionMapper.mapToDto(transaction)).thenReturn(storedTransaction);
+
+        TransactionDto result = idempotentTransactionService.createTransaction("key-1", request);
+
+        assertThat(result).isSameAs(storedTransaction);
+    }
+
+    private static CreateTransactionDto deposit(BigDecimal amount) {
+        return new CreateTransactionDto(TransactionType.DEPOSIT, null, UUID.randomUUID(), amount);
+    }
+
+    private static TransactionDto transactionDto(Long id, CreateTransactionDto request) {
+        return new TransactionDto(id, request.getTo(), request.getFrom(), request.getAmount(), request.getTransactionType(), DateUtils.nowUTC());
+    }
+}
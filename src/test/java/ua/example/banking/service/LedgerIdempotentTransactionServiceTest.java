@@ -0,0 +1,30 @@
+package ua.example.banking.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.service.impl.LedgerIdempotentTransactionServiceImpl;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LedgerIdempotentTransactionServiceTest {
+
+    private final LedgerIdempotentTransactionServiceImpl idempotentTransactionService = new LedgerIdempotentTransactionServiceImpl();
+
+    @Test
+    @DisplayName("Should reject idempotency keys in ledger mode")
+    void shouldRejectIdempotencyKey() {
+        CreateTransactionDto request = new CreateTransactionDto(TransactionType.DEPOSIT, null, UUID.randomUUID(), BigDecimal.TEN);
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> idempotentTransactionService.createTransaction("key-1", request));
+
+        assertThat(exception).hasMessage("Idempotency keys are not supported in ledger mode.");
+    }
+}
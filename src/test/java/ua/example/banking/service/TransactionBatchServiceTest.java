@@ -0,0 +1,204 @@
+package ua.example.banking.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ua.example.banking.mappers.TransactionMapper;
+import ua.example.banking.model.dto.transaction.CreateTransactionBatchDto;
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionBatchDto;
+import ua.example.banking.model.dto.transaction.TransactionBatchItemDto;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.entity.Account;
+import ua.example.banking.model.entity.Transaction;
+import ua.example.banking.model.enums.BatchItemStatus;
+import ua.example.banking.model.enums.BatchMode;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.repository.jdbc.AccountJdbcRepository;
+import ua.example.banking.repository.jdbc.TransactionJdbcRepository;
+import ua.example.banking.service.bucket.BalanceBucketManager;
+import ua.example.banking.service.cache.AccountCache;
+import ua.example.banking.service.impl.TransactionBatchServiceImpl;
+import ua.example.banking.service.lock.AccountLockManager;
+import ua.example.banking.util.DateUtils;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBatchServiceTest {
+
+    @Mock
+    private TransactionMapper transactionMapper;
+
+    @Mock
+    private AccountLockManager accountLockManager;
+
+    @Mock
+    private AccountJdbcRepository accountJdbcRepository;
+
+    @Mock
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Mock
+    private AccountCache accountCache;
+
+    @Mock
+    private BalanceBucketManager balanceBucketManager;
+
+    @InjectMocks
+    private TransactionBatchServiceImpl transactionBatchService;
+
+    @Test
+    @DisplayName("Should apply successful items and report failed ones in per-item mode")
+    void shouldApplySuccessfulItemsInPerItemMode() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+
+        CreateTransactionBatchDto batch = new CreateTransactionBatchDto(BatchMode.PER_ITEM, List.of(
+                new CreateTransactionDto(TransactionType.DEPOSIT, null, first, BigDecimal.valueOf(100)),
+                new CreateTransactionDto(TransactionType.TRANSFER, first, second, BigDecimal.valueOf(150)),
+                new CreateTransactionDto(TransactionType.WITHDRAW, second, null, BigDecimal.valueOf(500)),
+                new CreateTransactionDto(TransactionType.TRANSFER, second, unknown, BigDecimal.valueOf(10))
+        ));
+
+        when(accountLockManager.lockAccountsForUpdate(Set.of(first, second, unknown))).thenReturn(Map.of(
+                first, account(1L, first, BigDecimal.valueOf(100)),
+                second, account(2L, second, BigDecimal.valueOf(200))
+        ));
+        doAnswer(invocation -> {
+            List<Transaction> transactions = invocation.getArgument(0);
+            for (int i = 0; i < transactions.size(); i++) {
+                transactions.get(i).setId(i + 1L);
+            }
+            return null;
+        }).when(transactionJdbcRepository).insertAll(anyList());
+        when(transactionMapper.mapToDto(any(Transaction.class))).thenAnswer(invocation -> toDto(invocation.getArgument(0)));
+
+        TransactionBatchDto result = transactionBatchService.createTransactions(batch);
+
+        assertThat(result.getSucceeded()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getResults()).extracting(TransactionBatchItemDto::getStatus).containsExactly(
+                BatchItemStatus.SUCCEEDED, BatchItemStatus.SUCCEEDED, BatchItemStatus.FAILED, BatchItemStatus.FAILED);
+        assertThat(result.getResults()).extracting(TransactionBatchItemDto::getError).containsExactly(
+                null, null, "Insufficient funds.", "Target account not found.");
+        assertThat(result.getResults().get(1).getTransaction().getId()).isEqualTo(2L);
+
+        ArgumentCaptor<Map<UUID, BigDecimal>> balanceChanges = ArgumentCaptor.captor();
+        verify(accountJdbcRepository, times(1)).addToBalances(balanceChanges.capture(), any(Timestamp.class));
+        assertThat(balanceChanges.getValue().get(first)).isEqualByComparingTo("-50");
+        assertThat(balanceChanges.getValue().get(second)).isEqualByComparingTo("150");
+
+        ArgumentCaptor<List<Transaction>> inserted = ArgumentCaptor.captor();
+        verify(transactionJdbcRepository, times(1)).insertAll(inserted.capture());
+        assertThat(inserted.getValue()).extracting(Transaction::getTransactionType)
+                .containsExactly(TransactionType.DEPOSIT, TransactionType.TRANSFER);
+    }
+
+    @Test
+    @DisplayName("Should write nothing when an item fails in all-or-nothing mode")
+    void shouldRejectWholeBatchInAllOrNothingMode() {
+        UUID accountNumber = UUID.randomUUID();
+
+        CreateTransactionBatchDto batch = new CreateTransactionBatchDto(BatchMode.ALL_OR_NOTHING, List.of(
+                new CreateTransactionDto(TransactionType.WITHDRAW, accountNumber, null, BigDecimal.valueOf(60)),
+                new CreateTransactionDto(TransactionType.WITHDRAW, accountNumber, null, BigDecimal.valueOf(60)),
+                new CreateTransactionDto(TransactionType.DEPOSIT, null, accountNumber, BigDecimal.valueOf(60))
+        ));
+
+        when(accountLockManager.lockAccountsForUpdate(Set.of(accountNumber)))
+                .thenReturn(Map.of(accountNumber, account(1L, accountNumber, BigDecimal.valueOf(100))));
+
+        TransactionBatchDto result = transactionBatchService.createTransactions(batch);
+
+        assertThat(result.getSucceeded()).isZero();
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getResults()).extracting(TransactionBatchItemDto::getStatus).containsExactly(
+                BatchItemStatus.ROLLED_BACK, BatchItemStatus.FAILED, BatchItemStatus.ROLLED_BACK);
+        assertThat(result.getResults().get(1).getError()).isEqualTo("Insufficient funds.");
+
+        verifyNoInteractions(accountJdbcRepository);
+        verifyNoInteractions(transactionJdbcRepository);
+        verifyNoInteractions(transactionMapper);
+        verifyNoInteractions(accountCache);
+    }
+
+    @Test
+    @DisplayName("Should insert every transaction of a fully successful batch in one call")
+    void shouldInsertAllTransactionsInOneBatch() {
+        UUID accountNumber = UUID.randomUUID();
+
+        CreateTransactionBatchDto batch = new CreateTransactionBatchDto(BatchMode.ALL_OR_NOTHING, List.of(
+                new CreateTransactionDto(TransactionType.DEPOSIT, null, accountNumber, BigDecimal.valueOf(10)),
+                new CreateTransactionDto(TransactionType.DEPOSIT, null, accountNumber, BigDecimal.valueOf(20)),
+                new CreateTransactionDto(TransactionType.WITHDRAW, accountNumber, null, BigDecimal.valueOf(5))
+        ));
+
+        when(accountLockManager.lockAccountsForUpdate(Set.of(accountNumber)))
+                .thenReturn(Map.of(accountNumber, account(1L, accountNumber, BigDecimal.ZERO)));
+
+        TransactionBatchDto result = transactionBatchService.createTransactions(batch);
+
+        assertThat(result.getSucceeded()).isEqualTo(3);
+        assertThat(result.getFailed()).isZero();
+
+        verify(accountJdbcRepository, times(1)).addToBalances(
+                eq(Map.of(accountNumber, BigDecimal.valueOf(25))), any(Timestamp.class));
+        verify(transactionJdbcRepository, times(1)).insertAll(anyList());
+        verify(accountCache, times(1)).evict(Set.of(accountNumber));
+    }
+
+    @Test
+    @DisplayName("Should drain the balance buckets of an account whose balance does not cover a batch debit")
+    void shouldDrainBalanceBucketsForBatchDebit() {
+        UUID accountNumber = UUID.randomUUID();
+
+        CreateTransactionBatchDto batch = new CreateTransactionBatchDto(BatchMode.ALL_OR_NOTHING, List.of(
+                new CreateTransactionDto(TransactionType.WITHDRAW, accountNumber, null, BigDecimal.valueOf(60)),
+                new CreateTransactionDto(TransactionType.WITHDRAW, accountNumber, null, BigDecimal.valueOf(30))
+        ));
+
+        when(accountLockManager.lockAccountsForUpdate(Set.of(accountNumber)))
+                .thenReturn(Map.of(accountNumber, account(1L, accountNumber, BigDecimal.TEN)));
+        when(balanceBucketManager.drain(accountNumber)).thenReturn(Optional.of(BigDecimal.valueOf(90)));
+
+        TransactionBatchDto result = transactionBatchService.createTransactions(batch);
+
+        assertThat(result.getSucceeded()).isEqualTo(2);
+        assertThat(result.getFailed()).isZero();
+
+        verify(balanceBucketManager, times(1)).drain(accountNumber);
+        verify(accountJdbcRepository).addToBalances(eq(Map.of(accountNumber, BigDecimal.valueOf(90))), any(Timestamp.class));
+        verify(accountJdbcRepository).addToBalances(eq(Map.of(accountNumber, BigDecimal.valueOf(-90))), any(Timestamp.class));
+    }
+
+    private static Account account(Long id, UUID accountNumber, BigDecimal balance) {
+        return new Account(id, accountNumber, "User" + id, balance, DateUtils.nowTimestamp(), null, 0L);
+    }
+
+    private static TransactionDto toDto(Transaction transaction) {
+        return new TransactionDto(transaction.getId(), transaction.getAccountNumberTo(), transaction.getAccountNumberFrom(),
+                transaction.getAmount(), transaction.getTransactionType(), DateUtils.timestampToOffsetDateTime(transaction.getCreateDateTime()));
+    }
+}
@@ -0,0 +1,118 @@
+package ua.example.banking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionHistoryFilter;
+import ua.example.banking.model.enums.ExportFormat;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.repository.jdbc.TransactionExportJdbcRepository;
+import ua.example.banking.service.impl.TransactionExportServiceImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    private static final UUID ACCOUNT_NUMBER = UUID.fromString("6f1c1f7e-54b4-4c39-9a55-5f1a9d8e0c11");
+    private static final OffsetDateTime CREATE_DATE_TIME = OffsetDateTime.of(2024, 5, 1, 10, 15, 30, 0, ZoneOffset.UTC);
+
+    @Mock
+    private TransactionExportJdbcRepository transactionExportJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionExportServiceImpl transactionExportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        transactionExportService = new TransactionExportServiceImpl(transactionExportJdbcRepository, objectMapper, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should stream transactions as CSV inside a read-only transaction")
+    void shouldExportTransactionsAsCsv() throws Exception {
+        TransactionHistoryFilter filter = new TransactionHistoryFilter();
+        streamTwoTransactions(filter);
+
+        String export = export(ExportFormat.CSV, filter);
+
+        assertThat(export).isEqualTo("""
+                id,account_number_to,account_number_from,amount,transaction_type,create_date_time
+                1,6f1c1f7e-54b4-4c39-9a55-5f1a9d8e0c11,,100.00,DEPOSIT,2024-05-01T10:15:30Z
+                2,,6f1c1f7e-54b4-4c39-9a55-5f1a9d8e0c11,25.50,WITHDRAW,2024-05-01T10:15:30Z
+                """);
+    }
+
+    @Test
+    @DisplayName("Should stream transactions as newline-delimited JSON")
+    void shouldExportTransactionsAsNdjson() throws Exception {
+        TransactionHistoryFilter filter = new TransactionHistoryFilter();
+        streamTwoTransactions(filter);
+
+        String export = export(ExportFormat.NDJSON, filter);
+        String[] lines = export.split("\n");
+
+        assertThat(export).endsWith("}\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"id\":1,").contains("\"transactionType\":\"DEPOSIT\"");
+        assertThat(lines[1]).startsWith("{\"id\":2,").contains("\"amount\":25.50");
+    }
+
+    @Test
+    @DisplayName("Should reject an empty date range before streaming starts")
+    void shouldRejectEmptyDateRange() {
+        TransactionHistoryFilter filter = new TransactionHistoryFilter(null, CREATE_DATE_TIME, CREATE_DATE_TIME);
+
+        assertThrows(ValidationException.class, () ->
+                transactionExportService.exportTransactions(ExportFormat.CSV, ACCOUNT_NUMBER, filter));
+
+        verifyNoInteractions(transactionExportJdbcRepository);
+    }
+
+    private void streamTwoTransactions(TransactionHistoryFilter filter) {
+        when(transactionManager.getTransaction(argThat(TransactionDefinition::isReadOnly))).thenReturn(new SimpleTransactionStatus());
+        doAnswer(invocation -> {
+            Consumer<TransactionDto> consumer = invocation.getArgument(2);
+            consumer.accept(new TransactionDto(1L, ACCOUNT_NUMBER, null, new BigDecimal("100.00"), TransactionType.DEPOSIT, CREATE_DATE_TIME));
+            consumer.accept(new TransactionDto(2L, null, ACCOUNT_NUMBER, new BigDecimal("25.50"), TransactionType.WITHDRAW, CREATE_DATE_TIME));
+            return null;
+        }).when(transactionExportJdbcRepository).streamTransactions(eq(ACCOUNT_NUMBER), eq(filter), any());
+    }
+
+    private String export(ExportFormat format, TransactionHistoryFilter filter) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        transactionExportService.exportTransactions(format, ACCOUNT_NUMBER, filter).writeTo(outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,104 @@
+package ua.example.banking.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ua.example.banking.advice.exception.DataNotFoundException;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.model.dto.CursorPageDto;
+import ua.example.banking.model.dto.transaction.TransactionDto;
+import ua.example.banking.model.dto.transaction.TransactionHistoryFilter;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.monitoring.LogSampler;
+import ua.example.banking.repository.AccountRepository;
+import ua.example.banking.repository.jdbc.TransactionHistoryJdbcRepository;
+import ua.example.banking.service.impl.TransactionHistoryServiceImpl;
+import ua.example.banking.util.DateUtils;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionHistoryServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionHistoryJdbcRepository transactionHistoryJdbcRepository;
+
+    @Mock
+    private LogSampler logSampler;
+
+    @InjectMocks
+    private TransactionHistoryServiceImpl transactionHistoryService;
+
+    @Test
+    @DisplayName("Should return a page of transactions and continue from the returned cursor")
+    void shouldPageThroughAccountTransactions() {
+        UUID accountNumber = UUID.randomUUID();
+        TransactionHistoryFilter filter = new TransactionHistoryFilter(Set.of(TransactionType.DEPOSIT), null, null);
+        OffsetDateTime now = DateUtils.nowUTC();
+        TransactionDto newest = transaction(3L, accountNumber, now);
+        TransactionDto middle = transaction(2L, accountNumber, now.minusSeconds(1));
+        TransactionDto oldest = transaction(1L, accountNumber, now.minusSeconds(2));
+
+        when(accountRepository.existsByAccountNumber(accountNumber)).thenReturn(true);
+        when(transactionHistoryJdbcRepository.findAccountHistory(accountNumber, filter, null, null, 3))
+                .thenReturn(List.of(newest, middle, oldest));
+        when(transactionHistoryJdbcRepository.findAccountHistory(accountNumber, filter,
+                DateUtils.offsetDateTimeToTimestamp(middle.getCreateDateTime()), 2L, 3))
+                .thenReturn(List.of(oldest));
+
+        CursorPageDto<TransactionDto> firstPage = transactionHistoryService.getAccountTransactions(accountNumber, filter, null, 2);
+
+        assertThat(firstPage.getContent()).containsExactly(newest, middle);
+        assertThat(firstPage.getNextCursor()).isNotNull();
+
+        CursorPageDto<TransactionDto> secondPage = transactionHistoryService.getAccountTransactions(
+                accountNumber, filter, firstPage.getNextCursor(), 2);
+
+        assertThat(secondPage.getContent()).containsExactly(oldest);
+        assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should throw exception when the account does not exist")
+    void shouldThrowExceptionWhenAccountNotFound() {
+        UUID accountNumber = UUID.randomUUID();
+        when(accountRepository.existsByAccountNumber(accountNumber)).thenReturn(false);
+
+        assertThrows(DataNotFoundException.class, () -> transactionHistoryService.getAccountTransactions(
+                accountNumber, new TransactionHistoryFilter(), null, 20));
+
+        verifyNoInteractions(transactionHistoryJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject an empty date range")
+    void shouldRejectEmptyDateRange() {
+        OffsetDateTime now = DateUtils.nowUTC();
+        TransactionHistoryFilter filter = new TransactionHistoryFilter(null, now, now.minusDays(1));
+
+        ValidationException exception = assertThrows(ValidationException.class, () ->
+                transactionHistoryService.getAccountTransactions(UUID.randomUUID(), filter, null, 20));
+
+        assertThat(exception.getMessage()).isEqualTo("fromDate must be before toDate.");
+        verifyNoInteractions(accountRepository);
+    }
+
+    private static TransactionDto transaction(Long id, UUID accountNumber, OffsetDateTime createDateTime) {
+        return new TransactionDto(id, accountNumber, null, BigDecimal.TEN, TransactionType.DEPOSIT, createDateTime);
+    }
+}
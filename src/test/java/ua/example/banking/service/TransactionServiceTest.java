@@ -1,35 +1,57 @@
 package ua.example.banking.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import ua.example.banking.advice.exception.BankingException;
 import ua.example.banking.advice.exception.DataNotFoundException;
+import ua.example.banking.config.properties.TransactionRetryProperties;
 import ua.example.banking.mappers.TransactionMapper;
 import ua.example.banking.model.dto.transaction.CreateTransactionDto;
 import ua.example.banking.model.dto.transaction.TransactionDto;
 import ua.example.banking.model.entity.Account;
 import ua.example.banking.model.entity.Transaction;
 import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.monitoring.LogSampler;
 import ua.example.banking.repository.AccountRepository;
 import ua.example.banking.repository.TransactionRepository;
+import ua.example.banking.service.bucket.BalanceBucketManager;
+import ua.example.banking.service.cache.AccountCache;
 import ua.example.banking.service.impl.TransactionServiceImpl;
+import ua.example.banking.service.lock.AccountLockManager;
+import ua.example.banking.service.retry.TransactionRetryPolicy;
 import ua.example.banking.util.DateUtils;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -47,9 +69,37 @@ class TransactionServiceTest {
     @Mock
     private TransactionMapper transactionMapper;
 
+    @Mock
+    private AccountLockManager accountLockManager;
+
+    @Mock
+    private AccountCache accountCache;
+
+    @Mock
+    private LogSampler logSampler;
+
+    @Mock
+    private BalanceBucketManager balanceBucketManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private TransactionRetryPolicy transactionRetryPolicy =
+            new TransactionRetryPolicy(new TransactionRetryProperties(), new SimpleMeterRegistry());
+
     @InjectMocks
     private TransactionServiceImpl transactionService;
 
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(TransactionServiceTest::runInTransaction).when(transactionTemplate).execute(any());
+    }
+
+    private static Object runInTransaction(InvocationOnMock invocation) {
+        return invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class));
+    }
+
     @Nested
     @DisplayName("Deposit Transaction Tests")
     class DepositTransactionTests {
@@ -61,14 +111,11 @@ class TransactionServiceTest {
             BigDecimal amount = BigDecimal.valueOf(1000);
             CreateTransactionDto createTransactionDto = new CreateTransactionDto(TransactionType.DEPOSIT, null, accountNumber, amount);
 
-            Account account = new Account(1L, accountNumber, "User1", BigDecimal.valueOf(5000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
-            Account updatedAccount = new Account(1L, accountNumber, "User1", BigDecimal.valueOf(6000), account.getCreateDateTime(), DateUtils.nowTimestamp());
-
             Transaction transaction = new Transaction(accountNumber, null, amount, TransactionType.DEPOSIT, DateUtils.nowTimestamp());
             TransactionDto transactionDto = new TransactionDto(1L, accountNumber, null, amount, TransactionType.DEPOSIT, DateUtils.nowUTC());
 
-            when(accountRepository.findByAccountNumber(accountNumber)).thenReturn(Optional.of(account));
-            when(accountRepository.save(account)).thenReturn(updatedAccount);
+            when(accountRepository.creditBalance(eq(accountNumber), eq(amount), any(Timestamp.class)))
+                    .thenReturn(Optional.of(BigDecimal.valueOf(6000)));
             when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
             when(transactionMapper.mapToDto(transaction)).thenReturn(transactionDto);
 
@@ -79,9 +126,32 @@ class TransactionServiceTest {
             assertThat(result.getAmount()).isEqualTo(amount);
             assertThat(result.getTransactionType()).isEqualTo(TransactionType.DEPOSIT);
 
-            verify(accountRepository, times(1)).findByAccountNumber(accountNumber);
-            verify(accountRepository, times(1)).save(account);
+            verify(accountRepository, times(1)).creditBalance(eq(accountNumber), eq(amount), any(Timestamp.class));
+            verify(accountRepository, never()).findByAccountNumber(accountNumber);
+            verify(accountRepository, never()).save(any(Account.class));
             verify(transactionRepository, times(1)).save(any(Transaction.class));
+            verify(accountCache, times(1)).evict(List.of(accountNumber));
+        }
+
+        @Test
+        @DisplayName("Should credit a balance bucket instead of the account row of a bucketed account")
+        void shouldDepositIntoBalanceBucket() {
+            UUID accountNumber = UUID.randomUUID();
+            BigDecimal amount = BigDecimal.valueOf(1000);
+            CreateTransactionDto createTransactionDto = new CreateTransactionDto(TransactionType.DEPOSIT, null, accountNumber, amount);
+
+            Transaction transaction = new Transaction(accountNumber, null, amount, TransactionType.DEPOSIT, DateUtils.nowTimestamp());
+            TransactionDto transactionDto = new TransactionDto(1L, accountNumber, null, amount, TransactionType.DEPOSIT, DateUtils.nowUTC());
+
+            when(balanceBucketManager.credit(accountNumber, amount)).thenReturn(true);
+            when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
+            when(transactionMapper.mapToDto(transaction)).thenReturn(transactionDto);
+
+            TransactionDto result = transactionService.createTransaction(createTransactionDto);
+
+            assertThat(result).isEqualTo(transactionDto);
+            verify(accountRepository, never()).creditBalance(any(), any(), any());
+            verify(accountCache, times(1)).evict(List.of(accountNumber));
         }
 
         @Test
@@ -91,7 +161,8 @@ class TransactionServiceTest {
             BigDecimal amount = BigDecimal.valueOf(1000);
             CreateTransactionDto createTransactionDto = new CreateTransactionDto(TransactionType.DEPOSIT, null, accountNumber, amount);
 
-            when(accountRepository.findByAccountNumber(accountNumber)).thenReturn(Optional.empty());
+            when(accountRepository.creditBalance(eq(accountNumber), eq(amount), any(Timestamp.class)))
+                    .thenReturn(Optional.empty());
 
             DataNotFoundException exception = assertThrows(DataNotFoundException.class, () ->
                     transactionService.createTransaction(createTransactionDto)
@@ -99,7 +170,7 @@ class TransactionServiceTest {
 
             assertThat(exception.getMessage()).isEqualTo("Target account not found.");
 
-            verify(accountRepository, times(1)).findByAccountNumber(accountNumber);
+            verify(accountRepository, times(1)).creditBalance(eq(accountNumber), eq(amount), any(Timestamp.class));
             verifyNoInteractions(transactionRepository);
             verifyNoInteractions(transactionMapper);
         }
@@ -116,14 +187,11 @@ class TransactionServiceTest {
             BigDecimal amount = BigDecimal.valueOf(1000);
             CreateTransactionDto createTransactionDto = new CreateTransactionDto(TransactionType.WITHDRAW, accountNumber, null, amount);
 
-            Account account = new Account(1L, accountNumber, "User1", BigDecimal.valueOf(5000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
-            Account updatedAccount = new Account(1L, accountNumber, "User1", BigDecimal.valueOf(4000), account.getCreateDateTime(), DateUtils.nowTimestamp());
-
             Transaction transaction = new Transaction(null, accountNumber, amount, TransactionType.WITHDRAW, DateUtils.nowTimestamp());
             TransactionDto transactionDto = new TransactionDto(1L, null, accountNumber, amount, TransactionType.WITHDRAW, DateUtils.nowUTC());
 
-            when(accountRepository.findByAccountNumber(accountNumber)).thenReturn(Optional.of(account));
-            when(accountRepository.save(account)).thenReturn(updatedAccount);
+            when(accountRepository.debitBalance(eq(accountNumber), eq(amount), any(Timestamp.class)))
+                    .thenReturn(Optional.of(BigDecimal.valueOf(4000)));
             when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
             when(transactionMapper.mapToDto(transaction)).thenReturn(transactionDto);
 
@@ -134,9 +202,39 @@ class TransactionServiceTest {
             assertThat(result.getAmount()).isEqualTo(amount);
             assertThat(result.getTransactionType()).isEqualTo(TransactionType.WITHDRAW);
 
-            verify(accountRepository, times(1)).findByAccountNumber(accountNumber);
-            verify(accountRepository, times(1)).save(account);
+            verify(accountRepository, times(1)).debitBalance(eq(accountNumber), eq(amount), any(Timestamp.class));
+            verify(accountRepository, never()).existsByAccountNumber(accountNumber);
+            verify(accountRepository, never()).save(any(Account.class));
             verify(transactionRepository, times(1)).save(any(Transaction.class));
+            verify(accountCache, times(1)).evict(List.of(accountNumber));
+        }
+
+        @Test
+        @DisplayName("Should move balance buckets into the balance when it does not cover the withdrawal")
+        void shouldWithdrawFundsHeldInBalanceBuckets() {
+            UUID accountNumber = UUID.randomUUID();
+            BigDecimal amount = BigDecimal.valueOf(1000);
+            BigDecimal drained = BigDecimal.valueOf(800);
+            CreateTransactionDto createTransactionDto = new CreateTransactionDto(TransactionType.WITHDRAW, accountNumber, null, amount);
+
+            Transaction transaction = new Transaction(null, accountNumber, amount, TransactionType.WITHDRAW, DateUtils.nowTimestamp());
+            TransactionDto transactionDto = new TransactionDto(1L, null, accountNumber, amount, TransactionType.WITHDRAW, DateUtils.nowUTC());
+
+            when(accountRepository.debitBalance(eq(accountNumber), eq(amount), any(Timestamp.class)))
+                    .thenReturn(Optional.empty())
+                    .thenReturn(Optional.of(BigDecimal.valueOf(300)));
+            when(balanceBucketManager.isBucketed(accountNumber)).thenReturn(true);
+            when(balanceBucketManager.drain(accountNumber)).thenReturn(Optional.of(drained));
+            when(accountRepository.creditBalance(eq(accountNumber), eq(drained), any(Timestamp.class)))
+                    .thenReturn(Optional.of(BigDecimal.valueOf(1300)));
+            when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
+            when(transactionMapper.mapToDto(transaction)).thenReturn(transactionDto);
+
+            TransactionDto result = transactionService.createTransaction(createTransactionDto);
+
+            assertThat(result).isEqualTo(transactionDto);
+            verify(accountLockManager, times(1)).lockAccounts(List.of(accountNumber));
+            verify(accountRepository, times(2)).debitBalance(eq(accountNumber), eq(amount), any(Timestamp.class));
         }
 
         @Test
@@ -146,15 +244,16 @@ class TransactionServiceTest {
             BigDecimal amount = BigDecimal.valueOf(10000);
             CreateTransactionDto createTransactionDto = new CreateTransactionDto(TransactionType.WITHDRAW, accountNumber, null, amount);
 
-            Account account = new Account(1L, accountNumber, "User1", BigDecimal.valueOf(5000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
-
-            when(accountRepository.findByAccountNumber(accountNumber)).thenReturn(Optional.of(account));
+            when(accountRepository.debitBalance(eq(accountNumber), eq(amount), any(Timestamp.class)))
+                    .thenReturn(Optional.empty());
+            when(accountRepository.existsByAccountNumber(accountNumber)).thenReturn(true);
 
             RuntimeException exception = assertThrows(RuntimeException.class, () -> transactionService.createTransaction(createTransactionDto));
 
             assertThat(exception.getMessage()).isEqualTo("Insufficient funds.");
 
-            verify(accountRepository, times(1)).findByAccountNumber(accountNumber);
+            verify(accountRepository, times(1)).debitBalance(eq(accountNumber), eq(amount), any(Timestamp.class));
+            verify(accountRepository, times(1)).existsByAccountNumber(accountNumber);
             verifyNoInteractions(transactionRepository);
         }
 
@@ -165,7 +264,9 @@ class TransactionServiceTest {
             BigDecimal amount = BigDecimal.valueOf(1000);
             CreateTransactionDto createTransactionDto = new CreateTransactionDto(TransactionType.WITHDRAW, accountNumber, null, amount);
 
-            when(accountRepository.findByAccountNumber(accountNumber)).thenReturn(Optional.empty());
+            when(accountRepository.debitBalance(eq(accountNumber), eq(amount), any(Timestamp.class)))
+                    .thenReturn(Optional.empty());
+            when(accountRepository.existsByAccountNumber(accountNumber)).thenReturn(false);
 
             DataNotFoundException exception = assertThrows(DataNotFoundException.class, () ->
                     transactionService.createTransaction(createTransactionDto)
@@ -173,7 +274,8 @@ class TransactionServiceTest {
 
             assertThat(exception.getMessage()).isEqualTo("Source account not found.");
 
-            verify(accountRepository, times(1)).findByAccountNumber(accountNumber);
+            verify(accountRepository, times(1)).debitBalance(eq(accountNumber), eq(amount), any(Timestamp.class));
+            verify(accountRepository, times(1)).existsByAccountNumber(accountNumber);
             verifyNoInteractions(transactionRepository);
         }
     }
@@ -190,16 +292,16 @@ class TransactionServiceTest {
             BigDecimal amount = BigDecimal.valueOf(1000);
             CreateTransactionDto createTransactionDto = new CreateTransactionDto(TransactionType.TRANSFER, fromAccountNumber, toAccountNumber, amount);
 
-            Account fromAccount = new Account(1L, fromAccountNumber, "User1", BigDecimal.valueOf(5000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
-            Account toAccount = new Account(2L, toAccountNumber, "User2", BigDecimal.valueOf(2000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
-            Account updatedFromAccount = new Account(1L, fromAccountNumber, "User1", BigDecimal.valueOf(4000), fromAccount.getCreateDateTime(), DateUtils.nowTimestamp());
-            Account updatedToAccount = new Account(2L, toAccountNumber, "User2", BigDecimal.valueOf(3000), toAccount.getCreateDateTime(), DateUtils.nowTimestamp());
+            Account fromAccount = new Account(1L, fromAccountNumber, "User1", BigDecimal.valueOf(5000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp(), 0L);
+            Account toAccount = new Account(2L, toAccountNumber, "User2", BigDecimal.valueOf(2000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp(), 0L);
+            Account updatedFromAccount = new Account(1L, fromAccountNumber, "User1", BigDecimal.valueOf(4000), fromAccount.getCreateDateTime(), DateUtils.nowTimestamp(), 0L);
+            Account updatedToAccount = new Account(2L, toAccountNumber, "User2", BigDecimal.valueOf(3000), toAccount.getCreateDateTime(), DateUtils.nowTimestamp(), 0L);
 
             Transaction transaction = new Transaction(1L, toAccountNumber, fromAccountNumber, amount, TransactionType.TRANSFER, DateUtils.nowTimestamp());
             TransactionDto transactionDto = new TransactionDto(1L, toAccountNumber, fromAccountNumber, amount, TransactionType.TRANSFER, DateUtils.nowUTC());
 
-            when(accountRepository.findByAccountNumber(fromAccountNumber)).thenReturn(Optional.of(fromAccount));
-            when(accountRepository.findByAccountNumber(toAccountNumber)).thenReturn(Optional.of(toAccount));
+            when(accountLockManager.lockAccounts(List.of(fromAccountNumber, toAccountNumber)))
+                    .thenReturn(Map.of(fromAccountNumber, fromAccount, toAccountNumber, toAccount));
             when(accountRepository.saveAll(List.of(toAccount, fromAccount))).thenReturn(List.of(updatedToAccount, updatedFromAccount));
             when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
             when(transactionMapper.mapToDto(transaction)).thenReturn(transactionDto);
@@ -212,11 +314,39 @@ class TransactionServiceTest {
             assertThat(result.getAmount()).isEqualTo(amount);
             assertThat(result.getTransactionType()).isEqualTo(TransactionType.TRANSFER);
 
-            verify(accountRepository, times(1)).findByAccountNumber(fromAccountNumber);
-            verify(accountRepository, times(1)).findByAccountNumber(toAccountNumber);
+            verify(accountLockManager, times(1)).lockAccounts(List.of(fromAccountNumber, toAccountNumber));
             verify(accountRepository, times(1)).saveAll(argThat((List<Account> accounts) ->
                     accounts.contains(fromAccount) && accounts.contains(toAccount)));
             verify(transactionRepository, times(1)).save(any(Transaction.class));
+            verify(accountCache, times(1)).evict(List.of(toAccountNumber, fromAccountNumber));
+        }
+
+        @Test
+        @DisplayName("Should lock only the sender when the receiver has balance buckets")
+        void shouldTransferIntoBalanceBucket() {
+            UUID fromAccountNumber = UUID.randomUUID();
+            UUID toAccountNumber = UUID.randomUUID();
+            BigDecimal amount = BigDecimal.valueOf(1000);
+            CreateTransactionDto createTransactionDto = new CreateTransactionDto(TransactionType.TRANSFER, fromAccountNumber, toAccountNumber, amount);
+
+            Account fromAccount = new Account(1L, fromAccountNumber, "User1", BigDecimal.valueOf(5000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp(), 0L);
+
+            Transaction transaction = new Transaction(1L, toAccountNumber, fromAccountNumber, amount, TransactionType.TRANSFER, DateUtils.nowTimestamp());
+            TransactionDto transactionDto = new TransactionDto(1L, toAccountNumber, fromAccountNumber, amount, TransactionType.TRANSFER, DateUtils.nowUTC());
+
+            when(balanceBucketManager.isBucketed(toAccountNumber)).thenReturn(true);
+            when(accountLockManager.lockAccounts(List.of(fromAccountNumber))).thenReturn(Map.of(fromAccountNumber, fromAccount));
+            when(balanceBucketManager.credit(toAccountNumber, amount)).thenReturn(true);
+            when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
+            when(transactionMapper.mapToDto(transaction)).thenReturn(transactionDto);
+
+            TransactionDto result = transactionService.createTransaction(createTransactionDto);
+
+            assertThat(result).isEqualTo(transactionDto);
+            assertThat(fromAccount.getBalance()).isEqualByComparingTo(BigDecimal.valueOf(4000));
+            verify(accountRepository, times(1)).save(fromAccount);
+            verify(accountRepository, never()).creditBalance(any(), any(), any());
+            verify(accountCache, times(1)).evict(List.of(toAccountNumber, fromAccountNumber));
         }
 
         @Test
@@ -227,16 +357,15 @@ class TransactionServiceTest {
             BigDecimal amount = BigDecimal.valueOf(1000);
             CreateTransactionDto createTransactionDto = new CreateTransactionDto(TransactionType.TRANSFER, fromAccountNumber, toAccountNumber, amount);
 
-            Account toAccount = new Account(1L, toAccountNumber, "User1", BigDecimal.valueOf(5000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
-            when(accountRepository.findByAccountNumber(toAccountNumber)).thenReturn(Optional.of(toAccount));
-            when(accountRepository.findByAccountNumber(fromAccountNumber)).thenReturn(Optional.empty());
+            Account toAccount = new Account(1L, toAccountNumber, "User1", BigDecimal.valueOf(5000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp(), 0L);
+            when(accountLockManager.lockAccounts(List.of(fromAccountNumber, toAccountNumber)))
+                    .thenReturn(Map.of(toAccountNumber, toAccount));
 
             RuntimeException exception = assertThrows(DataNotFoundException.class, () -> transactionService.createTransaction(createTransactionDto));
 
             assertThat(exception.getMessage()).isEqualTo("Source account not found.");
 
-            verify(accountRepository, times(1)).findByAccountNumber(toAccountNumber);
-            verify(accountRepository, times(1)).findByAccountNumber(fromAccountNumber);
+            verify(accountLockManager, times(1)).lockAccounts(List.of(fromAccountNumber, toAccountNumber));
             verifyNoInteractions(transactionRepository);
         }
 
@@ -248,13 +377,13 @@ class TransactionServiceTest {
             BigDecimal amount = BigDecimal.valueOf(1000);
             CreateTransactionDto createTransactionDto = new CreateTransactionDto(TransactionType.TRANSFER, fromAccountNumber, toAccountNumber, amount);
 
-            when(accountRepository.findByAccountNumber(toAccountNumber)).thenReturn(Optional.empty());
+            when(accountLockManager.lockAccounts(List.of(fromAccountNumber, toAccountNumber))).thenReturn(Map.of());
 
             RuntimeException exception = assertThrows(DataNotFoundException.class, () -> transactionService.createTransaction(createTransactionDto));
 
             assertThat(exception.getMessage()).isEqualTo("Target account not found.");
 
-            verify(accountRepository, times(1)).findByAccountNumber(toAccountNumber);
+            verify(accountLockManager, times(1)).lockAccounts(List.of(fromAccountNumber, toAccountNumber));
             verifyNoInteractions(transactionRepository);
         }
 
@@ -266,19 +395,63 @@ class TransactionServiceTest {
             BigDecimal amount = BigDecimal.valueOf(10000);
             CreateTransactionDto createTransactionDto = new CreateTransactionDto(TransactionType.TRANSFER, fromAccountNumber, toAccountNumber, amount);
 
-            Account fromAccount = new Account(1L, fromAccountNumber, "User1", BigDecimal.valueOf(5000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
-            Account toAccount = new Account(2L, toAccountNumber, "User2", BigDecimal.valueOf(2000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp());
+            Account fromAccount = new Account(1L, fromAccountNumber, "User1", BigDecimal.valueOf(5000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp(), 0L);
+            Account toAccount = new Account(2L, toAccountNumber, "User2", BigDecimal.valueOf(2000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp(), 0L);
 
-            when(accountRepository.findByAccountNumber(fromAccountNumber)).thenReturn(Optional.of(fromAccount));
-            when(accountRepository.findByAccountNumber(toAccountNumber)).thenReturn(Optional.of(toAccount));
+            when(accountLockManager.lockAccounts(List.of(fromAccountNumber, toAccountNumber)))
+                    .thenReturn(Map.of(fromAccountNumber, fromAccount, toAccountNumber, toAccount));
 
             RuntimeException exception = assertThrows(BankingException.class, () -> transactionService.createTransaction(createTransactionDto));
 
             assertThat(exception.getMessage()).isEqualTo("Insufficient funds.");
 
-            verify(accountRepository, times(1)).findByAccountNumber(fromAccountNumber);
-            verify(accountRepository, times(1)).findByAccountNumber(toAccountNumber);
+            verify(accountLockManager, times(1)).lockAccounts(List.of(fromAccountNumber, toAccountNumber));
             verifyNoInteractions(transactionRepository);
         }
+
+        @Test
+        @DisplayName("Should run the transfer again when a concurrent change rolled it back")
+        void shouldRetryTransferAfterConcurrentChange() {
+            UUID fromAccountNumber = UUID.randomUUID();
+            UUID toAccountNumber = UUID.randomUUID();
+            BigDecimal amount = BigDecimal.valueOf(1000);
+            CreateTransactionDto createTransactionDto = new CreateTransactionDto(TransactionType.TRANSFER, fromAccountNumber, toAccountNumber, amount);
+
+            Account fromAccount = new Account(1L, fromAccountNumber, "User1", BigDecimal.valueOf(5000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp(), 1L);
+            Account toAccount = new Account(2L, toAccountNumber, "User2", BigDecimal.valueOf(2000), DateUtils.nowTimestamp(), DateUtils.nowTimestamp(), 1L);
+
+            Transaction transaction = new Transaction(1L, toAccountNumber, fromAccountNumber, amount, TransactionType.TRANSFER, DateUtils.nowTimestamp());
+            TransactionDto transactionDto = new TransactionDto(1L, toAccountNumber, fromAccountNumber, amount, TransactionType.TRANSFER, DateUtils.nowUTC());
+
+            doThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L))
+                    .doAnswer(TransactionServiceTest::runInTransaction)
+                    .when(transactionTemplate).execute(any());
+            when(accountLockManager.lockAccounts(List.of(fromAccountNumber, toAccountNumber)))
+                    .thenReturn(Map.of(fromAccountNumber, fromAccount, toAccountNumber, toAccount));
+            when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
+            when(transactionMapper.mapToDto(transaction)).thenReturn(transactionDto);
+
+            TransactionDto result = transactionService.createTransaction(createTransactionDto);
+
+            assertThat(result).isEqualTo(transactionDto);
+            verify(transactionTemplate, times(2)).execute(any());
+            verify(transactionRepository, times(1)).save(any(Transaction.class));
+        }
+
+        @Test
+        @DisplayName("Should lock the accounts of several transactions at once, leaving out bucketed receivers")
+        void shouldLockAccountsOfSeveralTransactionsAtOnce() {
+            UUID first = UUID.randomUUID();
+            UUID second = UUID.randomUUID();
+            UUID bucketed = UUID.randomUUID();
+            when(balanceBucketManager.isBucketed(any())).thenAnswer(invocation -> bucketed.equals(invocation.getArgument(0)));
+
+            transactionService.lockAccountsInCurrentTransaction(List.of(
+                    new CreateTransactionDto(TransactionType.TRANSFER, first, second, BigDecimal.TEN),
+                    new CreateTransactionDto(TransactionType.DEPOSIT, null, bucketed, BigDecimal.TEN),
+                    new CreateTransactionDto(TransactionType.WITHDRAW, second, null, BigDecimal.TEN)));
+
+            verify(accountLockManager, times(1)).lockAccounts(Set.of(first, second));
+        }
     }
 }
@@ -0,0 +1,109 @@
+package ua.example.banking.service.bucket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.config.properties.BalanceBucketProperties;
+import ua.example.banking.model.entity.Account;
+import ua.example.banking.repository.AccountRepository;
+import ua.example.banking.repository.jdbc.BalanceBucketJdbcRepository;
+import ua.example.banking.service.lock.AccountLockManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceBucketManagerTest {
+
+    @Mock
+    private BalanceBucketJdbcRepository balanceBucketJdbcRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountLockManager accountLockManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private BalanceBucketManager balanceBucketManager;
+
+    @BeforeEach
+    void setUp() {
+        balanceBucketManager = new BalanceBucketManager(balanceBucketJdbcRepository, accountRepository,
+                accountLockManager, new BalanceBucketProperties(), transactionTemplate);
+
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Should leave credits to accounts without balance buckets to the account row")
+    void shouldNotCreditAccountWithoutBuckets() {
+        assertThat(balanceBucketManager.credit(UUID.randomUUID(), BigDecimal.TEN)).isFalse();
+
+        verifyNoInteractions(balanceBucketJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("Should credit one of the account's buckets and fall back to the account row once they are gone")
+    void shouldCreditBucketUntilBucketsAreRemoved() {
+        UUID accountNumber = UUID.randomUUID();
+        when(balanceBucketJdbcRepository.findBucketCounts()).thenReturn(Map.of(accountNumber, 4));
+        when(balanceBucketJdbcRepository.credit(eq(accountNumber), anyInt(), eq(BigDecimal.TEN))).thenReturn(true, false);
+
+        balanceBucketManager.refreshBucketCounts();
+
+        assertThat(balanceBucketManager.credit(accountNumber, BigDecimal.TEN)).isTrue();
+        assertThat(balanceBucketManager.credit(accountNumber, BigDecimal.TEN)).isFalse();
+        assertThat(balanceBucketManager.isBucketed(accountNumber)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should drain the old buckets into the account balance before replacing them")
+    void shouldDrainBucketsWhenChangingBucketCount() {
+        UUID accountNumber = UUID.randomUUID();
+        when(accountLockManager.lockAccounts(List.of(accountNumber))).thenReturn(Map.of(accountNumber, new Account()));
+        when(balanceBucketJdbcRepository.drain(accountNumber)).thenReturn(BigDecimal.valueOf(250));
+
+        balanceBucketManager.setBalanceBuckets(accountNumber, 0);
+
+        verify(accountRepository).creditBalance(eq(accountNumber), eq(BigDecimal.valueOf(250)), any(Timestamp.class));
+        verify(balanceBucketJdbcRepository).replaceBuckets(accountNumber, 0);
+        assertThat(balanceBucketManager.isBucketed(accountNumber)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject more buckets than the configured maximum")
+    void shouldRejectTooManyBuckets() {
+        assertThrows(ValidationException.class,
+                () -> balanceBucketManager.setBalanceBuckets(UUID.randomUUID(), new BalanceBucketProperties().getMaxBuckets() + 1));
+
+        verify(transactionTemplate, never()).executeWithoutResult(any());
+    }
+}
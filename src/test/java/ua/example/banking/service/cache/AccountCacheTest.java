@@ -0,0 +1,90 @@
+package ua.example.banking.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.example.banking.config.properties.AccountCacheProperties;
+import ua.example.banking.model.dto.account.AccountDto;
+import ua.example.banking.util.DateUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountCacheTest {
+
+    @Mock
+    private AccountCacheInvalidationHook firstHook;
+
+    @Mock
+    private AccountCacheInvalidationHook secondHook;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountCache accountCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        accountCache = new AccountCache(new AccountCacheProperties(), List.of(firstHook, secondHook), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the cached account until the changing transaction commits")
+    void shouldEvictAfterCommit() {
+        UUID accountNumber = UUID.randomUUID();
+        accountCache.get(accountNumber, number -> account(number, BigDecimal.TEN));
+
+        TransactionSynchronizationManager.initSynchronization();
+        accountCache.evict(List.of(accountNumber));
+
+        assertThat(accountCache.get(accountNumber, number -> account(number, BigDecimal.ONE)).getBalance())
+                .isEqualTo(BigDecimal.TEN);
+        verify(firstHook, never()).accountsChanged(List.of(accountNumber));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(accountCache.get(accountNumber, number -> account(number, BigDecimal.ONE)).getBalance())
+                .isEqualTo(BigDecimal.ONE);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "accounts").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should notify every invalidation hook even when one of them fails")
+    void shouldNotifyAllHooks() {
+        UUID accountNumber = UUID.randomUUID();
+        doThrow(new IllegalStateException("broker unavailable")).when(firstHook).accountsChanged(List.of(accountNumber));
+
+        accountCache.evict(List.of(accountNumber));
+
+        verify(firstHook, times(1)).accountsChanged(List.of(accountNumber));
+        verify(secondHook, times(1)).accountsChanged(List.of(accountNumber));
+    }
+
+    private static AccountDto account(UUID accountNumber, BigDecimal balance) {
+        return new AccountDto(1L, accountNumber, "user", balance, DateUtils.nowUTC(), DateUtils.nowUTC());
+    }
+}
@@ -0,0 +1,251 @@
+package ua.example.banking.service.ledger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ua.example.banking.advice.exception.DataNotFoundException;
+import ua.example.banking.advice.exception.ValidationException;
+import ua.example.banking.config.properties.LedgerProperties;
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.entity.Transaction;
+import ua.example.banking.model.enums.TransactionType;
+import ua.example.banking.repository.jdbc.AccountJdbcRepository;
+import ua.example.banking.repository.jdbc.LedgerDeadLetterJdbcRepository;
+import ua.example.banking.repository.jdbc.TransactionJdbcRepository;
+import ua.example.banking.service.cache.AccountCache;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerEngineTest {
+
+    private static final int ACCOUNTS = 8;
+
+    @Mock
+    private AccountJdbcRepository accountJdbcRepository;
+
+    @Mock
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Mock
+    private LedgerDeadLetterJdbcRepository ledgerDeadLetterJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AccountCache accountCache;
+
+    private final List<UUID> accountNumbers = new ArrayList<>();
+    private final Map<UUID, BigDecimal> persistedBalances = new ConcurrentHashMap<>();
+    private final List<Transaction> persistedTransactions = Collections.synchronizedList(new ArrayList<>());
+    private LedgerProperties properties;
+    private LedgerEngine ledgerEngine;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            UUID accountNumber = UUID.randomUUID();
+            accountNumbers.add(accountNumber);
+            persistedBalances.put(accountNumber, new BigDecimal("100.00"));
+        }
+
+        AtomicLong sequence = new AtomicLong();
+        lenient().when(transactionJdbcRepository.allocateIds(anyInt())).thenAnswer(invocation -> {
+            long blockEnd = sequence.addAndGet(invocation.<Integer>getArgument(0));
+            return LongStream.rangeClosed(blockEnd - invocation.<Integer>getArgument(0) + 1, blockEnd).boxed().toList();
+        });
+        doAnswer(invocation -> {
+            persistedBalances.forEach(invocation.<BiConsumer<UUID, BigDecimal>>getArgument(1));
+            return null;
+        }).when(accountJdbcRepository).forEachBalance(anyInt(), any());
+        lenient().doAnswer(invocation -> {
+            invocation.<Map<UUID, BigDecimal>>getArgument(0).forEach((accountNumber, amount) ->
+                    persistedBalances.merge(accountNumber, amount, BigDecimal::add));
+            return null;
+        }).when(accountJdbcRepository).addToBalances(any(), any(Timestamp.class));
+        lenient().doAnswer(invocation -> persistedTransactions.addAll(invocation.getArgument(0)))
+                .when(transactionJdbcRepository).insertAllWithIds(any());
+
+        properties = new LedgerProperties();
+        properties.setShards(4);
+        properties.setPersistBatchSize(16);
+        properties.setPersistRetryDelay(Duration.ofMillis(1));
+        properties.setPersistMaxAttempts(2);
+
+        ledgerEngine = new LedgerEngine(properties, accountJdbcRepository, transactionJdbcRepository,
+                ledgerDeadLetterJdbcRepository, transactionManager, accountCache, new SimpleMeterRegistry());
+        ledgerEngine.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledgerEngine.stop();
+    }
+
+    @Test
+    @DisplayName("Should conserve money across concurrent transfers between shards")
+    void shouldConserveMoneyAcrossConcurrentTransfers() throws Exception {
+        int transfers = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> results = new ArrayList<>();
+
+        for (int i = 0; i < transfers; i++) {
+            results.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                UUID from = accountNumbers.get(random.nextInt(ACCOUNTS));
+                UUID to = accountNumbers.get(random.nextInt(ACCOUNTS));
+                if (from.equals(to)) {
+                    return;
+                }
+                try {
+                    ledgerEngine.execute(new CreateTransactionDto(TransactionType.TRANSFER, from, to,
+                            BigDecimal.valueOf(random.nextInt(1, 3000), 2)));
+                } catch (ValidationException e) {
+                    assertThat(e.getMessage()).isEqualTo("Insufficient funds.");
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        BigDecimal total = persistedBalances.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(total).isEqualByComparingTo(BigDecimal.valueOf(100L * ACCOUNTS));
+        assertThat(persistedBalances.values()).allSatisfy(balance -> assertThat(balance).isNotNegative());
+        assertThat(persistedTransactions).extracting(Transaction::getId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Should acknowledge a deposit only after it is persisted")
+    void shouldPersistDepositBeforeAcknowledging() {
+        UUID to = accountNumbers.getFirst();
+
+        Transaction transaction = ledgerEngine.execute(new CreateTransactionDto(TransactionType.DEPOSIT, null, to, new BigDecimal("25.50")));
+
+        assertThat(transaction.getId()).isNotNull();
+        assertThat(transaction.getCreateDateTime()).isNotNull();
+        assertThat(persistedTransactions).containsExactly(transaction);
+        assertThat(persistedBalances.get(to)).isEqualByComparingTo("125.50");
+        verify(accountCache).evict(any());
+    }
+
+    @Test
+    @DisplayName("Should dead-letter an entry that keeps failing and go on persisting the others")
+    void shouldDeadLetterEntryThatKeepsFailing() {
+        UUID poisoned = accountNumbers.getFirst();
+        UUID healthy = accountNumbers.getLast();
+        doAnswer(invocation -> {
+            List<Transaction> transactions = invocation.getArgument(0);
+            if (transactions.stream().anyMatch(transaction -> poisoned.equals(transaction.getAccountNumberTo()))) {
+                throw new DataIntegrityViolationException("no partition of relation \"transaction\" found for row");
+            }
+            return persistedTransactions.addAll(transactions);
+        }).when(transactionJdbcRepository).insertAllWithIds(any());
+
+        Transaction failed = ledgerEngine.execute(new CreateTransactionDto(TransactionType.DEPOSIT, null, poisoned, new BigDecimal("1.00")));
+        Transaction persisted = ledgerEngine.execute(new CreateTransactionDto(TransactionType.DEPOSIT, null, healthy, new BigDecimal("1.00")));
+
+        assertThat(failed.getId()).isNotNull();
+        assertThat(persistedTransactions).containsExactly(persisted);
+        verify(ledgerDeadLetterJdbcRepository).insert(eq(failed), anyString(), any(Timestamp.class));
+        assertThat(ledgerEngine.isPersistFailing()).isFalse();
+        assertThat(ledgerEngine.oldestUnpersisted()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should acknowledge an applied transaction when persisting it takes longer than the timeout")
+    void shouldAcknowledgeAppliedTransactionWhenPersistingIsSlow() throws Exception {
+        UUID to = accountNumbers.getFirst();
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return persistedTransactions.addAll(invocation.getArgument(0));
+        }).when(transactionJdbcRepository).insertAllWithIds(any());
+        properties.setAcknowledgeTimeout(Duration.ofMillis(50));
+
+        Transaction transaction = ledgerEngine.execute(new CreateTransactionDto(TransactionType.DEPOSIT, null, to, new BigDecimal("1.00")));
+
+        assertThat(transaction.getId()).isNotNull();
+        assertThat(ledgerEngine.oldestUnpersisted()).contains(transaction.getCreateDateTime());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should reject a withdrawal exceeding the balance without persisting it")
+    void shouldRejectWithdrawalWithInsufficientFunds() {
+        UUID from = accountNumbers.getFirst();
+
+        ValidationException exception = assertThrows(ValidationException.class, () ->
+                ledgerEngine.execute(new CreateTransactionDto(TransactionType.WITHDRAW, from, null, new BigDecimal("100.01"))));
+
+        assertThat(exception.getMessage()).isEqualTo("Insufficient funds.");
+        verify(transactionJdbcRepository, never()).insertAllWithIds(any());
+    }
+
+    @Test
+    @DisplayName("Should leave the source untouched when the transfer target does not exist")
+    void shouldNotDebitSourceWhenTargetIsMissing() {
+        UUID from = accountNumbers.getFirst();
+        UUID to = UUID.randomUUID();
+        when(accountJdbcRepository.findBalance(to)).thenReturn(Optional.empty());
+
+        DataNotFoundException exception = assertThrows(DataNotFoundException.class, () ->
+                ledgerEngine.execute(new CreateTransactionDto(TransactionType.TRANSFER, from, to, new BigDecimal("10.00"))));
+
+        assertThat(exception.getMessage()).isEqualTo("Target account not found.");
+        ledgerEngine.execute(new CreateTransactionDto(TransactionType.WITHDRAW, from, null, new BigDecimal("100.00")));
+        assertThat(persistedBalances.get(from)).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    @DisplayName("Should load an account created after startup on first use")
+    void shouldLoadAccountCreatedAfterStartup() {
+        UUID accountNumber = UUID.randomUUID();
+        persistedBalances.put(accountNumber, new BigDecimal("5.00"));
+        when(accountJdbcRepository.findBalance(accountNumber)).thenReturn(Optional.of(new BigDecimal("5.00")));
+
+        ledgerEngine.execute(new CreateTransactionDto(TransactionType.TRANSFER, accountNumber, accountNumbers.getFirst(), new BigDecimal("5.00")));
+
+        assertThat(persistedBalances.get(accountNumber)).isEqualByComparingTo("0.00");
+        assertThat(persistedBalances.get(accountNumbers.getFirst())).isEqualByComparingTo("105.00");
+    }
+}
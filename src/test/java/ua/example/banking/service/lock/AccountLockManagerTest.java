@@ -0,0 +1,238 @@
+package ua.example.banking.service.lock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.example.banking.advice.exception.ConcurrentOperationException;
+import ua.example.banking.config.properties.AccountLockProperties;
+import ua.example.banking.model.entity.Account;
+import ua.example.banking.repository.AccountRepository;
+import ua.example.banking.util.DateUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountLockManagerTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountLockManager accountLockManager;
+
+    @BeforeEach
+    void setUp() {
+        AccountLockProperties properties = new AccountLockProperties();
+        properties.setStripes(16);
+        properties.setTimeout(Duration.ofMillis(200));
+
+        meterRegistry = new SimpleMeterRegistry();
+        accountLockManager = new AccountLockManager(accountRepository, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should lock accounts and release them when the transaction completes")
+    void shouldLockAccountsUntilTransactionCompletes() {
+        UUID from = UUID.randomUUID();
+        UUID to = UUID.randomUUID();
+        Account fromAccount = new Account(1L, from, "User1", BigDecimal.TEN, DateUtils.nowTimestamp(), null, 0L);
+        Account toAccount = new Account(2L, to, "User2", BigDecimal.ONE, DateUtils.nowTimestamp(), null, 0L);
+
+        when(accountRepository.findAllForUpdate(List.of(from, to))).thenReturn(List.of(toAccount, fromAccount));
+
+        TransactionSynchronizationManager.initSynchronization();
+        Map<UUID, Account> accounts = accountLockManager.lockAccounts(List.of(from, to));
+
+        assertThat(accounts).containsEntry(from, fromAccount).containsEntry(to, toAccount);
+        assertThat(accountLockManager.isLocked(from)).isTrue();
+        assertThat(accountLockManager.isLocked(to)).isTrue();
+
+        completeTransaction();
+
+        assertThat(accountLockManager.isLocked(from)).isFalse();
+        assertThat(accountLockManager.isLocked(to)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should only load the accounts in optimistic mode")
+    void shouldLoadAccountsWithoutLockingInOptimisticMode() {
+        AccountLockProperties properties = new AccountLockProperties();
+        properties.setMode(AccountLockProperties.Mode.OPTIMISTIC);
+        accountLockManager = new AccountLockManager(accountRepository, properties, meterRegistry);
+
+        UUID accountNumber = UUID.randomUUID();
+        Account account = new Account(1L, accountNumber, "User1", BigDecimal.TEN, DateUtils.nowTimestamp(), null, 3L);
+        when(accountRepository.findAllByAccountNumberInOrderByAccountNumber(List.of(accountNumber)))
+                .thenReturn(List.of(account));
+
+        TransactionSynchronizationManager.initSynchronization();
+        Map<UUID, Account> accounts = accountLockManager.lockAccounts(List.of(accountNumber));
+
+        assertThat(accounts).containsEntry(accountNumber, account);
+        assertThat(accountLockManager.isLocked(accountNumber)).isFalse();
+        verify(accountRepository, never()).findAllForUpdate(any());
+    }
+
+    @Test
+    @DisplayName("Should lock only the rows for update, in optimistic mode too")
+    void shouldLockOnlyRowsForUpdate() {
+        AccountLockProperties properties = new AccountLockProperties();
+        properties.setMode(AccountLockProperties.Mode.OPTIMISTIC);
+        accountLockManager = new AccountLockManager(accountRepository, properties, meterRegistry);
+
+        UUID accountNumber = UUID.randomUUID();
+        Account account = new Account(1L, accountNumber, "User1", BigDecimal.TEN, DateUtils.nowTimestamp(), null, 3L);
+        when(accountRepository.findAllForUpdate(List.of(accountNumber))).thenReturn(List.of(account));
+
+        TransactionSynchronizationManager.initSynchronization();
+        Map<UUID, Account> accounts = accountLockManager.lockAccountsForUpdate(List.of(accountNumber));
+
+        assertThat(accounts).containsEntry(accountNumber, account);
+        assertThat(accountLockManager.isLocked(accountNumber)).isFalse();
+        verify(accountRepository, never()).findAllByAccountNumberInOrderByAccountNumber(any());
+    }
+
+    @Test
+    @DisplayName("Should not hold stripes for a batch of many accounts while other operations lock theirs")
+    void shouldNotBlockOtherOperationsWhileLockingManyRows() throws Exception {
+        List<UUID> batchAccounts = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            batchAccounts.add(UUID.randomUUID());
+        }
+        UUID other = UUID.randomUUID();
+
+        TransactionSynchronizationManager.initSynchronization();
+        accountLockManager.lockAccountsForUpdate(batchAccounts);
+
+        assertThat(batchAccounts).noneMatch(accountLockManager::isLocked);
+        CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                accountLockManager.lockAccounts(List.of(other));
+            } finally {
+                completeTransaction();
+            }
+        }).get(1, TimeUnit.SECONDS);
+        verify(accountRepository).findAllForUpdate(batchAccounts);
+    }
+
+    @Test
+    @DisplayName("Should refuse to lock accounts outside of a transaction")
+    void shouldRefuseToLockOutsideTransaction() {
+        assertThrows(IllegalStateException.class, () -> accountLockManager.lockAccounts(List.of(UUID.randomUUID())));
+    }
+
+    @Test
+    @DisplayName("Should not deadlock when opposing transfers lock the same accounts")
+    void shouldNotDeadlockOnOpposingTransfers() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        lenient().when(accountRepository.findAllForUpdate(any())).thenReturn(List.of());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            CompletableFuture<Void> forward = CompletableFuture.runAsync(() -> lockRepeatedly(start, first, second), executor);
+            CompletableFuture<Void> backward = CompletableFuture.runAsync(() -> lockRepeatedly(start, second, first), executor);
+            start.countDown();
+
+            CompletableFuture.allOf(forward, backward).get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double acquisitions = meterRegistry.find("banking.account.lock.acquisitions").functionCounters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+        assertThat(acquisitions).isGreaterThanOrEqualTo(2000);
+        assertThat(meterRegistry.get("banking.account.lock.wait").timer().count()).isEqualTo((long) acquisitions);
+    }
+
+    @Test
+    @DisplayName("Should fail with a conflict when the account stays locked past the timeout")
+    void shouldTimeOutWhenAccountIsHeldByAnotherTransaction() throws Exception {
+        UUID accountNumber = UUID.randomUUID();
+        lenient().when(accountRepository.findAllForUpdate(any())).thenReturn(List.of());
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            accountLockManager.lockAccounts(List.of(accountNumber));
+            locked.countDown();
+            awaitQuietly(finish);
+            completeTransaction();
+        });
+        holder.start();
+
+        try {
+            assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+            TransactionSynchronizationManager.initSynchronization();
+
+            assertThrows(ConcurrentOperationException.class, () -> accountLockManager.lockAccounts(List.of(accountNumber)));
+
+            String stripe = String.valueOf(accountLockManager.stripeIndex(accountNumber));
+            assertThat(meterRegistry.get("banking.account.lock.contentions").tag("stripe", stripe).functionCounter().count())
+                    .isEqualTo(1);
+        } finally {
+            finish.countDown();
+            holder.join();
+        }
+    }
+
+    private void lockRepeatedly(CountDownLatch start, UUID first, UUID second) {
+        awaitQuietly(start);
+        for (int i = 0; i < 1000; i++) {
+            TransactionSynchronizationManager.initSynchronization();
+            accountLockManager.lockAccounts(List.of(first, second));
+            completeTransaction();
+        }
+    }
+
+    private static void completeTransaction() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package ua.example.banking.service.partition;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.example.banking.config.properties.TransactionPartitionProperties;
+import ua.example.banking.repository.jdbc.BalanceCheckpointJdbcRepository;
+import ua.example.banking.repository.jdbc.TransactionPartitionJdbcRepository;
+import ua.example.banking.util.DateUtils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Period;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionPartitionManagerTest {
+
+    @Mock
+    private TransactionPartitionJdbcRepository transactionPartitionJdbcRepository;
+
+    @Mock
+    private BalanceCheckpointJdbcRepository balanceCheckpointJdbcRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final TransactionPartitionProperties transactionPartitionProperties = new TransactionPartitionProperties();
+
+    private TransactionPartitionManager transactionPartitionManager;
+
+    @BeforeEach
+    void setUp() {
+        transactionPartitionManager = new TransactionPartitionManager(transactionPartitionJdbcRepository,
+                balanceCheckpointJdbcRepository, transactionPartitionProperties, transactionTemplate);
+
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Should create the current and upcoming monthly partitions and keep history without retention")
+    void shouldPrecreatePartitions() {
+        YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+
+        transactionPartitionManager.maintainPartitions();
+
+        for (int i = 0; i <= transactionPartitionProperties.getPrecreateMonths(); i++) {
+            verify(transactionPartitionJdbcRepository).createPartition(currentMonth.plusMonths(i));
+        }
+        verify(transactionPartitionJdbcRepository, never()).findAttachedPartitions();
+        verify(transactionPartitionJdbcRepository, never()).archivePartition(any());
+    }
+
+    @Test
+    @DisplayName("Should checkpoint balances before archiving partitions older than the retention")
+    void shouldArchivePartitionsPastRetention() {
+        transactionPartitionProperties.setRetention(Period.ofMonths(12));
+        YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+        YearMonth expired = currentMonth.minusMonths(14);
+        YearMonth lastExpired = currentMonth.minusMonths(13);
+        YearMonth retained = currentMonth.minusMonths(12);
+
+        when(transactionPartitionJdbcRepository.findAttachedPartitions()).thenReturn(List.of(expired, lastExpired, retained, currentMonth));
+
+        transactionPartitionManager.maintainPartitions();
+
+        InOrder inOrder = inOrder(balanceCheckpointJdbcRepository, transactionPartitionJdbcRepository);
+        inOrder.verify(balanceCheckpointJdbcRepository).createCheckpoints(startOf(lastExpired), 1);
+        inOrder.verify(transactionPartitionJdbcRepository).archivePartition(expired);
+        inOrder.verify(balanceCheckpointJdbcRepository).createCheckpoints(startOf(retained), 1);
+        inOrder.verify(transactionPartitionJdbcRepository).archivePartition(lastExpired);
+        verify(transactionPartitionJdbcRepository, never()).archivePartition(retained);
+
+        assertThat(transactionPartitionManager.getArchivedBefore()).contains(retained.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC));
+        verify(transactionPartitionJdbcRepository, never()).findLatestArchivedPartition();
+    }
+
+    @Test
+    @DisplayName("Should load the archive boundary once from the database within its TTL")
+    void shouldLoadArchiveBoundaryOnce() {
+        YearMonth archived = YearMonth.of(2020, 1);
+        when(transactionPartitionJdbcRepository.findLatestArchivedPartition()).thenReturn(Optional.of(archived));
+
+        assertThat(transactionPartitionManager.getArchivedBefore()).contains(DateUtils.timestampToOffsetDateTime(startOf(archived.plusMonths(1))));
+        assertThat(transactionPartitionManager.getArchivedBefore()).isPresent();
+
+        verify(transactionPartitionJdbcRepository, times(1)).findLatestArchivedPartition();
+    }
+
+    @Test
+    @DisplayName("Should read the archive boundary again once its TTL has passed")
+    void shouldReloadArchiveBoundaryAfterTtl() {
+        transactionPartitionProperties.setArchiveBoundaryTtl(Duration.ZERO);
+        YearMonth archived = YearMonth.of(2020, 1);
+        when(transactionPartitionJdbcRepository.findLatestArchivedPartition())
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(archived));
+
+        assertThat(transactionPartitionManager.getArchivedBefore()).isEmpty();
+        assertThat(transactionPartitionManager.getArchivedBefore()).contains(DateUtils.timestampToOffsetDateTime(startOf(archived.plusMonths(1))));
+
+        verify(transactionPartitionJdbcRepository, times(2)).findLatestArchivedPartition();
+    }
+
+    private static Timestamp startOf(YearMonth month) {
+        return Timestamp.valueOf(month.atDay(1).atStartOfDay());
+    }
+}
@@ -0,0 +1,127 @@
+package ua.example.banking.service.retry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.example.banking.advice.exception.InsufficientFundsException;
+import ua.example.banking.advice.exception.TransactionConflictException;
+import ua.example.banking.config.properties.TransactionRetryProperties;
+import ua.example.banking.model.entity.Account;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransactionRetryPolicyTest {
+
+    private TransactionRetryProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionRetryPolicy transactionRetryPolicy;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TransactionRetryProperties();
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        properties.setMaxBackoff(Duration.ofMillis(2));
+
+        meterRegistry = new SimpleMeterRegistry();
+        transactionRetryPolicy = new TransactionRetryPolicy(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @DisplayName("Should retry a conflicting transaction until it commits")
+    void shouldRetryUntilCommitted() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = transactionRetryPolicy.execute(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw calls.get() == 1
+                        ? new ObjectOptimisticLockingFailureException(Account.class, 1L)
+                        : new OptimisticLockException();
+            }
+            return "committed";
+        });
+
+        assertThat(result).isEqualTo("committed");
+        assertThat(calls).hasValue(3);
+        assertThat(meterRegistry.get("banking.transaction.conflicts").tag("outcome", "retried").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("banking.transaction.attempts").summary().totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should report a conflict once all attempts are used")
+    void shouldFailWithConflictAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(TransactionConflictException.class, () -> transactionRetryPolicy.execute(() -> {
+            calls.incrementAndGet();
+            throw new CannotAcquireLockException("deadlock detected");
+        }));
+
+        assertThat(calls).hasValue(properties.getMaxAttempts());
+        assertThat(meterRegistry.get("banking.transaction.conflicts").tag("outcome", "exhausted").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("banking.transaction.attempts").summary().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not retry other failures")
+    void shouldNotRetryOtherFailures() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(InsufficientFundsException.class, () -> transactionRetryPolicy.execute(() -> {
+            calls.incrementAndGet();
+            throw new InsufficientFundsException();
+        }));
+
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should leave a conflict in the caller's transaction to the caller")
+    void shouldNotRetryWithinCallerTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> transactionRetryPolicy.execute(() -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Account.class, 1L);
+        }));
+
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should stop retrying once the retry budget is spent")
+    void shouldStopRetryingWhenBudgetIsSpent() {
+        properties.setBudgetCapacity(2);
+        properties.setBudgetRatio(0);
+        transactionRetryPolicy = new TransactionRetryPolicy(properties, meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(TransactionConflictException.class, () -> transactionRetryPolicy.execute(() -> {
+                calls.incrementAndGet();
+                throw new ObjectOptimisticLockingFailureException(Account.class, 1L);
+            }));
+        }
+
+        // the budget pays for two retries of the first transaction, the others get a single attempt
+        assertThat(calls).hasValue(5);
+        assertThat(transactionRetryPolicy.remainingBudget()).isZero();
+    }
+}
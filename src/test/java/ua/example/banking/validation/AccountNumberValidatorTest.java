@@ -0,0 +1,69 @@
+package ua.example.banking.validation;
+
+import jakarta.validation.ConstraintValidatorContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ua.example.banking.model.dto.transaction.CreateTransactionDto;
+import ua.example.banking.model.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberValidatorTest {
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private ConstraintValidatorContext context;
+
+    private final AccountNumberValidator validator = new AccountNumberValidator();
+
+    @Test
+    @DisplayName("Should accept requests carrying the accounts their type requires")
+    void shouldAcceptValidRequests() {
+        assertThat(validator.isValid(request(TransactionType.DEPOSIT, null, UUID.randomUUID()), context)).isTrue();
+        assertThat(validator.isValid(request(TransactionType.WITHDRAW, UUID.randomUUID(), null), context)).isTrue();
+        assertThat(validator.isValid(request(TransactionType.TRANSFER, UUID.randomUUID(), UUID.randomUUID()), context)).isTrue();
+
+        verifyNoInteractions(context);
+    }
+
+    @Test
+    @DisplayName("Should reject a deposit without a target account")
+    void shouldRejectDepositWithoutTarget() {
+        assertThat(validator.isValid(request(TransactionType.DEPOSIT, UUID.randomUUID(), null), context)).isFalse();
+
+        verify(context).buildConstraintViolationWithTemplate(AccountNumberValidator.TARGET_REQUIRED_MESSAGE);
+    }
+
+    @Test
+    @DisplayName("Should reject a withdrawal without a source account")
+    void shouldRejectWithdrawalWithoutSource() {
+        assertThat(validator.isValid(request(TransactionType.WITHDRAW, null, UUID.randomUUID()), context)).isFalse();
+
+        verify(context).buildConstraintViolationWithTemplate(AccountNumberValidator.SOURCE_REQUIRED_MESSAGE);
+    }
+
+    @Test
+    @DisplayName("Should reject a transfer missing an account or between the same account")
+    void shouldRejectInvalidTransfers() {
+        UUID accountNumber = UUID.randomUUID();
+
+        assertThat(validator.isValid(request(TransactionType.TRANSFER, accountNumber, null), context)).isFalse();
+        verify(context).buildConstraintViolationWithTemplate(AccountNumberValidator.BOTH_REQUIRED_MESSAGE);
+
+        assertThat(validator.isValid(request(TransactionType.TRANSFER, accountNumber, accountNumber), context)).isFalse();
+        verify(context).buildConstraintViolationWithTemplate(AccountNumberValidator.MUST_BE_DIFFERENT_MESSAGE);
+    }
+
+    private static CreateTransactionDto request(TransactionType transactionType, UUID from, UUID to) {
+        return new CreateTransactionDto(transactionType, from, to, BigDecimal.TEN);
+    }
+}